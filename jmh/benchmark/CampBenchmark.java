@@ -0,0 +1,113 @@
+package benchmark;
+
+import camp.Camp;
+import camp.CampController;
+import camp.CampControllerException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import user.Staff;
+import user.Student;
+import user.UserController;
+import utils.TimeRegion;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registering students for a camp. Each iteration fills a new camp of {@link #CAMP_SIZE} attendees, so the score is
+ * the time to register that many students one by one, against a catalog where every student already attends a few camps.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, batchSize = CampBenchmark.CAMP_SIZE)
+@Measurement(iterations = 20, batchSize = CampBenchmark.CAMP_SIZE)
+@Fork(1)
+public class CampBenchmark {
+    /**
+     * Number of students registered in each iteration.
+     */
+    static final int CAMP_SIZE = 1000;
+
+    /**
+     * Number of students in the roster.
+     */
+    @Param({"1000", "100000"})
+    public int rosterSize;
+
+    /**
+     * Number of camps in the catalog.
+     */
+    @Param({"100", "2000"})
+    public int catalogSize;
+
+    /**
+     * Controller holding the roster.
+     */
+    private UserController userController;
+
+    /**
+     * Controller holding the catalog.
+     */
+    private CampController campController;
+
+    /**
+     * Students of the roster.
+     */
+    private Student[] students;
+
+    /**
+     * Camp filled by the current iteration.
+     */
+    private Camp camp;
+
+    /**
+     * Number of camps filled so far, so that each starts on its own day after the catalog and conflicts with none.
+     */
+    private int filled = 0;
+
+    /**
+     * Index of the next student to register.
+     */
+    private int next = 0;
+
+    /**
+     * Load the roster, create the catalog, and register each student for up to four of its camps.
+     */
+    @Setup
+    public void setUp() {
+        userController = Fixtures.roster(rosterSize);
+        campController = Fixtures.catalog(userController, catalogSize, rosterSize, 1);
+        students = Fixtures.students(userController, rosterSize);
+        Fixtures.attend(students, Fixtures.allCamps(userController, campController), 4, 2);
+    }
+
+    /**
+     * Create the camp to fill.
+     */
+    @Setup(Level.Iteration)
+    public void newCamp() {
+        var day = Fixtures.FIRST_DAY.plusDays(Fixtures.CATALOG_DAYS + 1 + filled++);
+        camp = campController.createCamp((Staff) userController.getUser(Fixtures.STAFF_ID), "Filled " + filled,
+                new TimeRegion(day, day), Fixtures.CLOSE_DATE, "NTU", Fixtures.LOCATIONS[0], CAMP_SIZE + 10, 10, "Benchmark camp");
+    }
+
+    /**
+     * Register the next student of the roster as an attendee.
+     * @throws CampControllerException if the student cannot join, which would be a fault of the benchmark
+     */
+    @Benchmark
+    public void addStudent() throws CampControllerException {
+        camp.addStudent(students[next]);
+        next = (next + 1) % rosterSize;
+    }
+}
@@ -0,0 +1,129 @@
+package benchmark;
+
+import camp.Camp;
+import camp.CampController;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import user.Student;
+import utils.TimeRegion;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listing the camps a student can see, as the student screens do, unfiltered and with the date and location filters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CampControllerBenchmark {
+    /**
+     * Number of students in the roster, each of a faculty in turn.
+     */
+    @Param({"1000", "100000"})
+    public int rosterSize;
+
+    /**
+     * Number of camps in the catalog.
+     */
+    @Param({"100", "2000"})
+    public int catalogSize;
+
+    /**
+     * Controller holding the catalog.
+     */
+    private CampController campController;
+
+    /**
+     * Students of the roster.
+     */
+    private Student[] students;
+
+    /**
+     * Filter for a month in the middle of the catalog.
+     */
+    private List<CampController.Filter> dateFilter;
+
+    /**
+     * Filter for one location.
+     */
+    private List<CampController.Filter> locationFilter;
+
+    /**
+     * Both filters.
+     */
+    private List<CampController.Filter> bothFilters;
+
+    /**
+     * Load the roster and create the catalog.
+     */
+    @Setup
+    public void setUp() {
+        var userController = Fixtures.roster(rosterSize);
+        campController = Fixtures.catalog(userController, catalogSize, 100, 1);
+        students = Fixtures.students(userController, rosterSize);
+        var month = Fixtures.FIRST_DAY.plusDays(Fixtures.CATALOG_DAYS / 2);
+        var date = CampController.DateFilter(new TimeRegion(month, month.plusDays(30)));
+        var location = CampController.LocationFilter(Fixtures.LOCATIONS[1]);
+        dateFilter = List.of(date);
+        locationFilter = List.of(location);
+        bothFilters = List.of(date, location);
+    }
+
+    /**
+     * Pick a random student.
+     * @return The student
+     */
+    private Student anyStudent() {
+        return students[ThreadLocalRandom.current().nextInt(rosterSize)];
+    }
+
+    /**
+     * List every camp visible to a random student.
+     * @return The camps
+     */
+    @Benchmark
+    public List<Camp> visibleCamps() {
+        return campController.getVisibleCamps(anyStudent());
+    }
+
+    /**
+     * List the camps visible to a random student within a month.
+     * @return The camps
+     */
+    @Benchmark
+    public List<Camp> visibleCampsByDate() {
+        return campController.getVisibleCamps(anyStudent(), dateFilter);
+    }
+
+    /**
+     * List the camps visible to a random student at a location.
+     * @return The camps
+     */
+    @Benchmark
+    public List<Camp> visibleCampsByLocation() {
+        return campController.getVisibleCamps(anyStudent(), locationFilter);
+    }
+
+    /**
+     * List the camps visible to a random student within a month and at a location.
+     * @return The camps
+     */
+    @Benchmark
+    public List<Camp> visibleCampsByDateAndLocation() {
+        return campController.getVisibleCamps(anyStudent(), bothFilters);
+    }
+}
@@ -0,0 +1,170 @@
+package benchmark;
+
+import camp.Camp;
+import camp.CampController;
+import camp.CampControllerException;
+import user.Staff;
+import user.Student;
+import user.UserController;
+import utils.TimeRegion;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds the rosters and catalogs the benchmarks run against. Nothing is journalled, since no journal is open.
+ */
+final class Fixtures {
+    /**
+     * Faculties the students are spread over.
+     */
+    static final String[] FACULTIES = {"SCSE", "EEE", "NBS", "SPMS", "ADM"};
+
+    /**
+     * Locations the camps are spread over.
+     */
+    static final String[] LOCATIONS = {"NTU", "Sentosa", "Pulau Ubin", "East Coast", "Jurong"};
+
+    /**
+     * Password of every user, as given to new users by the roster loaders.
+     */
+    static final String PASSWORD = "password";
+
+    /**
+     * User Identification String of the staff in charge of every camp.
+     */
+    static final String STAFF_ID = "BENCHSTAFF";
+
+    /**
+     * Registration closing date of every camp, far enough ahead to stay open.
+     */
+    static final LocalDate CLOSE_DATE = LocalDate.now().plusYears(1);
+
+    /**
+     * First day camps of the catalog can start on.
+     */
+    static final LocalDate FIRST_DAY = CLOSE_DATE.plusDays(1);
+
+    /**
+     * Number of days camps of the catalog are spread over.
+     */
+    static final int CATALOG_DAYS = 365;
+
+    /**
+     * Not meant to be instantiated.
+     */
+    private Fixtures() {
+    }
+
+    /**
+     * User Identification String of a generated student.
+     * @param index Index of the student in the roster
+     * @return User Identification String
+     */
+    static String studentID(int index) {
+        return "STU" + index;
+    }
+
+    /**
+     * Load a roster of students, and the staff in charge of the camps, through the roster loaders.
+     * @param students Number of students
+     * @return Controller holding the users
+     */
+    static UserController roster(int students) {
+        try {
+            var studentFile = Files.createTempFile("students", ".csv");
+            var staffFile = Files.createTempFile("staff", ".csv");
+            try {
+                var builder = new StringBuilder("Name,Email,Faculty\n");
+                for (int i = 0; i < students; i++) {
+                    builder.append("Student ").append(i).append(',').append(studentID(i)).append("@e.ntu.edu.sg,")
+                            .append(FACULTIES[i % FACULTIES.length]).append('\n');
+                }
+                Files.writeString(studentFile, builder);
+                Files.writeString(staffFile, "Name,Email,Faculty\nBench Staff," + STAFF_ID + "@ntu.edu.sg,SCSE\n");
+                var userController = new UserController();
+                userController.addStudents(studentFile.toString());
+                userController.addStaff(staffFile.toString());
+                return userController;
+            } finally {
+                Files.deleteIfExists(studentFile);
+                Files.deleteIfExists(staffFile);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Students of a roster, in roster order.
+     * @param userController Controller holding the roster
+     * @param students Number of students
+     * @return The students
+     */
+    static Student[] students(UserController userController, int students) {
+        var result = new Student[students];
+        for (int i = 0; i < students; i++) {
+            result[i] = (Student) userController.getUser(studentID(i));
+        }
+        return result;
+    }
+
+    /**
+     * Create a catalog of camps lasting one to five days within a year, one in five open to a single faculty
+     * and the rest to all of NTU.
+     * @param userController Controller holding the staff in charge
+     * @param camps Number of camps
+     * @param slots Total slots of each camp
+     * @param seed Seed of the dates, faculties and locations
+     * @return Controller holding the camps
+     */
+    static CampController catalog(UserController userController, int camps, int slots, long seed) {
+        var staff = (Staff) userController.getUser(STAFF_ID);
+        var campController = new CampController();
+        var random = new Random(seed);
+        for (int i = 0; i < camps; i++) {
+            var start = FIRST_DAY.plusDays(random.nextInt(CATALOG_DAYS));
+            var userGroup = i % 5 == 0 ? FACULTIES[random.nextInt(FACULTIES.length)] : "NTU";
+            campController.createCamp(staff, "Camp " + i, new TimeRegion(start, start.plusDays(random.nextInt(5))), CLOSE_DATE,
+                    userGroup, LOCATIONS[random.nextInt(LOCATIONS.length)], slots, 10, "Benchmark camp " + i);
+        }
+        return campController;
+    }
+
+    /**
+     * Register each student as an attendee of up to a number of camps of the catalog, skipping those they cannot join.
+     * @param students Students to register
+     * @param camps Camps of the catalog
+     * @param perStudent Most camps per student
+     * @param seed Seed of the camps tried
+     */
+    static void attend(Student[] students, List<Camp> camps, int perStudent, long seed) {
+        var random = new Random(seed);
+        for (var student: students) {
+            int joined = 0;
+            for (int tries = 0; joined < perStudent && tries < perStudent * 4; tries++) {
+                try {
+                    camps.get(random.nextInt(camps.size())).addStudent(student);
+                    joined++;
+                } catch (CampControllerException e) {
+                    // Already joined, full or conflicting, try another camp.
+                }
+            }
+        }
+    }
+
+    /**
+     * Camps of a catalog in catalog order, as seen by staff.
+     * @param userController Controller holding the staff in charge
+     * @param campController Controller holding the camps
+     * @return Every camp
+     */
+    static List<Camp> allCamps(UserController userController, CampController campController) {
+        return new ArrayList<>(campController.getVisibleCamps(userController.getUser(STAFF_ID)));
+    }
+}
@@ -0,0 +1,80 @@
+package benchmark;
+
+import camp.Camp;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import user.Student;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checking a camp against the schedule of a student, as done before every registration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StudentBenchmark {
+    /**
+     * Number of students in the roster.
+     */
+    @Param({"1000", "100000"})
+    public int rosterSize;
+
+    /**
+     * Number of camps in the catalog.
+     */
+    @Param({"100", "2000"})
+    public int catalogSize;
+
+    /**
+     * Most camps each student attends.
+     */
+    @Param({"4", "16"})
+    public int campsPerStudent;
+
+    /**
+     * Students of the roster.
+     */
+    private Student[] students;
+
+    /**
+     * Camps of the catalog.
+     */
+    private List<Camp> camps;
+
+    /**
+     * Load the roster, create the catalog, and register each student for some of its camps.
+     */
+    @Setup
+    public void setUp() {
+        var userController = Fixtures.roster(rosterSize);
+        var campController = Fixtures.catalog(userController, catalogSize, rosterSize, 1);
+        students = Fixtures.students(userController, rosterSize);
+        camps = Fixtures.allCamps(userController, campController);
+        Fixtures.attend(students, camps, campsPerStudent, 2);
+    }
+
+    /**
+     * Check a random camp against the schedule of a random student.
+     * @return True if there is no conflict
+     */
+    @Benchmark
+    public boolean checkTimeConflicts() {
+        var random = ThreadLocalRandom.current();
+        return students[random.nextInt(rosterSize)].checkTimeConflicts(camps.get(random.nextInt(camps.size())));
+    }
+}
@@ -0,0 +1,96 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import user.User;
+import user.UserController;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Looking up users by ID, one at a time, on login, and a camp's worth at once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserControllerBenchmark {
+    /**
+     * Number of IDs looked up by each call of getUsers, about the members of a camp.
+     */
+    private static final int BATCH = 40;
+
+    /**
+     * Number of students in the roster.
+     */
+    @Param({"1000", "10000", "100000"})
+    public int rosterSize;
+
+    /**
+     * Controller holding the roster.
+     */
+    private UserController userController;
+
+    /**
+     * IDs of the students, in roster order.
+     */
+    private String[] ids;
+
+    /**
+     * Load the roster.
+     */
+    @Setup
+    public void setUp() {
+        userController = Fixtures.roster(rosterSize);
+        ids = new String[rosterSize];
+        for (int i = 0; i < rosterSize; i++) {
+            ids[i] = Fixtures.studentID(i);
+        }
+    }
+
+    /**
+     * Look up a random student.
+     * @return The student
+     */
+    @Benchmark
+    public User getUser() {
+        return userController.getUser(ids[ThreadLocalRandom.current().nextInt(rosterSize)]);
+    }
+
+    /**
+     * Log in as a random student.
+     * @return The student
+     */
+    @Benchmark
+    public User verifyLogin() {
+        return userController.verifyLogin(ids[ThreadLocalRandom.current().nextInt(rosterSize)], Fixtures.PASSWORD);
+    }
+
+    /**
+     * Look up a run of students, as listing the members of a camp does.
+     * @return The students
+     */
+    @Benchmark
+    public List<User> getUsers() {
+        int first = ThreadLocalRandom.current().nextInt(Math.max(1, rosterSize - BATCH));
+        var batch = new ArrayList<String>(BATCH);
+        for (int i = first; i < Math.min(rosterSize, first + BATCH); i++) {
+            batch.add(ids[i]);
+        }
+        return userController.getUsers(batch);
+    }
+}
@@ -1,37 +1,125 @@
+import api.ApiServer;
+import camp.Ballot;
 import camp.CampController;
+import metrics.Metrics;
+import metrics.MetricsDump;
 import screen.Screen;
+import screen.SessionServer;
 import screen.UserLoginScreen;
+import storage.Compactor;
+import storage.Journal;
+import storage.Snapshot;
 import user.*;
 
+import java.io.IOException;
+
 
 /**
  * Main
  */
 public class Main {
     /**
-     * Main
-     * @param args ignored in this app
+     * Location of the users CSV, imported when there is no snapshot yet
+     */
+    private static final String USERS_PATH = "data/users.csv";
+    /**
+     * Location of the camps CSV, imported when there is no snapshot yet
+     */
+    private static final String CAMPS_PATH = "data/camps.csv";
+    /**
+     * Location of the binary snapshots
+     */
+    private static final String SNAPSHOT_PATH = "data/snapshot";
+    /**
+     * Location of the journal segments
+     */
+    private static final String JOURNAL_PATH = "data/journal";
+    /**
+     * Location of the open ballots saved on exit by earlier versions, imported into the journal once
      */
-    public static void main(String[] args) {
-        UserController userController = UserController.loadFrom("data/users.csv").orElseGet(() -> {
-            var tempController = new UserController();
-            tempController.addStudents("data/student_list.csv");
-            tempController.addStaff("data/staff_list.csv");
-            return tempController;
-        });
+    private static final String BALLOTS_PATH = "data/ballots.csv";
+    /**
+     * Seconds between folds of a non-empty journal into the snapshot
+     */
+    private static final long COMPACT_INTERVAL = 60;
+    /**
+     * Location of the periodic dump of the metrics
+     */
+    private static final String METRICS_PATH = "data/metrics.txt";
+    /**
+     * Seconds between dumps of the metrics
+     */
+    private static final long METRICS_INTERVAL = 60;
+    /**
+     * Port served on with {@code --serve} when none is given
+     */
+    private static final int DEFAULT_PORT = 2002;
+    /**
+     * Port served on with {@code --api} when none is given
+     */
+    private static final int DEFAULT_API_PORT = 8080;
+
+    /**
+     * Main. Runs on the console, or with {@code --serve [port]} serves many users at once on localhost,
+     * or with {@code --api [port]} serves the HTTP API on localhost, until Enter is pressed on the console.
+     * @param args Nothing, or {@code --serve} optionally followed by the port, 2002 by default,
+     * or {@code --api} optionally followed by the port, 8080 by default
+     * @throws IOException if the snapshot or journal cannot be read, the first snapshot cannot be written,
+     * or the port cannot be listened on
+     */
+    public static void main(String[] args) throws IOException {
+        UserController userController;
+        CampController campController;
+        var snapshots = Snapshot.chain(SNAPSHOT_PATH);
+        if (!snapshots.isEmpty()) {
+            userController = UserController.loadFrom(snapshots);
+            campController = CampController.loadFrom(snapshots, userController);
+        } else {
+            userController = UserController.loadFrom(USERS_PATH).orElseGet(() -> {
+                var tempController = new UserController();
+                tempController.addStudents("data/student_list.csv");
+                tempController.addStaff("data/staff_list.csv");
+                return tempController;
+            });
+            campController = CampController.loadFrom(CAMPS_PATH, userController).orElseGet(CampController::new);
+            Snapshot.write(SNAPSHOT_PATH, userController, campController);
+        }
 
-        CampController campController = new CampController();
+        Journal.replay(JOURNAL_PATH, userController, campController);
+        var journal = Journal.open(JOURNAL_PATH);
+        Ballot.importFrom(BALLOTS_PATH, campController, userController);
+        var compactor = new Compactor(journal, SNAPSHOT_PATH, COMPACT_INTERVAL);
+        Metrics.gauge("camps", campController::getCampCount);
+        Metrics.gauge("ballots", () -> campController.getBallots().size());
+        Metrics.gauge("heap.used", () -> Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory());
+        var metricsDump = new MetricsDump(METRICS_PATH, METRICS_INTERVAL);
 
-        Screen screen = new UserLoginScreen(userController, campController);
+        if (args.length > 0 && args[0].equals("--serve")) {
+            int port = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PORT;
+            try (var server = new SessionServer(port, userController, campController)) {
+                Metrics.gauge("sessions", server::getSessionCount);
+                System.out.println("Serving on localhost:" + server.getPort() + ", press Enter to stop.");
+                Screen.scanner().nextLine();
+            }
+        } else if (args.length > 0 && args[0].equals("--api")) {
+            int port = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_API_PORT;
+            try (var server = new ApiServer(port, userController, campController)) {
+                System.out.println("Serving the API on http://localhost:" + server.getPort() + ", press Enter to stop.");
+                Screen.scanner().nextLine();
+            }
+        } else {
+            Screen screen = new UserLoginScreen(userController, campController);
 
-        while (screen != null) {
-            screen = screen.display();
+            while (screen != null) {
+                screen = screen.display();
+            }
         }
 
         System.out.println("Saving...");
 
-        UserController.saveTo("data/users.csv", userController);
+        compactor.close();
+        metricsDump.close();
 
         System.out.println("Exiting...");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,34 @@
+package api;
+
+/**
+ * Exception thrown when a request to the API cannot be served, carrying the HTTP status to answer with.
+ */
+final class ApiException extends Exception {
+    /**
+     * Version of the serialized form.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * HTTP status of the response.
+     */
+    private final int status;
+
+    /**
+     * Constructor
+     * @param status HTTP status of the response
+     * @param message Message of the exception
+     */
+    ApiException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    /**
+     * Getter
+     * @return HTTP status of the response
+     */
+    int getStatus() {
+        return status;
+    }
+}
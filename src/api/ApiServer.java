@@ -0,0 +1,884 @@
+package api;
+
+import camp.Camp;
+import camp.CampController;
+import camp.CampControllerException;
+import camp.Enquiry;
+import camp.Suggestion;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import user.Staff;
+import user.Student;
+import user.StudentCommittee;
+import user.User;
+import user.UserController;
+import utils.TimeRegion;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves CAMs as a JSON API over HTTP on localhost, for web front ends. Requests are served by the same
+ * controller methods as the screens, and responses are streamed as they are written.
+ * <p>
+ * A user logs in with {@code POST /login} and sends the returned token as {@code Authorization: Bearer <token>}.
+ * {@code GET /camps}, {@code GET /camps/{id}/enquiries} and {@code GET /camps/{id}/suggestions} take
+ * {@code offset} and {@code limit}, and answer with an ETag taken from {@link Camp#getModifications()},
+ * so a client polling with {@code If-None-Match} gets an empty 304 until a camp changes. The ETag also holds the role
+ * of the user and {@link User#getVersion()}, so it changes once the user becomes a committee member or their points
+ * change, which the count of camp changes may already include before the user is replaced. As these counts and the
+ * numbers of the users start over when the process restarts, the ETag also holds an epoch drawn at random at start,
+ * so a tag from an earlier process never matches.
+ */
+public final class ApiServer implements Closeable {
+    /**
+     * Number of connections waiting to be accepted before more are refused.
+     */
+    private static final int BACKLOG = 256;
+
+    /**
+     * Number of items in a page when none is asked for.
+     */
+    private static final int DEFAULT_LIMIT = 50;
+
+    /**
+     * Largest number of items in a page.
+     */
+    private static final int MAX_LIMIT = 500;
+
+    /**
+     * Largest request body read, in bytes.
+     */
+    private static final int MAX_BODY = 64 * 1024;
+
+    /**
+     * Random prefix of the ETags of this process, since the counts they are made of restart with it.
+     */
+    private static final String EPOCH = Long.toString(new SecureRandom().nextLong() >>> 1, 36);
+
+    /**
+     * Server of the HTTP requests.
+     */
+    private final HttpServer server;
+
+    /**
+     * Threads serving the requests.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * User ID of each logged in token.
+     */
+    private final Map<String, String> tokens = new ConcurrentHashMap<>();
+
+    /**
+     * Source of the tokens.
+     */
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * User Controller
+     */
+    private final UserController userController;
+
+    /**
+     * Camp Controller
+     */
+    private final CampController campController;
+
+    /**
+     * Part of a request to be served, which throws an ApiException to answer with an error.
+     */
+    @FunctionalInterface
+    private interface Handler {
+        /**
+         * Serve the request.
+         * @param exchange The request and its response
+         * @throws ApiException if the request cannot be served
+         * @throws CampControllerException if the camp refuses the change
+         * @throws IOException if the response cannot be sent
+         */
+        void handle(HttpExchange exchange) throws ApiException, CampControllerException, IOException;
+    }
+
+    /**
+     * Starts serving on a port of the loopback address.
+     * @param port Port to listen on, 0 for any free port
+     * @param userController UserController to serve
+     * @param campController CampController to serve
+     * @throws IOException if the port cannot be listened on
+     */
+    public ApiServer(int port, UserController userController, CampController campController) throws IOException {
+        this.userController = userController;
+        this.campController = campController;
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), BACKLOG);
+        var served = new AtomicInteger();
+        executor = Executors.newCachedThreadPool(task -> {
+            var thread = new Thread(task, "api-" + served.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/login", exchange -> serve(exchange, this::login));
+        server.createContext("/logout", exchange -> serve(exchange, this::logout));
+        server.createContext("/camps", exchange -> serve(exchange, this::camps));
+        server.start();
+    }
+
+    /**
+     * Getter
+     * @return Port the server listens on
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stop serving, letting requests being served finish for up to a second.
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.shutdown();
+    }
+
+    /**
+     * Serve a request, answering with a JSON error if it cannot be served.
+     * @param exchange The request and its response
+     * @param handler Part serving the request
+     * @throws IOException if the response cannot be sent
+     */
+    private static void serve(HttpExchange exchange, Handler handler) throws IOException {
+        try (exchange) {
+            try {
+                handler.handle(exchange);
+            } catch (ApiException e) {
+                error(exchange, e.getStatus(), e.getMessage());
+            } catch (CampControllerException e) {
+                error(exchange, 409, e.getMessage());
+            } catch (NoSuchElementException e) {
+                error(exchange, 404, e.getMessage());
+            } catch (IllegalArgumentException | DateTimeException e) {
+                error(exchange, 400, e.getMessage());
+            } catch (UncheckedIOException e) {
+                error(exchange, 503, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * {@code POST /login} with {@code {"userID", "password"}}: answers with a new token for the user.
+     * @param exchange The request and its response
+     * @throws ApiException if the user ID or password is wrong
+     * @throws IOException if the response cannot be sent
+     */
+    private void login(HttpExchange exchange) throws ApiException, IOException {
+        requireMethod(exchange, "POST");
+        var body = readBody(exchange);
+        User user;
+        try {
+            user = userController.verifyLogin(requireMember(body, "userID"), requireMember(body, "password"));
+        } catch (NoSuchElementException e) {
+            throw new ApiException(401, "Invalid username or password.");
+        }
+        var bytes = new byte[24];
+        random.nextBytes(bytes);
+        var token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        tokens.put(token, user.getUserID());
+        try (var json = respond(exchange, 200)) {
+            json.beginObject()
+                .member("token", token)
+                .member("userID", user.getUserID())
+                .member("name", user.getName())
+                .member("role", role(user))
+                .member("firstLogin", user.isFirstLogin())
+                .endObject();
+        }
+    }
+
+    /**
+     * {@code POST /logout}: ends the token of the request.
+     * @param exchange The request and its response
+     * @throws ApiException if the request has no valid token
+     * @throws IOException if the response cannot be sent
+     */
+    private void logout(HttpExchange exchange) throws ApiException, IOException {
+        requireMethod(exchange, "POST");
+        authenticate(exchange);
+        tokens.remove(token(exchange));
+        exchange.sendResponseHeaders(204, -1);
+    }
+
+    /**
+     * Route a request under {@code /camps}.
+     * @param exchange The request and its response
+     * @throws ApiException if the request cannot be served
+     * @throws CampControllerException if the camp refuses the change
+     * @throws IOException if the response cannot be sent
+     */
+    private void camps(HttpExchange exchange) throws ApiException, CampControllerException, IOException {
+        var user = authenticate(exchange);
+        var parts = exchange.getRequestURI().getPath().substring(1).split("/");
+        if (!parts[0].equals("camps")) {
+            throw new ApiException(404, "No such resource: " + exchange.getRequestURI().getPath());
+        }
+        if (parts.length == 1) {
+            requireMethod(exchange, "GET");
+            listCamps(exchange, user);
+            return;
+        }
+        Camp camp;
+        try {
+            camp = campController.getVisibleCamp(user, Integer.parseInt(parts[1]));
+        } catch (NumberFormatException e) {
+            throw new ApiException(404, "No camp with ID " + parts[1]);
+        }
+        var route = String.join("/", List.of(parts).subList(2, parts.length));
+        if (route.equals("register")) {
+            requireMethod(exchange, "POST");
+            register(exchange, requireStudent(user), camp);
+        } else if (route.equals("withdraw")) {
+            requireMethod(exchange, "POST");
+            withdraw(exchange, requireStudent(user), camp);
+        } else if (route.equals("waitlist")) {
+            var method = requireMethod(exchange, "GET", "POST", "DELETE");
+            waitlist(exchange, user, camp, method);
+        } else if (route.equals("enquiries")) {
+            if (requireMethod(exchange, "GET", "POST").equals("GET")) {
+                listEnquiries(exchange, user, camp);
+            } else {
+                sendEnquiry(exchange, requireStudent(user), camp);
+            }
+        } else if (route.matches("enquiries/\\d+/reply")) {
+            requireMethod(exchange, "POST");
+            replyEnquiry(exchange, user, camp, findEnquiry(camp, parts[3]));
+        } else if (route.equals("suggestions")) {
+            if (requireMethod(exchange, "GET", "POST").equals("GET")) {
+                listSuggestions(exchange, user, camp);
+            } else {
+                sendSuggestion(exchange, requireStudent(user), camp);
+            }
+        } else if (route.matches("suggestions/\\d+/(accept|reject)")) {
+            requireMethod(exchange, "POST");
+            reviewSuggestion(exchange, user, camp, findSuggestion(camp, parts[3]), parts[4].equals("accept"));
+        } else {
+            throw new ApiException(404, "No such resource: " + exchange.getRequestURI().getPath());
+        }
+    }
+
+    /**
+     * {@code GET /camps?location=&from=&to=&scope=}: a page of the camps the user can view, by name.
+     * {@code from} and {@code to} keep camps within the dates, and {@code scope} is {@code visible} by default,
+     * {@code registered} for the camps of a student or {@code in-charge} for the camps of a staff.
+     * @param exchange The request and its response
+     * @param user User of the request
+     * @throws ApiException if the scope does not apply to the user
+     * @throws IOException if the response cannot be sent
+     */
+    private void listCamps(HttpExchange exchange, User user) throws ApiException, IOException {
+        var query = readQuery(exchange);
+        if (notModified(exchange, user)) {
+            return;
+        }
+        var filters = new ArrayList<CampController.Filter>();
+        var location = query.get("location");
+        if (location != null) {
+            filters.add(CampController.LocationFilter(location));
+        }
+        var from = query.get("from");
+        var to = query.get("to");
+        if (from != null || to != null) {
+            if (from == null || to == null) {
+                throw new ApiException(400, "Both from and to are needed to filter by date.");
+            }
+            filters.add(CampController.DateFilter(new TimeRegion(LocalDate.parse(from), LocalDate.parse(to))));
+        }
+        var scope = query.getOrDefault("scope", "visible");
+        List<Camp> camps = switch (scope) {
+            case "visible" -> campController.getVisibleCamps(user, filters);
+            case "registered" -> {
+                var student = requireStudent(user);
+                List<Camp> attending;
+                synchronized (student.getRegistrationLock()) {
+                    attending = List.copyOf(student.getAttendingCamps());
+                }
+                yield filter(attending, filters);
+            }
+            case "in-charge" -> {
+                if (!(user instanceof Staff staff)) {
+                    throw new ApiException(403, "Only staff are in charge of camps.");
+                }
+                yield filter(campController.getInChargeCamps(staff), filters);
+            }
+            default -> throw new ApiException(400, "Unknown scope: " + scope);
+        };
+        int offset = readInt(query, "offset", 0);
+        int limit = Math.min(readInt(query, "limit", DEFAULT_LIMIT), MAX_LIMIT);
+        try (var json = beginPage(exchange, camps.size(), offset, limit)) {
+            for (var camp: page(camps, offset, limit)) {
+                writeCamp(json, camp, user);
+            }
+            endPage(json);
+        }
+    }
+
+    /**
+     * {@code POST /camps/{id}/register} with {@code {"role": "attendee"}} by default or {@code {"role": "committee"}}.
+     * @param exchange The request and its response
+     * @param student Student registering
+     * @param camp Camp registered to
+     * @throws ApiException if the role is unknown
+     * @throws CampControllerException if the student cannot join the camp
+     * @throws IOException if the response cannot be sent
+     */
+    private void register(HttpExchange exchange, Student student, Camp camp) throws ApiException, CampControllerException, IOException {
+        var role = readBody(exchange).getOrDefault("role", "attendee");
+        if (role.equals("committee")) {
+            camp.addStudentCommittee(student);
+            userController.convertTo(student, camp);
+        } else if (role.equals("attendee")) {
+            camp.addStudent(student);
+        } else {
+            throw new ApiException(400, "Unknown role: " + role);
+        }
+        try (var json = respond(exchange, 200)) {
+            json.beginObject().member("camp", camp.getID()).member("role", role).endObject();
+        }
+    }
+
+    /**
+     * {@code POST /camps/{id}/withdraw}: withdraws the student from the camp, which they cannot join again.
+     * @param exchange The request and its response
+     * @param student Student withdrawing
+     * @param camp Camp withdrawn from
+     * @throws CampControllerException if the student is not in the camp or cannot leave it
+     * @throws IOException if the response cannot be sent
+     */
+    private void withdraw(HttpExchange exchange, Student student, Camp camp) throws CampControllerException, IOException {
+        if (!student.isAttending(camp)) {
+            throw new CampControllerException("The student is not in the camp.");
+        }
+        camp.removeStudent(student);
+        exchange.sendResponseHeaders(204, -1);
+    }
+
+    /**
+     * {@code GET /camps/{id}/waitlist}: the length of the waitlist and the position of the student on it, 0 if not on it.
+     * {@code POST} puts the student on the waitlist, registering them at once if a slot is free,
+     * and {@code DELETE} takes them off it.
+     * @param exchange The request and its response
+     * @param user User of the request
+     * @param camp Camp of the waitlist
+     * @param method Method of the request
+     * @throws ApiException if a staff tries to join or leave the waitlist
+     * @throws CampControllerException if the student cannot join or is not on the waitlist
+     * @throws IOException if the response cannot be sent
+     */
+    private void waitlist(HttpExchange exchange, User user, Camp camp, String method) throws ApiException, CampControllerException, IOException {
+        if (method.equals("DELETE")) {
+            camp.leaveWaitlist(requireStudent(user));
+            exchange.sendResponseHeaders(204, -1);
+            return;
+        }
+        if (method.equals("POST")) {
+            camp.joinWaitlist(requireStudent(user));
+        }
+        try (var json = respond(exchange, 200)) {
+            json.beginObject()
+                .member("size", camp.getWaitlistSize())
+                .member("position", user instanceof Student student ? camp.getWaitlistPosition(student) : 0)
+                .member("registered", user instanceof Student student && student.isAttending(camp))
+                .endObject();
+        }
+    }
+
+    /**
+     * {@code GET /camps/{id}/enquiries}: a page of all the enquiries of the camp for its staff in charge and
+     * committee members, or of the enquiries sent by any other student.
+     * @param exchange The request and its response
+     * @param user User of the request
+     * @param camp Camp of the enquiries
+     * @throws ApiException if a staff is not in charge of the camp
+     * @throws IOException if the response cannot be sent
+     */
+    private void listEnquiries(HttpExchange exchange, User user, Camp camp) throws ApiException, IOException {
+        var query = readQuery(exchange);
+        if (notModified(exchange, user)) {
+            return;
+        }
+        List<Enquiry> enquiries;
+        if (canManage(user, camp)) {
+            enquiries = camp.getAllEnquiries();
+        } else if (user instanceof Student student) {
+            enquiries = camp.getSentEnquiries(student);
+        } else {
+            throw new ApiException(403, "Only the staff in charge can view the enquiries of this camp.");
+        }
+        int offset = readInt(query, "offset", 0);
+        int limit = Math.min(readInt(query, "limit", DEFAULT_LIMIT), MAX_LIMIT);
+        try (var json = beginPage(exchange, enquiries.size(), offset, limit)) {
+            for (var enquiry: page(enquiries, offset, limit)) {
+                json.beginObject()
+                    .member("id", enquiry.getID())
+                    .member("userID", enquiry.getUserID())
+                    .member("message", enquiry.getMessage())
+                    .member("answer", enquiry.getAnswer())
+                    .endObject();
+            }
+            endPage(json);
+        }
+    }
+
+    /**
+     * {@code POST /camps/{id}/enquiries} with {@code {"message"}}.
+     * @param exchange The request and its response
+     * @param student Student sending the enquiry
+     * @param camp Camp the enquiry is sent to
+     * @throws ApiException if there is no message
+     * @throws IOException if the response cannot be sent
+     */
+    private void sendEnquiry(HttpExchange exchange, Student student, Camp camp) throws ApiException, IOException {
+        var enquiry = new Enquiry(requireMember(readBody(exchange), "message"), student.getUserID());
+        camp.addEnquiries(student, enquiry);
+        try (var json = respond(exchange, 201)) {
+            json.beginObject().member("id", enquiry.getID()).endObject();
+        }
+    }
+
+    /**
+     * {@code POST /camps/{id}/enquiries/{enquiry}/reply} with {@code {"message"}}, by the staff in charge or a
+     * committee member, who earns a point for it.
+     * @param exchange The request and its response
+     * @param user User replying
+     * @param camp Camp of the enquiry
+     * @param enquiry Enquiry replied to
+     * @throws ApiException if the user cannot reply or there is no message
+     * @throws IOException if the response cannot be sent
+     */
+    private void replyEnquiry(HttpExchange exchange, User user, Camp camp, Enquiry enquiry) throws ApiException, IOException {
+        if (!canManage(user, camp)) {
+            throw new ApiException(403, "Only the staff in charge and committee members can reply to enquiries.");
+        }
+        enquiry.reply(requireMember(readBody(exchange), "message"));
+        if (user instanceof StudentCommittee studentCommittee) {
+            studentCommittee.addPoint();
+        }
+        exchange.sendResponseHeaders(204, -1);
+    }
+
+    /**
+     * {@code GET /camps/{id}/suggestions}: a page of all the suggestions of the camp for its staff in charge,
+     * or of the suggestions sent by a committee member.
+     * @param exchange The request and its response
+     * @param user User of the request
+     * @param camp Camp of the suggestions
+     * @throws ApiException if the user is neither in charge nor a committee member of the camp
+     * @throws IOException if the response cannot be sent
+     */
+    private void listSuggestions(HttpExchange exchange, User user, Camp camp) throws ApiException, IOException {
+        var query = readQuery(exchange);
+        if (notModified(exchange, user)) {
+            return;
+        }
+        List<Suggestion> suggestions;
+        if (user instanceof Staff staff && camp.isOwner(staff)) {
+            suggestions = camp.getAllSuggestions();
+        } else if (user instanceof Student student && camp.isCommittee(student)) {
+            suggestions = camp.getSentSuggestions(student);
+        } else {
+            throw new ApiException(403, "Only the staff in charge and committee members can view suggestions.");
+        }
+        int offset = readInt(query, "offset", 0);
+        int limit = Math.min(readInt(query, "limit", DEFAULT_LIMIT), MAX_LIMIT);
+        try (var json = beginPage(exchange, suggestions.size(), offset, limit)) {
+            for (var suggestion: page(suggestions, offset, limit)) {
+                json.beginObject()
+                    .member("id", suggestion.getID())
+                    .member("userID", suggestion.getUserID())
+                    .member("text", suggestion.getText())
+                    .endObject();
+            }
+            endPage(json);
+        }
+    }
+
+    /**
+     * {@code POST /camps/{id}/suggestions} with {@code {"text"}}, by a committee member, who earns a point for it.
+     * @param exchange The request and its response
+     * @param student Committee member sending the suggestion
+     * @param camp Camp the suggestion is sent to
+     * @throws ApiException if the student is not a committee member of the camp or there is no text
+     * @throws IOException if the response cannot be sent
+     */
+    private void sendSuggestion(HttpExchange exchange, Student student, Camp camp) throws ApiException, IOException {
+        if (!camp.isCommittee(student)) {
+            throw new ApiException(403, "Only committee members can add suggestions.");
+        }
+        var suggestion = new Suggestion(requireMember(readBody(exchange), "text"), student.getUserID());
+        camp.addSuggestion(student, suggestion);
+        if (student instanceof StudentCommittee studentCommittee) {
+            studentCommittee.addPoint();
+        }
+        try (var json = respond(exchange, 201)) {
+            json.beginObject().member("id", suggestion.getID()).endObject();
+        }
+    }
+
+    /**
+     * {@code POST /camps/{id}/suggestions/{suggestion}/accept} or {@code .../reject}, by the staff in charge.
+     * Either removes the suggestion, and accepting it earns its committee member a point.
+     * @param exchange The request and its response
+     * @param user User reviewing
+     * @param camp Camp of the suggestion
+     * @param suggestion Suggestion reviewed
+     * @param accept Whether the suggestion is accepted
+     * @throws ApiException if the user is not in charge of the camp
+     * @throws IOException if the response cannot be sent
+     */
+    private void reviewSuggestion(HttpExchange exchange, User user, Camp camp, Suggestion suggestion, boolean accept) throws ApiException, IOException {
+        if (!(user instanceof Staff staff && camp.isOwner(staff))) {
+            throw new ApiException(403, "Only the staff in charge can review suggestions.");
+        }
+        if (accept && userController.getUser(suggestion.getUserID()) instanceof StudentCommittee studentCommittee) {
+            studentCommittee.addPoint();
+        }
+        camp.deleteSuggestion(suggestion);
+        exchange.sendResponseHeaders(204, -1);
+    }
+
+    /**
+     * Find the user of the token of a request.
+     * @param exchange The request
+     * @return The user
+     * @throws ApiException if the request has no valid token
+     */
+    private User authenticate(HttpExchange exchange) throws ApiException {
+        var token = token(exchange);
+        var userID = token == null ? null : tokens.get(token);
+        if (userID == null) {
+            throw new ApiException(401, "Log in with POST /login and send the token as a Bearer token.");
+        }
+        try {
+            return userController.getUser(userID);
+        } catch (NoSuchElementException e) {
+            tokens.remove(token);
+            throw new ApiException(401, "The user of this token no longer exists.");
+        }
+    }
+
+    /**
+     * Bearer token of a request.
+     * @param exchange The request
+     * @return The token, null if there is none
+     */
+    private static String token(HttpExchange exchange) {
+        var authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            return null;
+        }
+        return authorization.substring("Bearer ".length()).trim();
+    }
+
+    /**
+     * Answer with 304 and no body if the client already has the current version of a listing for the user.
+     * Otherwise sets the ETag of the response, which is read before the listing so it is never newer than it.
+     * @param exchange The request and its response
+     * @param user User of the request
+     * @return True if answered with 304
+     * @throws IOException if the response cannot be sent
+     */
+    private static boolean notModified(HttpExchange exchange, User user) throws IOException {
+        var etag = "W/\"" + EPOCH + "-" + Camp.getModifications() + "-" + user.getNumber() + "-" + role(user) + "-" + user.getVersion() + "\"";
+        var headers = exchange.getResponseHeaders();
+        headers.set("ETag", etag);
+        headers.set("Cache-Control", "private, no-cache");
+        var ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (var tag: ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.equals("*") || tag.equals(etag) || ("W/" + tag).equals(etag)) {
+                exchange.sendResponseHeaders(304, -1);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether a user can manage the enquiries of a camp, as its staff in charge or a committee member.
+     * @param user The user
+     * @param camp The camp
+     * @return True if the user can manage them
+     */
+    private static boolean canManage(User user, Camp camp) {
+        if (user instanceof Staff staff) {
+            return camp.isOwner(staff);
+        }
+        return user instanceof Student student && camp.isCommittee(student);
+    }
+
+    /**
+     * Find an enquiry of a camp.
+     * @param camp The camp
+     * @param id ID of the enquiry
+     * @return The enquiry
+     * @throws NoSuchElementException if the camp has no such enquiry
+     */
+    private static Enquiry findEnquiry(Camp camp, String id) {
+        int number = Integer.parseInt(id);
+        return camp.getAllEnquiries().stream().filter(enquiry -> enquiry.getID() == number).findFirst()
+            .orElseThrow(() -> new NoSuchElementException("No enquiry with ID " + id));
+    }
+
+    /**
+     * Find a suggestion of a camp.
+     * @param camp The camp
+     * @param id ID of the suggestion
+     * @return The suggestion
+     * @throws NoSuchElementException if the camp has no such suggestion
+     */
+    private static Suggestion findSuggestion(Camp camp, String id) {
+        int number = Integer.parseInt(id);
+        return camp.getAllSuggestions().stream().filter(suggestion -> suggestion.getID() == number).findFirst()
+            .orElseThrow(() -> new NoSuchElementException("No suggestion with ID " + id));
+    }
+
+    /**
+     * Keep the camps accepted by every filter.
+     * @param camps Camps to filter
+     * @param filters Filters to apply
+     * @return Camps accepted by every filter
+     */
+    private static List<Camp> filter(List<Camp> camps, List<CampController.Filter> filters) {
+        return camps.stream().filter(camp -> filters.stream().allMatch(f -> f.accept(camp))).toList();
+    }
+
+    /**
+     * Role of a user in the API.
+     * @param user The user
+     * @return {@code staff}, {@code committee} or {@code student}
+     */
+    private static String role(User user) {
+        if (user instanceof Staff) {
+            return "staff";
+        }
+        return user instanceof StudentCommittee ? "committee" : "student";
+    }
+
+    /**
+     * Write a camp as a JSON object, with its visibility for staff.
+     * @param json Writer of the response
+     * @param camp Camp to write
+     * @param user User of the request
+     * @throws IOException if the response cannot be sent
+     */
+    private static void writeCamp(JsonWriter json, Camp camp, User user) throws IOException {
+        json.beginObject()
+            .member("id", camp.getID())
+            .member("name", camp.getName())
+            .member("location", camp.getLocation())
+            .member("start", camp.getRegion().getStartTime().toString())
+            .member("end", camp.getRegion().getEndTime().toString())
+            .member("inCharge", camp.getInCharge())
+            .member("remaining", camp.getRemainding())
+            .member("remainingCommittee", camp.getRemaindingCommittee())
+            .member("waitlist", camp.getWaitlistSize());
+        if (user instanceof Staff) {
+            json.member("visible", camp.getVisibility());
+        }
+        json.endObject();
+    }
+
+    /**
+     * Start a page of a listing, {@code {"total", "offset", "limit", "items": [...]}}.
+     * @param exchange The request and its response
+     * @param total Number of items in the whole listing
+     * @param offset Position of the first item of the page
+     * @param limit Largest number of items in the page
+     * @return Writer of the items of the page, to be ended with {@link #endPage(JsonWriter)}
+     * @throws IOException if the response cannot be sent
+     */
+    private static JsonWriter beginPage(HttpExchange exchange, int total, int offset, int limit) throws IOException {
+        var json = respond(exchange, 200);
+        json.beginObject()
+            .member("total", total)
+            .member("offset", offset)
+            .member("limit", limit)
+            .name("items").beginArray();
+        return json;
+    }
+
+    /**
+     * End a page of a listing.
+     * @param json Writer of the page
+     * @throws IOException if the response cannot be sent
+     */
+    private static void endPage(JsonWriter json) throws IOException {
+        json.endArray().endObject();
+    }
+
+    /**
+     * Items of a page of a listing.
+     * @param items The whole listing
+     * @param offset Position of the first item of the page
+     * @param limit Largest number of items in the page
+     * @param <T> Type of the items
+     * @return Items of the page
+     */
+    private static <T> List<T> page(List<T> items, int offset, int limit) {
+        int from = Math.min(offset, items.size());
+        return items.subList(from, Math.min(items.size(), from + limit));
+    }
+
+    /**
+     * Send the headers of a JSON response whose body is streamed.
+     * @param exchange The request and its response
+     * @param status HTTP status of the response
+     * @return Writer of the body
+     * @throws IOException if the response cannot be sent
+     */
+    private static JsonWriter respond(HttpExchange exchange, int status) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, 0);
+        return new JsonWriter(new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Answer with {@code {"error"}}.
+     * @param exchange The request and its response
+     * @param status HTTP status of the response
+     * @param message Message of the error
+     * @throws IOException if the response cannot be sent
+     */
+    private static void error(HttpExchange exchange, int status, String message) throws IOException {
+        try (var json = respond(exchange, status)) {
+            json.beginObject().member("error", message).endObject();
+        }
+    }
+
+    /**
+     * Check the method of a request.
+     * @param exchange The request
+     * @param methods Methods allowed
+     * @return The method of the request
+     * @throws ApiException if the method is not allowed
+     */
+    private static String requireMethod(HttpExchange exchange, String... methods) throws ApiException {
+        var method = exchange.getRequestMethod();
+        for (var allowed: methods) {
+            if (allowed.equals(method)) {
+                return method;
+            }
+        }
+        exchange.getResponseHeaders().set("Allow", String.join(", ", methods));
+        throw new ApiException(405, method + " is not allowed here.");
+    }
+
+    /**
+     * Check that the user of a request is a student.
+     * @param user The user
+     * @return The user as a student
+     * @throws ApiException if the user is not a student
+     */
+    private static Student requireStudent(User user) throws ApiException {
+        if (!(user instanceof Student student)) {
+            throw new ApiException(403, "Only students can do this.");
+        }
+        return student;
+    }
+
+    /**
+     * Value of a member of a request body that must be given.
+     * @param body Members of the body
+     * @param name Name of the member
+     * @return Value of the member
+     * @throws ApiException if the member is missing
+     */
+    private static String requireMember(Map<String, String> body, String name) throws ApiException {
+        var value = body.get(name);
+        if (value == null) {
+            throw new ApiException(400, "Missing " + name + ".");
+        }
+        return value;
+    }
+
+    /**
+     * Read the body of a request as a flat JSON object.
+     * @param exchange The request
+     * @return Members of the body
+     * @throws ApiException if the body is too large
+     * @throws IOException if the body cannot be read
+     */
+    private static Map<String, String> readBody(HttpExchange exchange) throws ApiException, IOException {
+        var bytes = exchange.getRequestBody().readNBytes(MAX_BODY + 1);
+        if (bytes.length > MAX_BODY) {
+            throw new ApiException(413, "Request body is too large.");
+        }
+        return JsonReader.readObject(new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Read the query parameters of a request.
+     * @param exchange The request
+     * @return Value of each parameter
+     */
+    private static Map<String, String> readQuery(HttpExchange exchange) {
+        var query = new HashMap<String, String>();
+        var raw = exchange.getRequestURI().getRawQuery();
+        if (raw == null || raw.isEmpty()) {
+            return query;
+        }
+        for (var pair: raw.split("&")) {
+            int equals = pair.indexOf('=');
+            var name = equals < 0 ? pair : pair.substring(0, equals);
+            var value = equals < 0 ? "" : pair.substring(equals + 1);
+            query.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    /**
+     * Read a non-negative whole number query parameter.
+     * @param query Query parameters
+     * @param name Name of the parameter
+     * @param otherwise Value if the parameter is not given
+     * @return Value of the parameter
+     * @throws ApiException if the parameter is not a non-negative whole number
+     */
+    private static int readInt(Map<String, String> query, String name, int otherwise) throws ApiException {
+        var value = query.get(name);
+        if (value == null) {
+            return otherwise;
+        }
+        try {
+            int number = Integer.parseInt(value);
+            if (number >= 0) {
+                return number;
+            }
+        } catch (NumberFormatException ignored) {
+        }
+        throw new ApiException(400, name + " must be a non-negative whole number.");
+    }
+}
@@ -0,0 +1,185 @@
+package api;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads the small request bodies of the API, which are flat JSON objects of strings, numbers and booleans.
+ */
+final class JsonReader {
+    /**
+     * Text being read.
+     */
+    private final String text;
+
+    /**
+     * Position of the next character to read.
+     */
+    private int position = 0;
+
+    /**
+     * Constructor
+     * @param text Text to read
+     */
+    private JsonReader(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Read a flat JSON object. Numbers and booleans are kept as their text, and null members are left out.
+     * An empty text is read as an empty object.
+     * @param text Text of the object
+     * @return Members of the object
+     * @throws IllegalArgumentException if the text is not a flat JSON object
+     */
+    static Map<String, String> readObject(String text) {
+        var members = new HashMap<String, String>();
+        var reader = new JsonReader(text);
+        reader.skipSpace();
+        if (reader.atEnd()) {
+            return members;
+        }
+        reader.expect('{');
+        reader.skipSpace();
+        if (reader.peek() == '}') {
+            reader.position++;
+        } else {
+            while (true) {
+                reader.skipSpace();
+                var name = reader.readString();
+                reader.skipSpace();
+                reader.expect(':');
+                reader.skipSpace();
+                var value = reader.readValue();
+                if (value != null) {
+                    members.put(name, value);
+                }
+                reader.skipSpace();
+                if (reader.peek() == ',') {
+                    reader.position++;
+                } else {
+                    reader.expect('}');
+                    break;
+                }
+            }
+        }
+        reader.skipSpace();
+        if (!reader.atEnd()) {
+            throw reader.error("Unexpected text after object");
+        }
+        return members;
+    }
+
+    /**
+     * Read a string, number, boolean or null.
+     * @return Text of the value, null for null
+     */
+    private String readValue() {
+        if (peek() == '"') {
+            return readString();
+        }
+        int start = position;
+        while (!atEnd() && "-+.0123456789eEtrufalsn".indexOf(text.charAt(position)) >= 0) {
+            position++;
+        }
+        var value = text.substring(start, position);
+        if (value.equals("null")) {
+            return null;
+        }
+        if (value.equals("true") || value.equals("false") || value.matches("-?\\d+(\\.\\d+)?([eE][-+]?\\d+)?")) {
+            return value;
+        }
+        throw error("Expected a string, number or boolean");
+    }
+
+    /**
+     * Read a quoted string, removing its escapes.
+     * @return The string
+     */
+    private String readString() {
+        expect('"');
+        var builder = new StringBuilder();
+        while (true) {
+            if (atEnd()) {
+                throw error("Unterminated string");
+            }
+            char c = text.charAt(position++);
+            if (c == '"') {
+                return builder.toString();
+            }
+            if (c != '\\') {
+                builder.append(c);
+                continue;
+            }
+            if (atEnd()) {
+                throw error("Unterminated string");
+            }
+            char escaped = text.charAt(position++);
+            switch (escaped) {
+                case '"', '\\', '/' -> builder.append(escaped);
+                case 'b' -> builder.append('\b');
+                case 'f' -> builder.append('\f');
+                case 'n' -> builder.append('\n');
+                case 'r' -> builder.append('\r');
+                case 't' -> builder.append('\t');
+                case 'u' -> {
+                    if (position + 4 > text.length()) {
+                        throw error("Unterminated escape");
+                    }
+                    try {
+                        builder.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw error("Invalid escape");
+                    }
+                    position += 4;
+                }
+                default -> throw error("Invalid escape");
+            }
+        }
+    }
+
+    /**
+     * Read an expected character.
+     * @param c The character
+     */
+    private void expect(char c) {
+        if (peek() != c) {
+            throw error("Expected '" + c + "'");
+        }
+        position++;
+    }
+
+    /**
+     * Next character without reading it.
+     * @return The character, 0 at the end of the text
+     */
+    private char peek() {
+        return atEnd() ? 0 : text.charAt(position);
+    }
+
+    /**
+     * Whether the whole text has been read.
+     * @return True at the end of the text
+     */
+    private boolean atEnd() {
+        return position >= text.length();
+    }
+
+    /**
+     * Skip whitespace.
+     */
+    private void skipSpace() {
+        while (!atEnd() && Character.isWhitespace(text.charAt(position))) {
+            position++;
+        }
+    }
+
+    /**
+     * Error at the current position.
+     * @param message What was wrong
+     * @return The error
+     */
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at position " + position);
+    }
+}
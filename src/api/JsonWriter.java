@@ -0,0 +1,257 @@
+package api;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * Writes JSON straight to a stream as it is produced, so a response is never built up in memory.
+ * Commas are put between values and members automatically.
+ */
+final class JsonWriter implements Closeable {
+    /**
+     * Stream to write to.
+     */
+    private final Writer out;
+
+    /**
+     * For each open object or array, whether nothing has been written into it yet.
+     */
+    private boolean[] empty = new boolean[8];
+
+    /**
+     * Number of open objects and arrays.
+     */
+    private int depth = 0;
+
+    /**
+     * Whether a member name was just written, so the next value needs no comma.
+     */
+    private boolean named = false;
+
+    /**
+     * Constructor
+     * @param out Stream to write to
+     */
+    JsonWriter(Writer out) {
+        this.out = out;
+    }
+
+    /**
+     * Start an object.
+     * @return This writer
+     * @throws IOException if the stream cannot be written
+     */
+    JsonWriter beginObject() throws IOException {
+        return open('{');
+    }
+
+    /**
+     * End the innermost object.
+     * @return This writer
+     * @throws IOException if the stream cannot be written
+     */
+    JsonWriter endObject() throws IOException {
+        return close('}');
+    }
+
+    /**
+     * Start an array.
+     * @return This writer
+     * @throws IOException if the stream cannot be written
+     */
+    JsonWriter beginArray() throws IOException {
+        return open('[');
+    }
+
+    /**
+     * End the innermost array.
+     * @return This writer
+     * @throws IOException if the stream cannot be written
+     */
+    JsonWriter endArray() throws IOException {
+        return close(']');
+    }
+
+    /**
+     * Write the name of the next member of the innermost object.
+     * @param name Name of the member
+     * @return This writer
+     * @throws IOException if the stream cannot be written
+     */
+    JsonWriter name(String name) throws IOException {
+        separate();
+        string(name);
+        out.write(':');
+        named = true;
+        return this;
+    }
+
+    /**
+     * Write a string, or null.
+     * @param value Value to write
+     * @return This writer
+     * @throws IOException if the stream cannot be written
+     */
+    JsonWriter value(String value) throws IOException {
+        separate();
+        if (value == null) {
+            out.write("null");
+        } else {
+            string(value);
+        }
+        return this;
+    }
+
+    /**
+     * Write a number.
+     * @param value Value to write
+     * @return This writer
+     * @throws IOException if the stream cannot be written
+     */
+    JsonWriter value(long value) throws IOException {
+        separate();
+        out.write(Long.toString(value));
+        return this;
+    }
+
+    /**
+     * Write a boolean.
+     * @param value Value to write
+     * @return This writer
+     * @throws IOException if the stream cannot be written
+     */
+    JsonWriter value(boolean value) throws IOException {
+        separate();
+        out.write(value ? "true" : "false");
+        return this;
+    }
+
+    /**
+     * Write a member with a string value.
+     * @param name Name of the member
+     * @param value Value of the member
+     * @return This writer
+     * @throws IOException if the stream cannot be written
+     */
+    JsonWriter member(String name, String value) throws IOException {
+        return name(name).value(value);
+    }
+
+    /**
+     * Write a member with a number value.
+     * @param name Name of the member
+     * @param value Value of the member
+     * @return This writer
+     * @throws IOException if the stream cannot be written
+     */
+    JsonWriter member(String name, long value) throws IOException {
+        return name(name).value(value);
+    }
+
+    /**
+     * Write a member with a boolean value.
+     * @param name Name of the member
+     * @param value Value of the member
+     * @return This writer
+     * @throws IOException if the stream cannot be written
+     */
+    JsonWriter member(String name, boolean value) throws IOException {
+        return name(name).value(value);
+    }
+
+    /**
+     * Send everything written so far.
+     * @throws IOException if the stream cannot be written
+     */
+    void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    /**
+     * Start an object or array.
+     * @param bracket Opening bracket
+     * @return This writer
+     * @throws IOException if the stream cannot be written
+     */
+    private JsonWriter open(char bracket) throws IOException {
+        separate();
+        out.write(bracket);
+        if (depth == empty.length) {
+            empty = Arrays.copyOf(empty, depth * 2);
+        }
+        empty[depth++] = true;
+        return this;
+    }
+
+    /**
+     * End the innermost object or array.
+     * @param bracket Closing bracket
+     * @return This writer
+     * @throws IOException if the stream cannot be written
+     */
+    private JsonWriter close(char bracket) throws IOException {
+        if (depth == 0) {
+            throw new IllegalStateException("Nothing to close");
+        }
+        depth--;
+        out.write(bracket);
+        return this;
+    }
+
+    /**
+     * Write a comma if a value or member comes before the next one in the innermost object or array.
+     * @throws IOException if the stream cannot be written
+     */
+    private void separate() throws IOException {
+        if (named) {
+            named = false;
+        } else if (depth > 0) {
+            if (empty[depth - 1]) {
+                empty[depth - 1] = false;
+            } else {
+                out.write(',');
+            }
+        }
+    }
+
+    /**
+     * Write a quoted string, escaping quotes, backslashes and control characters.
+     * @param value String to write
+     * @throws IOException if the stream cannot be written
+     */
+    private void string(String value) throws IOException {
+        out.write('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            String escape;
+            if (c == '"') {
+                escape = "\\\"";
+            } else if (c == '\\') {
+                escape = "\\\\";
+            } else if (c == '\n') {
+                escape = "\\n";
+            } else if (c == '\r') {
+                escape = "\\r";
+            } else if (c == '\t') {
+                escape = "\\t";
+            } else if (c < 0x20 || c == 0x2028 || c == 0x2029) {
+                escape = String.format("\\u%04x", (int) c);
+            } else {
+                continue;
+            }
+            out.write(value, start, i - start);
+            out.write(escape);
+            start = i + 1;
+        }
+        out.write(value, start, value.length() - start);
+        out.write('"');
+    }
+}
@@ -0,0 +1,499 @@
+package camp;
+
+import storage.SnapshotWriter;
+import user.Student;
+import user.StudentCommittee;
+import user.User;
+import user.UserController;
+import utils.Csv;
+import utils.TimeRegion;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Ballot for oversubscribed camps. While it is open, students rank the camps of the ballot instead of registering
+ * for them first come first served. The seats are then allocated in one batch by lottery: students are drawn in
+ * a random order and, round by round, each is given the highest ranked choice that still has a seat and that they
+ * could register for, until each has as many camps as the ballot allows.
+ * Opening a ballot, submitting choices and closing it are recorded in the journal, and open ballots are written to
+ * every snapshot, so that choices survive a crash and balloted camps do not reopen for first come first served.
+ */
+public final class Ballot {
+    /**
+     * A camp ranked by a student, with the role wanted in it.
+     */
+    public static final class Choice {
+        /**
+         * Camp wanted.
+         */
+        private final Camp camp;
+
+        /**
+         * Role wanted in the camp.
+         */
+        private final Registration.Role role;
+
+        /**
+         * Constructor
+         * @param camp Camp wanted
+         * @param role Role wanted in the camp
+         */
+        public Choice(Camp camp, Registration.Role role) {
+            this.camp = camp;
+            this.role = role;
+        }
+
+        /**
+         * Getter
+         * @return Camp wanted
+         */
+        public Camp getCamp() {
+            return camp;
+        }
+
+        /**
+         * Getter
+         * @return Role wanted in the camp
+         */
+        public Registration.Role getRole() {
+            return role;
+        }
+
+        @Override
+        public String toString() {
+            return camp + (role == Registration.Role.COMMITTEE ? " (committee)" : "");
+        }
+    }
+
+    /**
+     * ID of the ballot, assigned by the CampController.
+     */
+    private final int id;
+
+    /**
+     * Camps of the ballot.
+     */
+    private final List<Camp> camps;
+
+    /**
+     * Largest number of camps given to a student.
+     */
+    private final int campsPerStudent;
+
+    /**
+     * Ranked choices of each student, by User Identification String, in the order they were first submitted.
+     */
+    private final Map<String, List<Choice>> choices = new LinkedHashMap<>();
+
+    /**
+     * Whether students can still submit choices.
+     */
+    private boolean open = true;
+
+    /**
+     * Constructor, used by {@link CampController#openBallot(user.Staff, List, int)}.
+     * @param id ID of the ballot
+     * @param camps Camps of the ballot
+     * @param campsPerStudent Largest number of camps given to a student
+     */
+    Ballot(int id, List<Camp> camps, int campsPerStudent) {
+        this.id = id;
+        this.camps = List.copyOf(camps);
+        this.campsPerStudent = campsPerStudent;
+    }
+
+    /**
+     * Getter
+     * @return ID of the ballot
+     */
+    public int getID() {
+        return id;
+    }
+
+    /**
+     * Getter
+     * @return Camps of the ballot
+     */
+    public List<Camp> getCamps() {
+        return camps;
+    }
+
+    /**
+     * Getter
+     * @return Largest number of camps given to a student
+     */
+    public int getCampsPerStudent() {
+        return campsPerStudent;
+    }
+
+    /**
+     * Number of students who have submitted choices.
+     * @return Number of students
+     */
+    public synchronized int getStudentCount() {
+        return choices.size();
+    }
+
+    /**
+     * Submit the ranked choices of a student, replacing any submitted before.
+     * @param student Student submitting
+     * @param ranked Choices, the most wanted first
+     * @throws CampControllerException if the ballot is closed, or a choice is not a camp of the ballot, is repeated,
+     * is not open to the faculty of the student, or asks to be a committee member of a student who already is one
+     */
+    public synchronized void submit(Student student, List<Choice> ranked) throws CampControllerException {
+        if (!open) {
+            throw new CampControllerException("The ballot is closed.");
+        }
+        var seen = new HashSet<Camp>();
+        for (var choice: ranked) {
+            if (!camps.contains(choice.getCamp())) {
+                throw new CampControllerException(choice.getCamp() + " is not in this ballot.");
+            }
+            if (!seen.add(choice.getCamp())) {
+                throw new CampControllerException(choice.getCamp() + " is ranked more than once.");
+            }
+            if (!choice.getCamp().isVisibleTo(student.getFaculty())) {
+                throw new CampControllerException(choice.getCamp() + " is not open to " + student.getFaculty() + ".");
+            }
+            if (choice.getRole() == Registration.Role.COMMITTEE && student instanceof StudentCommittee) {
+                throw new CampControllerException("Student is already a student committee!");
+            }
+        }
+        restoreChoices(student.getUserID(), ranked);
+        Camp.record("ballot.submit", choiceValues(id, student.getUserID(), ranked));
+    }
+
+    /**
+     * Set the ranked choices of a student, when they are loaded or replayed.
+     * @param userID User Identification String of the student
+     * @param ranked Choices, the most wanted first, none to withdraw from the ballot
+     */
+    synchronized void restoreChoices(String userID, List<Choice> ranked) {
+        if (ranked.isEmpty()) {
+            choices.remove(userID);
+        } else {
+            choices.put(userID, List.copyOf(ranked));
+        }
+    }
+
+    /**
+     * Values of a {@code ballot.submit} record.
+     * @param id ID of the ballot
+     * @param userID User Identification String of the student
+     * @param ranked Choices, the most wanted first
+     * @return The ballot, the student, then the camp ID and role of each choice
+     */
+    private static String[] choiceValues(int id, String userID, List<Choice> ranked) {
+        var values = new String[2 + ranked.size() * 2];
+        values[0] = String.valueOf(id);
+        values[1] = userID;
+        for (int i = 0; i < ranked.size(); i++) {
+            values[2 + i * 2] = String.valueOf(ranked.get(i).getCamp().getID());
+            values[3 + i * 2] = ranked.get(i).getRole().name();
+        }
+        return values;
+    }
+
+    /**
+     * Values of a {@code ballot.open} record.
+     * @return The ballot, the number of camps per student, then the ID of each camp
+     */
+    String[] openValues() {
+        var values = new String[2 + camps.size()];
+        values[0] = String.valueOf(id);
+        values[1] = String.valueOf(campsPerStudent);
+        for (int i = 0; i < camps.size(); i++) {
+            values[2 + i] = String.valueOf(camps.get(i).getID());
+        }
+        return values;
+    }
+
+    /**
+     * Choices of a student.
+     * @param student Student who submitted them
+     * @return Choices, the most wanted first, empty if none were submitted
+     */
+    public synchronized List<Choice> getChoices(Student student) {
+        return choices.getOrDefault(student.getUserID(), List.of());
+    }
+
+    /**
+     * Stop taking choices.
+     */
+    synchronized void close() {
+        open = false;
+    }
+
+    /**
+     * Draw the lottery. The seats of each camp are those left after its members and its waitlist.
+     * The students given a camp in a round are registered together. A registration refused then, such as for a camp
+     * joined meanwhile at the same time, gives its seat back, and the round is drawn again for the students without
+     * a camp in it, in the same order, the refused student falling through to their next choice.
+     * Called once the ballot is closed, while its camps refuse other registrations.
+     * @param seed Seed of the random order of students, so that a draw can be repeated
+     * @param userController Controller holding the students
+     * @param register Registers a pass of registrations, filling in their outcomes,
+     * such as {@link CampController#registerAll(List, UserController)}
+     * @return Every registration made, with its outcome
+     */
+    synchronized List<Registration> draw(long seed, UserController userController, Consumer<List<Registration>> register) {
+        var index = new HashMap<Camp, Integer>();
+        var seats = new int[camps.size()];
+        var committeeSeats = new int[camps.size()];
+        for (int k = 0; k < camps.size(); k++) {
+            var camp = camps.get(k);
+            index.put(camp, k);
+            seats[k] = Math.max(0, camp.getRemainding() - camp.getWaitlistSize());
+            committeeSeats[k] = camp.getRemaindingCommittee();
+        }
+
+        var students = new ArrayList<Student>(choices.size());
+        var ranked = new ArrayList<List<Choice>>(choices.size());
+        for (var entry: choices.entrySet()) {
+            User user;
+            try {
+                user = userController.getUser(entry.getKey());
+            } catch (NoSuchElementException e) {
+                continue;
+            }
+            if (user instanceof Student student) {
+                students.add(student);
+                ranked.add(entry.getValue());
+            }
+        }
+        var order = new ArrayList<Integer>(students.size());
+        for (int i = 0; i < students.size(); i++) {
+            order.add(i);
+        }
+        Collections.shuffle(order, new Random(seed));
+
+        var next = new int[students.size()];
+        var given = new ArrayList<List<TimeRegion>>(Collections.nCopies(students.size(), null));
+        var committee = new boolean[students.size()];
+        var refused = new ArrayList<Set<Camp>>(Collections.nCopies(students.size(), null));
+        var registrations = new ArrayList<Registration>();
+        for (int round = 0; round < campsPerStudent; round++) {
+            var roundStart = next.clone();
+            var placed = new boolean[students.size()];
+            boolean any = false;
+            List<Integer> drawing = order;
+            while (true) {
+                var pass = new ArrayList<Registration>();
+                var drawn = new ArrayList<Integer>();
+                for (int i: drawing) {
+                    var student = students.get(i);
+                    var wanted = ranked.get(i);
+                    next[i] = roundStart[i];
+                    while (next[i] < wanted.size()) {
+                        var choice = wanted.get(next[i]++);
+                        int k = index.get(choice.getCamp());
+                        boolean asCommittee = choice.getRole() == Registration.Role.COMMITTEE;
+                        if (seats[k] == 0 || asCommittee && (committeeSeats[k] == 0 || committee[i] || Camp.isCommitteeAnywhere(student))) {
+                            continue;
+                        }
+                        if (refused.get(i) != null && refused.get(i).contains(choice.getCamp())) {
+                            continue;
+                        }
+                        if (!choice.getCamp().isOpenTo(student) || conflicts(given.get(i), choice.getCamp().getRegion())) {
+                            continue;
+                        }
+                        seats[k]--;
+                        if (asCommittee) {
+                            committeeSeats[k]--;
+                            committee[i] = true;
+                        }
+                        if (given.get(i) == null) {
+                            given.set(i, new ArrayList<>(campsPerStudent));
+                        }
+                        given.get(i).add(choice.getCamp().getRegion());
+                        pass.add(new Registration(student, choice.getCamp(), choice.getRole()));
+                        drawn.add(i);
+                        break;
+                    }
+                }
+                if (pass.isEmpty()) {
+                    break;
+                }
+                register.accept(pass);
+                registrations.addAll(pass);
+                boolean freed = false;
+                for (int j = 0; j < pass.size(); j++) {
+                    var registration = pass.get(j);
+                    int i = drawn.get(j);
+                    if (registration.isRegistered()) {
+                        placed[i] = true;
+                        any = true;
+                        if (registration.getRole() == Registration.Role.COMMITTEE
+                                && userController.getUser(registration.getStudent().getUserID()) instanceof Student current) {
+                            students.set(i, current); // Converted to a committee member.
+                        }
+                        continue;
+                    }
+                    int k = index.get(registration.getCamp());
+                    seats[k]++;
+                    if (registration.getRole() == Registration.Role.COMMITTEE) {
+                        committeeSeats[k]++;
+                        committee[i] = false;
+                    }
+                    given.get(i).remove(given.get(i).size() - 1);
+                    if (refused.get(i) == null) {
+                        refused.set(i, new HashSet<>());
+                    }
+                    refused.get(i).add(registration.getCamp());
+                    freed = true;
+                }
+                if (!freed) {
+                    break;
+                }
+                drawing = drawing.stream().filter(i -> !placed[i]).toList();
+            }
+            if (!any) {
+                break;
+            }
+        }
+        return registrations;
+    }
+
+    /**
+     * Check if a duration overlaps any of the durations of the camps already given to a student in this draw.
+     * @param given Durations given, null if none
+     * @param region Duration to check
+     * @return True if they overlap
+     */
+    private static boolean conflicts(List<TimeRegion> given, TimeRegion region) {
+        if (given != null) {
+            for (var taken: given) {
+                if (taken.conflictsWith(region)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Write this ballot and its choices to a snapshot, read back by {@link CampController#loadFrom(List, UserController)}.
+     * @param writer Writer of the snapshot, past {@link SnapshotWriter#beginBallots()}
+     */
+    synchronized void writeTo(SnapshotWriter writer) {
+        writer.writeInt(id);
+        writer.writeInt(campsPerStudent);
+        writer.writeInt(camps.size());
+        for (var camp: camps) {
+            writer.writeInt(camp.getID());
+        }
+        writer.writeInt(choices.size());
+        for (var entry: choices.entrySet()) {
+            writer.writeString(entry.getKey());
+            writer.writeInt(entry.getValue().size());
+            for (var choice: entry.getValue()) {
+                writer.writeInt(choice.getCamp().getID());
+                writer.writeInt(choice.getRole().ordinal());
+            }
+        }
+    }
+
+    /**
+     * Import the ballots saved on exit by earlier versions, which kept them out of the journal.
+     * Each ballot not known to the controller yet is opened again with its choices, recorded in the journal like
+     * any other, and the file is then deleted. Does nothing if there is no such file.
+     * Camps deleted and students removed since are left out.
+     * @param filePath Location of the saved ballots
+     * @param campController Controller holding the camps of the ballots
+     * @param userController Controller holding the students who submitted choices
+     */
+    public static void importFrom(String filePath, CampController campController, UserController userController) {
+        try (var reader = new Csv.RecordReader(new BufferedReader(new FileReader(filePath)))) {
+            Ballot ballot = null;
+            boolean started = false;
+            String line;
+            while ((line = reader.next()) != null) {
+                var values = Csv.split(line);
+                if (values.get(0).equals("ballot")) {
+                    if (values.size() < 3) {
+                        throw new RuntimeException("Malformed ballot: " + line);
+                    }
+                    var camps = new ArrayList<Camp>();
+                    for (int i = 3; i < values.size(); i++) {
+                        findCamp(campController, values.get(i)).ifPresent(camps::add);
+                    }
+                    ballot = camps.isEmpty() ? null : campController.importBallot(Integer.parseInt(values.get(1)), camps, Integer.parseInt(values.get(2)));
+                    started = true;
+                    continue;
+                }
+                if (!started || values.size() % 2 != 1) {
+                    throw new RuntimeException("Malformed ballot choices: " + line);
+                }
+                User user;
+                try {
+                    user = userController.getUser(values.get(0));
+                } catch (NoSuchElementException e) {
+                    continue;
+                }
+                if (ballot == null || !(user instanceof Student student)) {
+                    continue;
+                }
+                var ranked = new ArrayList<Choice>();
+                for (int i = 1; i < values.size(); i += 2) {
+                    var role = Registration.Role.valueOf(values.get(i + 1));
+                    findCamp(campController, values.get(i)).filter(ballot.camps::contains).ifPresent(camp -> ranked.add(new Choice(camp, role)));
+                }
+                if (!ranked.isEmpty()) {
+                    synchronized (ballot) {
+                        ballot.restoreChoices(student.getUserID(), ranked);
+                        Camp.record("ballot.submit", choiceValues(ballot.id, student.getUserID(), ranked));
+                    }
+                }
+            }
+        } catch (FileNotFoundException e) {
+            return; // Nothing to import.
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+            return;
+        } catch (CampControllerException e) {
+            throw new RuntimeException("Malformed input, " + e.getMessage());
+        }
+        try {
+            Files.delete(Path.of(filePath));
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Look up a saved camp ID.
+     * @param campController Controller holding the camps
+     * @param id ID of the camp, as saved
+     * @return The camp, empty if it was deleted
+     */
+    private static Optional<Camp> findCamp(CampController campController, String id) {
+        try {
+            return Optional.of(campController.getCamp(Integer.parseInt(id)));
+        } catch (NoSuchElementException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Ballot " + id + " for " + camps + ", " + campsPerStudent + " per student";
+    }
+}
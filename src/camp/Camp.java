@@ -5,15 +5,29 @@ import java.io.IOException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Stream;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
 
 import user.UserController;
 import user.Staff;
 import user.Student;
 import user.StudentCommittee;
+import metrics.Counter;
+import metrics.Histogram;
+import metrics.Metrics;
+import metrics.RegistrationEvent;
+import metrics.ReportEvent;
+import storage.Journal;
+import storage.SnapshotWriter;
 import user.User;
+import user.UserDictionary;
+import utils.Csv;
+import utils.IntSet;
+import utils.RoaringBitmap;
 import utils.TimeRegion;
 
 /**
@@ -25,6 +39,82 @@ public class Camp
 	 * The default user group for the Camp.
 	 */
     private static final String GlobalUserGroup = "NTU";
+
+    /**
+     * Number of times the duration of any Camp was changed, lets students notice that their schedules are out of date.
+     */
+    private static final AtomicInteger regionChanges = new AtomicInteger();
+
+    /**
+     * Number of recorded changes to any Camp, its members or its posts, counted after each change is made.
+     */
+    private static final AtomicLong modifications = new AtomicLong();
+
+    /**
+     * Registrations, withdrawals and waitlist changes refused.
+     */
+    private static final Counter refusals = Metrics.counter("camp.refused");
+
+    /**
+     * Time taken by registering students as attendees, including waiting for other sessions.
+     */
+    private static final Histogram registrations = Metrics.histogram("camp.register");
+
+    /**
+     * Time taken by registering students as committee members, including waiting for other sessions.
+     */
+    private static final Histogram committeeRegistrations = Metrics.histogram("camp.registerCommittee");
+
+    /**
+     * Time taken by withdrawing students, including waiting for other sessions.
+     */
+    private static final Histogram withdrawals = Metrics.histogram("camp.withdraw");
+
+    /**
+     * Time taken by putting students on waitlists, including waiting for other sessions.
+     */
+    private static final Histogram waits = Metrics.histogram("camp.wait");
+
+    /**
+     * Time taken by taking students off waitlists, including waiting for other sessions.
+     */
+    private static final Histogram unwaits = Metrics.histogram("camp.unwait");
+
+    /**
+     * Time taken by adding suggestions, including waiting for other sessions.
+     */
+    private static final Histogram suggestionPosts = Metrics.histogram("camp.suggest");
+
+    /**
+     * Time taken by adding enquiries, including waiting for other sessions.
+     */
+    private static final Histogram enquiryPosts = Metrics.histogram("camp.enquire");
+
+    /**
+     * Time taken by writing attendance reports.
+     */
+    private static final Histogram attendanceReports = Metrics.histogram("report.attendance");
+
+    /**
+     * Time taken by writing enquiry reports.
+     */
+    private static final Histogram enquiryReports = Metrics.histogram("report.enquiry");
+
+    /**
+     * Largest number of students promoted from a waitlist in one pass, each pass holding their registration locks
+     * and writing one journal record.
+     */
+    private static final int PROMOTION_BATCH = 1024;
+
+    /**
+     * Unique ID of the Camp, assigned by the CampController.
+     */
+    private final int id;
+
+    /**
+     * ID given to the next enquiry or suggestion added to the Camp.
+     */
+    private int nextPostID = 0;
     
     /**
      * The staff object.
@@ -32,14 +122,25 @@ public class Camp
     private final Staff staff;
     
     /**
-     * The list IDs of the student who joined the camp as normal attendee.
+     * The numbers in the UserDictionary of the students who joined the camp as normal attendee, in the order they joined.
      */
-    private final List<String> attendees;
+    private final IntSet attendees;
     
     /**
-     * The list IDs of the student who joined the camp as camp committee member.
+     * The numbers in the UserDictionary of the students who joined the camp as camp committee member, in the order they joined.
      */
-    private final List<String> committees;
+    private final IntSet committees;
+
+    /**
+     * Number of slots held by attendees and committee members. Reserved before a student is added, so that
+     * concurrent registrations cannot take more slots than the camp has.
+     */
+    private final AtomicInteger takenSlots = new AtomicInteger();
+
+    /**
+     * Number of camp committee slots held by committee members, reserved the same way.
+     */
+    private final AtomicInteger takenCommitteeSlots = new AtomicInteger();
     
     /**
      * The list of suggestions submitted by the camp committee members.
@@ -50,11 +151,22 @@ public class Camp
      * The list of enquiries submitted by the students.
      */
     private final List<Enquiry> enquiries;
+
+    /**
+     * Lock of the enquiries and suggestions, separate from the lock of the members so that posting,
+     * which waits for the journal, does not hold up registration.
+     */
+    private final Object posts = new Object();
     
     /**
-     * The list of students that withdraw from the Camp.
+     * The numbers in the UserDictionary of the students that withdraw from the Camp, in the order they withdrew.
+     */
+    private final IntSet leftAttendees;
+
+    /**
+     * Students waiting for an attendee slot, by their numbers in the UserDictionary, in the order they joined the waitlist.
      */
-    private final List<String> leftAttendees;
+    private final LinkedHashMap<Integer, Student> waitlist;
     
     /**
      * The camp information object.
@@ -66,10 +178,31 @@ public class Camp
      * Decide if the Camp is hidden from the user.
      */
     private boolean visible;
+
+    /**
+     * Position of this Camp in the catalog, recomputed when its name changes.
+     */
+    private CatalogKey catalogKey;
+
+    /**
+     * Controller holding this Camp, told when its name, duration, visibility or user group changes. Null while the Camp is not in a controller.
+     */
+    private CampController controller;
+
+    /**
+     * Whether this Camp was deleted, after which it takes no registrations. Guarded by the lock of this Camp.
+     */
+    private boolean removed;
+
+    /**
+     * Ballot taking the registrations for this Camp, null if students register first come first served.
+     */
+    private volatile Ballot ballot;
     
     /**
      * Creates a new Camp with the given name, duration, registration deadline, user group,
      * location, total slots, camp committee slot, description, staff in-charge and visibility.
+     * @param id This Camp's unique ID.
      * @param campName This Camp's name.
      * @param region This Camp's start date and end date.
      * @param regCloseDate This Camp's registration deadline.
@@ -81,18 +214,21 @@ public class Camp
      * @param staff This Camp's description.
      * @param visible This Camp's visibility.
      */
-    public Camp(String campName, TimeRegion region, LocalDate regCloseDate, String userGroup,
+    public Camp(int id, String campName, TimeRegion region, LocalDate regCloseDate, String userGroup,
             String location, int totalSlots, int campCommitteeSlot, String description, Staff staff, boolean visible)
     {
+        this.id = id;
         campInfo = new CampInformation(campName, region, regCloseDate, userGroup, location, totalSlots, campCommitteeSlot, description, staff);
+        catalogKey = new CatalogKey(campName, id);
         this.staff = staff;
         this.visible = visible;
 
         enquiries = new ArrayList<>();
         suggestions = new ArrayList<>();
-        attendees = new ArrayList<>();
-        committees = new ArrayList<>();
-        leftAttendees = new ArrayList<>();
+        attendees = new IntSet();
+        committees = new IntSet();
+        leftAttendees = new IntSet();
+        waitlist = new LinkedHashMap<>();
     }
 
     /**
@@ -107,7 +243,7 @@ public class Camp
      * Check if the camp attendee slots is filled up.
      */
     boolean isFullAttendee() {
-        return (attendees.size() + committees.size()) == campInfo.getTotalSlots();
+        return takenSlots.get() >= campInfo.getTotalSlots();
     }
     
     /**
@@ -115,7 +251,25 @@ public class Camp
      * @return True if filled up and false if not filled up.
      */
     public boolean isFullCommittee() {
-        return committees.size() == campInfo.getCampCommitteeSlots();
+        return takenCommitteeSlots.get() >= campInfo.getCampCommitteeSlots();
+    }
+
+    /**
+     * Take one of a number of slots, unless all are taken. Slots may be taken beyond the capacity
+     * when the capacity is lowered, in which case none can be taken until enough are released.
+     * @param taken Number of slots taken.
+     * @param capacity Number of slots.
+     * @return True if a slot was taken.
+     */
+    private static boolean reserve(AtomicInteger taken, int capacity) {
+        int current;
+        do {
+            current = taken.get();
+            if (current >= capacity) {
+                return false;
+            }
+        } while (!taken.compareAndSet(current, current + 1));
+        return true;
     }
 
     /**
@@ -128,14 +282,39 @@ public class Camp
         return userGroup.equals(campInfo.getUserGroup());
     }
     
+    /**
+     * Check if no attendee slot is free for a student who is not waiting yet, as the free slots are held for the waitlist.
+     * @return True if the camp is full.
+     */
+    public synchronized boolean isFull() {
+        return getRemainding() <= waitlist.size();
+    }
+
     /**
      * Check if the students met the criteria to join the camp.
+     * Called while holding the registration lock of the student and the lock of this Camp.
      * @param student current Student accessing the CAM system.
      * @throws CampControllerException Display error message to let the user know why he/she
      * not able to join the camp.
      */
     protected void doStudentChecks(Student student) throws CampControllerException {
-        if (Stream.concat(attendees.stream(), committees.stream()).anyMatch(s -> s.equals(student.getUserID()))) {
+        checkEligible(student);
+        if (isFull()) {
+            throw new CampControllerException("This camp is full! Please join another camp.");
+        }
+    }
+
+    /**
+     * Check if the student could join the camp were it not full, before joining its waitlist and again when promoted.
+     * Called while holding the registration lock of the student and the lock of this Camp.
+     * @param student current Student accessing the CAM system.
+     * @throws CampControllerException If the student cannot join the camp.
+     */
+    private void checkEligible(Student student) throws CampControllerException {
+        if (removed) {
+            throw new CampControllerException("This camp has been deleted.");
+        }
+        if (attendees.contains(student.getNumber()) || committees.contains(student.getNumber())) {
             throw new CampControllerException("The student is already in the camp.");
         }
         if (!checkIsAfterCloseDate()) {
@@ -144,56 +323,434 @@ public class Camp
         if (!student.checkTimeConflicts(this)) {
             throw new CampControllerException("Student cannot join this camp due to conflicts in time.");
         }
-        if (leftAttendees.stream().anyMatch(s -> s.equals(student.getUserID()))) {
+        if (leftAttendees.contains(student.getNumber())) {
             throw new CampControllerException("You are not allowed to join " + campInfo.getCampName() + " as you have left previously.");
         }
-        if (isFullAttendee()) {
-            throw new CampControllerException("This camp is full! Please join another camp.");
-        }
     }
     
+    /**
+     * Check if a student could join the Camp as an attendee given a free slot, without locking the student.
+     * Used to draw a ballot, when its camps take no other registrations.
+     * @param student Student to check.
+     * @return True if the student is in the user group of the Camp and could join it.
+     */
+    synchronized boolean isOpenTo(Student student) {
+        if (!isVisibleTo(student.getFaculty())) {
+            return false;
+        }
+        try {
+            checkEligible(student);
+            return true;
+        } catch (CampControllerException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Refuse registering one by one while a ballot takes the registrations for this Camp.
+     * @throws CampControllerException If the Camp is in a ballot.
+     */
+    private void checkNotBalloted() throws CampControllerException {
+        if (ballot != null) {
+            throw new CampControllerException("Registration for " + campInfo.getCampName() + " is by ballot, rank it in the ballot instead.");
+        }
+    }
+
     /**
      * Add student to the Camp as a normal camp attendee.
+     * Holds the registration lock of the student throughout, and the lock of this Camp while checking and adding,
+     * so that many students can register at once without joining twice or overbooking the Camp.
      * @param student current Student accessing the CAM system.
      * @throws CampControllerException If the student user cannot join the camp
      */
     public void addStudent(Student student) throws CampControllerException {
-        doStudentChecks(student);
-        attendees.add(student.getUserID());
-        student.joinCamp(this);
+        var event = new RegistrationEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            checkNotBalloted();
+            synchronized (student.getRegistrationLock()) {
+                synchronized (this) {
+                    doStudentChecks(student);
+                    if (!reserve(takenSlots, campInfo.getTotalSlots())) {
+                        throw new CampControllerException("This camp is full! Please join another camp.");
+                    }
+                    attendees.add(student.getNumber());
+                    waitlist.remove(student.getNumber());
+                }
+                student.joinCamp(this);
+                student.leaveWaitlist(this);
+                record("camp.attendee", String.valueOf(id), student.getUserID());
+            }
+            event.commit(id, campInfo.getCampName(), student.getUserID(), "attendee", null);
+        } catch (CampControllerException e) {
+            refusals.increment();
+            event.commit(id, campInfo.getCampName(), student.getUserID(), "attendee", e.getMessage());
+            throw e;
+        } finally {
+            registrations.recordSince(start);
+        }
     }
 
     /**
-     * Add student to the Camp as a camp committee member.
+     * Add student to the Camp as a camp committee member, locking like {@link #addStudent(Student)}.
+     * A student can only be a committee member of one camp, which is checked against the camps they attend,
+     * so it also holds for a student object replaced by a conversion made in another session.
      * @param student current Student accessing the CAM system.
      * @throws CampControllerException Display error message to let the user know why he/she
      * not able to join the camp.
      */
     public void addStudentCommittee(Student student) throws CampControllerException {
-        if (student instanceof StudentCommittee) {
-            throw new CampControllerException("Student is already a student committee!");
-        }
-        if (isFullCommittee()) {
-            throw new CampControllerException("Camp committee is full!");
+        var event = new RegistrationEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            if (student instanceof StudentCommittee) {
+                throw new CampControllerException("Student is already a student committee!");
+            }
+            checkNotBalloted();
+            synchronized (student.getRegistrationLock()) {
+                for (var camp: student.getAttendingCamps()) {
+                    if (camp.isCommittee(student)) {
+                        throw new CampControllerException("Student is already a student committee!");
+                    }
+                }
+                synchronized (this) {
+                    if (isFullCommittee()) {
+                        throw new CampControllerException("Camp committee is full!");
+                    }
+                    doStudentChecks(student);
+                    if (!reserve(takenCommitteeSlots, campInfo.getCampCommitteeSlots())) {
+                        throw new CampControllerException("Camp committee is full!");
+                    }
+                    if (!reserve(takenSlots, campInfo.getTotalSlots())) {
+                        takenCommitteeSlots.decrementAndGet();
+                        throw new CampControllerException("This camp is full! Please join another camp.");
+                    }
+                    committees.add(student.getNumber());
+                    waitlist.remove(student.getNumber());
+                }
+                student.joinCamp(this);
+                student.leaveWaitlist(this);
+                record("camp.committee", String.valueOf(id), student.getUserID());
+            }
+            event.commit(id, campInfo.getCampName(), student.getUserID(), "committee", null);
+        } catch (CampControllerException e) {
+            refusals.increment();
+            event.commit(id, campInfo.getCampName(), student.getUserID(), "committee", e.getMessage());
+            throw e;
+        } finally {
+            committeeRegistrations.recordSince(start);
         }
-        doStudentChecks(student);
-        committees.add(student.getUserID());
-        student.joinCamp(this);
     }
     
     /**
-     * Remove student from the Camp.
+     * Remove student from the Camp, locking like {@link #addStudent(Student)}, then fill the freed slot from the waitlist.
      * @param student Current Student accessing the CAM system.
      * @throws CampControllerException Display error message to let the user know why he/she
      * not able to withdraw from the camp.
      */
     public void removeStudent(Student student) throws CampControllerException {
-        if (committees.stream().anyMatch(s -> s.equals(student.getUserID()))) {
-            throw new CampControllerException("A student committee cannot leave the camp!");
+        long start = System.nanoTime();
+        try {
+            synchronized (student.getRegistrationLock()) {
+                synchronized (this) {
+                    if (committees.contains(student.getNumber())) {
+                        throw new CampControllerException("A student committee cannot leave the camp!");
+                    }
+                    if (attendees.remove(student.getNumber())) {
+                        takenSlots.decrementAndGet();
+                    }
+                    leftAttendees.add(student.getNumber());
+                }
+                student.removeCamp(this);
+                record("camp.withdraw", String.valueOf(id), student.getUserID());
+            }
+            promoteWaitlist();
+        } catch (CampControllerException e) {
+            refusals.increment();
+            throw e;
+        } finally {
+            withdrawals.recordSince(start);
+        }
+    }
+
+    /**
+     * Register a batch of students for this Camp, each checked as by {@link #addStudent(Student)} or
+     * {@link #addStudentCommittee(Student)} and given its outcome. Holds the registration locks of all the students
+     * and the lock of this Camp once for the whole batch, and writes one journal record for it.
+     * Students registered as committee members are converted afterwards.
+     * Must not be called while holding the registration lock of any student.
+     * @param requests Requests for this Camp, at most one per student.
+     * @param userController Controller holding the students, used to find their current objects and to convert committee members.
+     * @return Number of students registered.
+     */
+    int registerAll(List<Registration> requests, UserController userController) {
+        var events = new RegistrationEvent[requests.size()];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = new RegistrationEvent();
+            events[i].begin();
+        }
+        var students = new ArrayList<Student>(requests.size());
+        for (var request: requests) {
+            // Find the current object, as a committee conversion earlier in the batch replaces it.
+            students.add(userController.getUser(request.getStudent().getUserID()) instanceof Student student ? student : request.getStudent());
+        }
+        var failures = new String[requests.size()];
+        var registered = new ArrayList<Student>();
+        var committeeMembers = new ArrayList<Student>();
+        Student.withRegistrationLocks(students, () -> {
+            // Committee members of other camps are found before taking the lock of this Camp, as it takes their locks.
+            for (int i = 0; i < requests.size(); i++) {
+                if (requests.get(i).getRole() == Registration.Role.COMMITTEE && isCommitteeAnywhere(students.get(i))) {
+                    failures[i] = "Student is already a student committee!";
+                }
+            }
+            synchronized (this) {
+                for (int i = 0; i < requests.size(); i++) {
+                    if (failures[i] != null) {
+                        continue;
+                    }
+                    var student = students.get(i);
+                    boolean committee = requests.get(i).getRole() == Registration.Role.COMMITTEE;
+                    try {
+                        if (committee && isFullCommittee()) {
+                            throw new CampControllerException("Camp committee is full!");
+                        }
+                        doStudentChecks(student);
+                        if (committee && !reserve(takenCommitteeSlots, campInfo.getCampCommitteeSlots())) {
+                            throw new CampControllerException("Camp committee is full!");
+                        }
+                        if (!reserve(takenSlots, campInfo.getTotalSlots())) {
+                            if (committee) {
+                                takenCommitteeSlots.decrementAndGet();
+                            }
+                            throw new CampControllerException("This camp is full! Please join another camp.");
+                        }
+                    } catch (CampControllerException e) {
+                        failures[i] = e.getMessage();
+                        continue;
+                    }
+                    (committee ? committees : attendees).add(student.getNumber());
+                    if (committee) {
+                        committeeMembers.add(student);
+                    } else {
+                        registered.add(student);
+                    }
+                    waitlist.remove(student.getNumber());
+                }
+            }
+            if (registered.isEmpty() && committeeMembers.isEmpty()) {
+                return;
+            }
+            var values = new ArrayList<String>(2 + registered.size() + committeeMembers.size());
+            values.add(String.valueOf(id));
+            values.add(String.valueOf(registered.size()));
+            for (var student: registered) {
+                student.joinCamp(this);
+                student.leaveWaitlist(this);
+                values.add(student.getUserID());
+            }
+            for (var student: committeeMembers) {
+                student.joinCamp(this);
+                student.leaveWaitlist(this);
+                values.add(student.getUserID());
+            }
+            record("camp.enrol", values.toArray(String[]::new));
+            for (var student: committeeMembers) {
+                userController.convertTo(student, this);
+            }
+        });
+        for (int i = 0; i < requests.size(); i++) {
+            if (failures[i] == null) {
+                requests.get(i).succeed();
+            } else {
+                requests.get(i).fail(failures[i]);
+            }
+            events[i].commit(id, campInfo.getCampName(), students.get(i).getUserID(), requests.get(i).getRole().name().toLowerCase(), failures[i]);
+        }
+        return registered.size() + committeeMembers.size();
+    }
+
+    /**
+     * Check if a student is a committee member of any camp they attend.
+     * Called while holding the registration lock of the student, and not the lock of any camp,
+     * or while drawing a ballot, when its camps take no other registrations.
+     * @param student Student to check.
+     * @return True if a committee member.
+     */
+    static boolean isCommitteeAnywhere(Student student) {
+        if (student instanceof StudentCommittee) {
+            return true;
+        }
+        for (var camp: student.getAttendingCamps()) {
+            if (camp.isCommittee(student)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Put student on the waitlist of the Camp, locking like {@link #addStudent(Student)}. Students on the waitlist are
+     * registered as attendees in the order they joined it as slots are freed, and at once if a slot is already free.
+     * @param student current Student accessing the CAM system.
+     * @throws CampControllerException If the student could not join the camp even with a free slot,
+     * or is already on the waitlist.
+     */
+    public void joinWaitlist(Student student) throws CampControllerException {
+        var event = new RegistrationEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            checkNotBalloted();
+            synchronized (student.getRegistrationLock()) {
+                synchronized (this) {
+                    if (waitlist.containsKey(student.getNumber())) {
+                        throw new CampControllerException("The student is already on the waitlist.");
+                    }
+                    checkEligible(student);
+                    waitlist.put(student.getNumber(), student);
+                }
+                student.joinWaitlist(this);
+                record("camp.wait", String.valueOf(id), student.getUserID());
+            }
+            promoteWaitlist();
+            event.commit(id, campInfo.getCampName(), student.getUserID(), "waitlist", null);
+        } catch (CampControllerException e) {
+            refusals.increment();
+            event.commit(id, campInfo.getCampName(), student.getUserID(), "waitlist", e.getMessage());
+            throw e;
+        } finally {
+            waits.recordSince(start);
+        }
+    }
+
+    /**
+     * Take student off the waitlist of the Camp, locking like {@link #addStudent(Student)}.
+     * @param student current Student accessing the CAM system.
+     * @throws CampControllerException If the student is not on the waitlist.
+     */
+    public void leaveWaitlist(Student student) throws CampControllerException {
+        long start = System.nanoTime();
+        try {
+            synchronized (student.getRegistrationLock()) {
+                synchronized (this) {
+                    if (waitlist.remove(student.getNumber()) == null) {
+                        throw new CampControllerException("The student is not on the waitlist.");
+                    }
+                }
+                student.leaveWaitlist(this);
+                record("camp.unwait", String.valueOf(id), student.getUserID());
+            }
+        } catch (CampControllerException e) {
+            refusals.increment();
+            throw e;
+        } finally {
+            unwaits.recordSince(start);
+        }
+    }
+
+    /**
+     * Position of student on the waitlist of the Camp.
+     * @param student current Student accessing the CAM system.
+     * @return Position counted from 1, or 0 if the student is not on the waitlist.
+     */
+    public synchronized int getWaitlistPosition(Student student) {
+        int position = 0;
+        for (var number: waitlist.keySet()) {
+            position++;
+            if (number == student.getNumber()) {
+                return position;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Number of students on the waitlist of the Camp.
+     * @return Length of the waitlist.
+     */
+    public synchronized int getWaitlistSize() {
+        return waitlist.size();
+    }
+
+    /**
+     * Students on the waitlist, in order.
+     * @return Copy of the waitlist.
+     */
+    synchronized List<Student> getWaitlist() {
+        return List.copyOf(waitlist.values());
+    }
+
+    /**
+     * Point the waitlist at a student converted to a committee member, called while holding their registration lock.
+     * @param student The converted student.
+     */
+    public synchronized void relinkWaitlist(Student student) {
+        waitlist.replace(student.getNumber(), student);
+    }
+
+    /**
+     * Register students from the head of the waitlist into the free attendee slots, in batches.
+     * A batch holds the registration locks of its students and the lock of this Camp once, checks each student again,
+     * dropping those who can no longer join, and writes one journal record. Does nothing once registration has closed.
+     * Must not be called while holding the registration lock of any student.
+     */
+    private void promoteWaitlist() {
+        while (true) {
+            List<Student> batch;
+            synchronized (this) {
+                int free = getRemainding();
+                if (removed || free == 0 || waitlist.isEmpty() || !checkIsAfterCloseDate()) {
+                    return;
+                }
+                batch = waitlist.values().stream().limit(Math.min(free, PROMOTION_BATCH)).toList();
+            }
+            var promoted = new ArrayList<Student>();
+            var dropped = new ArrayList<Student>();
+            Student.withRegistrationLocks(batch, () -> {
+                synchronized (this) {
+                    if (removed) {
+                        return; // Deleted since the batch was taken, the next pass stops.
+                    }
+                    for (var student: batch) {
+                        if (waitlist.get(student.getNumber()) != student) {
+                            continue; // Left or was converted since the batch was taken, the next pass sees the change.
+                        }
+                        try {
+                            checkEligible(student);
+                        } catch (CampControllerException e) {
+                            waitlist.remove(student.getNumber());
+                            dropped.add(student);
+                            continue;
+                        }
+                        if (!reserve(takenSlots, campInfo.getTotalSlots())) {
+                            break;
+                        }
+                        waitlist.remove(student.getNumber());
+                        attendees.add(student.getNumber());
+                        promoted.add(student);
+                    }
+                }
+                if (promoted.isEmpty() && dropped.isEmpty()) {
+                    return;
+                }
+                var values = new ArrayList<String>(2 + promoted.size() + dropped.size());
+                values.add(String.valueOf(id));
+                values.add(String.valueOf(promoted.size()));
+                for (var student: promoted) {
+                    student.joinCamp(this);
+                    student.leaveWaitlist(this);
+                    values.add(student.getUserID());
+                }
+                for (var student: dropped) {
+                    student.leaveWaitlist(this);
+                    values.add(student.getUserID());
+                }
+                record("camp.promote", values.toArray(String[]::new));
+            });
         }
-        attendees.removeIf(s -> s.equals(student.getUserID()));
-        leftAttendees.add(student.getUserID());
-        student.removeCamp(this);
     }
     
     /**
@@ -202,10 +759,19 @@ public class Camp
      * @param suggestion Suggestion to be added
      */
     public void addSuggestion(Student student, Suggestion suggestion) {
-        if (committees.stream().noneMatch(s -> s.equals(student.getUserID()))) {
-            throw new RuntimeException("Only committee members can add suggestions");
+        long start = System.nanoTime();
+        try {
+            synchronized (posts) {
+                if (!isCommittee(student)) {
+                    throw new RuntimeException("Only committee members can add suggestions");
+                }
+                suggestion.attach(id, nextPostID++);
+                suggestions.add(suggestion);
+                record("camp.suggestion", String.valueOf(id), String.valueOf(suggestion.getID()), suggestion.getUserID(), suggestion.getText());
+            }
+        } finally {
+            suggestionPosts.recordSince(start);
         }
-        suggestions.add(suggestion);
     }
     
     /**
@@ -215,7 +781,9 @@ public class Camp
      * @return Suggestion list submitted by current Student using the CAM system.
      */
     public List<Suggestion> getSentSuggestions(Student student) {
-        return suggestions.stream().filter(suggestion -> suggestion.getUserID().equals(student.getUserID())).toList();
+        synchronized (posts) {
+            return suggestions.stream().filter(suggestion -> suggestion.getAuthor() == student.getNumber()).toList();
+        }
     }
     
     /**
@@ -223,7 +791,9 @@ public class Camp
      * @return Suggestion list.
      */
     public List<Suggestion> getAllSuggestions() {
-        return suggestions;
+        synchronized (posts) {
+            return List.copyOf(suggestions);
+        }
     }
     
     /**
@@ -231,7 +801,11 @@ public class Camp
      * @param suggestion Suggestion submitted by the camp committee members.
      */
     public void deleteSuggestion(Suggestion suggestion) {
-        suggestions.removeIf(s -> s == suggestion);
+        synchronized (posts) {
+            if (suggestions.removeIf(s -> s == suggestion)) {
+                record("camp.suggestion.delete", String.valueOf(id), String.valueOf(suggestion.getID()));
+            }
+        }
     }
     
     /**
@@ -240,7 +814,16 @@ public class Camp
      * @param enquiry Enquiry input by the student.
      */
     public void addEnquiries(Student student, Enquiry enquiry) {
-        enquiries.add(enquiry);
+        long start = System.nanoTime();
+        try {
+            synchronized (posts) {
+                enquiry.attach(id, nextPostID++);
+                enquiries.add(enquiry);
+                record("camp.enquiry", String.valueOf(id), String.valueOf(enquiry.getID()), enquiry.getUserID(), enquiry.getMessage());
+            }
+        } finally {
+            enquiryPosts.recordSince(start);
+        }
     }
     
     /**
@@ -249,7 +832,9 @@ public class Camp
      * @return List of enquiries submitted by the current Student accessing the CAM system.
      */
     public List<Enquiry> getSentEnquiries(Student student) {
-        return enquiries.stream().filter(enquiry -> enquiry.getUserID().equals(student.getUserID())).toList();
+        synchronized (posts) {
+            return enquiries.stream().filter(enquiry -> enquiry.getAuthor() == student.getNumber()).toList();
+        }
     }
     
     /**
@@ -257,7 +842,9 @@ public class Camp
      * @return The list of enquiries submitted by all the Student.
      */
     public List<Enquiry> getAllEnquiries() {
-        return enquiries;
+        synchronized (posts) {
+            return List.copyOf(enquiries);
+        }
     }
     
     /**
@@ -265,25 +852,77 @@ public class Camp
      * @param enquiry Enquiry input by the student.
      */
     public void deleteEnquiries(Enquiry enquiry) {
-        enquiries.removeIf(e -> e == enquiry);
+        synchronized (posts) {
+            if (enquiries.removeIf(e -> e == enquiry)) {
+                record("camp.enquiry.delete", String.valueOf(id), String.valueOf(enquiry.getID()));
+            }
+        }
     }
     
     /**
      * Return a list of all the student's IDs (Both camp attendees and committee members).
      * @return A list of all the student's IDs.
      */
-    public List<String> getStudentNames() {
-        
-        return Stream.concat(attendees.stream(), committees.stream()).toList();
+    public synchronized List<String> getStudentNames() {
+        return IntStream.concat(attendees.stream(), committees.stream()).mapToObj(UserDictionary::decode).toList();
+    }
+
+    /**
+     * Bitmap of the numbers of some of the members of this Camp, built from the members for analytics across camps.
+     * Called while holding the lock of this Camp.
+     * @param membership Which members.
+     * @return New bitmap of their numbers in the UserDictionary.
+     */
+    RoaringBitmap getMemberBits(CampController.Membership membership) {
+        var bits = new RoaringBitmap();
+        committees.forEach(bits::add);
+        if (membership != CampController.Membership.COMMITTEES) {
+            attendees.forEach(bits::add);
+        }
+        return bits;
+    }
+
+    /**
+     * Number of some of the members of this Camp, read without locking.
+     * @param membership Which members.
+     * @return Number of members.
+     */
+    int countMembers(CampController.Membership membership) {
+        return membership == CampController.Membership.COMMITTEES ? takenCommitteeSlots.get() : takenSlots.get();
     }
     
+    /**
+     * Getter
+     * @return Ballot taking the registrations for this Camp, null if students register first come first served.
+     */
+    public Ballot getBallot() {
+        return ballot;
+    }
+
+    /**
+     * Setter, used by the CampController when a ballot is opened or allocated.
+     * @param ballot Ballot taking the registrations for this Camp, null to register first come first served.
+     */
+    void setBallot(Ballot ballot) {
+        this.ballot = ballot;
+    }
+
     /**
      * Checks if the user is a staff or the camp is set to visible.
      * @param user Current user that is accessing the CAM system.
      * @return True if the user is a staff or the camp is set to visible and false otherwise.
      */
     boolean isVisible(User user) {
-        return user instanceof Staff || (visible && (campInfo.getUserGroup().equals("NTU") || isInUserGroup(user.getFaculty())));
+        return user instanceof Staff || isVisibleTo(user.getFaculty());
+    }
+
+    /**
+     * Check if this Camp can be viewed by students of a faculty.
+     * @param faculty Faculty of the students.
+     * @return True if the camp is visible and open to NTU or to the faculty.
+     */
+    boolean isVisibleTo(String faculty) {
+        return visible && (campInfo.getUserGroup().equals(GlobalUserGroup) || isInUserGroup(faculty));
     }
     
     /**
@@ -305,13 +944,25 @@ public class Camp
         return visible;
     }
     
+    /**
+     * Set the value of visibility, used when replaying the journal.
+     * @param visible The new value of the variable "visible".
+     */
+    void setVisibility(boolean visible) {
+        this.visible = visible;
+        if (controller != null) {
+            controller.audienceChanged();
+        }
+    }
+
     /**
      * Toggle the value of visibility (off to on OR on to off)
      * @return The previous value of the variable "visible".
      */
     public boolean toggleVisibility() {
         boolean ret = visible;
-        visible = !visible;
+        setVisibility(!visible);
+        record("camp.visible", String.valueOf(id), String.valueOf(visible));
         return ret;
     }
     
@@ -325,6 +976,22 @@ public class Camp
         return staff == this.staff;
     }
     
+    /**
+     * Gets the unique ID of this Camp.
+     * @return This Camp's ID.
+     */
+    public int getID() {
+        return id;
+    }
+
+    /**
+     * Gets the staff in-charge of this Camp.
+     * @return This Camp's staff in-charge.
+     */
+    Staff getStaff() {
+        return staff;
+    }
+
     /**
      * Return the name of the Camp.
      */
@@ -355,8 +1022,17 @@ public class Camp
      * Return the list of student's ID who belong to this Camp committee.
      * @return The list of student's ID who belong to this Camp committee.
      */
-    public List<String> getCommittees() {
-        return committees;
+    public synchronized List<String> getCommittees() {
+        return userIDs(committees);
+    }
+
+    /**
+     * Check if a student belongs to this Camp committee.
+     * @param student Student to check.
+     * @return True if the student is a camp committee member of this Camp.
+     */
+    public synchronized boolean isCommittee(Student student) {
+        return committees.contains(student.getNumber());
     }
     
     /**
@@ -371,61 +1047,74 @@ public class Camp
      * @param reportChoice Generate in csv or txt format.
      */
     public void generateAttendance(UserController userController, String filePath, int reportChoice) {
-        // TODO
-    	 try (FileWriter writer = new FileWriter(filePath)) {
-             // Write header
-             writer.write("Camp Attendance Report\n");
-             writer.write("Date: " + LocalDate.now() + "\n");
-             writer.write("Camp Name: " + campInfo.getCampName() + "\n");
-             writer.write("Camp Duration: " + campInfo.getTimeRegion() +"\n");
-             writer.write("Registration Deadline: " + campInfo.getRegCloseDate() + "\n");
-             writer.write("Camp Faculty: " + campInfo.getUserGroup() + "\n");
-             writer.write("Location: " + campInfo.getLocation() + "\n");
-             writer.write("Camp Attendee Slots: " + campInfo.getTotalSlots() + "\n");
-             writer.write("Camp Committee Slots: " + campInfo.getCampCommitteeSlots() + "\n");
-             writer.write("Camp Description: " + campInfo.getInCharge() + "\n");
-             writer.write("\n");  // Add a blank line
-
-             // Write attendees
-             List<User> campAttendees = userController.getUsers(attendees);
-             List<User> campCommittees = userController.getUsers(committees);
-             int i = 0;
-             switch (reportChoice)
-             {
-             	case 1:
-                    writer.write("Attendees:\n");
-                    i = 0;
-                    for(var attendee: campAttendees) {
-                        writer.write((i + 1) + ". " + attendee.getUserID() + ", " + attendee.getName() + ", Camp Attendee\n");
-                        i++;
-                    }
-                    writer.write("Committees:\n");
-                    i = 0;
-                    for (var committee: campCommittees) {
-                        writer.write((i + 1) + ". " + committee.getUserID() + ", " + committee.getName() + ", Camp Committee\n");
-                        i++;
-                    }
-                    break;
-             	case 2:
-                    i = 0;
-                    for(var attendee: campAttendees) {
-                        writer.write((i + 1) + ". " + attendee.getUserID() + ", " + attendee.getName() + ", Camp Attendee\n");
-                        i++;
-                    }
-             		break;
-             	case 3:
-                     i = 0;
-                     for (var committee: campCommittees) {
-                         writer.write((i + 1) + ". " + committee.getUserID() + ", " + committee.getName() + ", Camp Committee\n");
-                         i++;
-                     }
-             		break;
-             }
+        var event = new ReportEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            // TODO
+        	 try (FileWriter writer = new FileWriter(filePath)) {
+                 // Write header
+                 writer.write("Camp Attendance Report\n");
+                 writer.write("Date: " + LocalDate.now() + "\n");
+                 writer.write("Camp Name: " + campInfo.getCampName() + "\n");
+                 writer.write("Camp Duration: " + campInfo.getTimeRegion() +"\n");
+                 writer.write("Registration Deadline: " + campInfo.getRegCloseDate() + "\n");
+                 writer.write("Camp Faculty: " + campInfo.getUserGroup() + "\n");
+                 writer.write("Location: " + campInfo.getLocation() + "\n");
+                 writer.write("Camp Attendee Slots: " + campInfo.getTotalSlots() + "\n");
+                 writer.write("Camp Committee Slots: " + campInfo.getCampCommitteeSlots() + "\n");
+                 writer.write("Camp Description: " + campInfo.getInCharge() + "\n");
+                 writer.write("\n");  // Add a blank line
+
+                 // Write attendees
+                 List<String> attendeeIDs, committeeIDs;
+                 synchronized (this) {
+                     attendeeIDs = userIDs(attendees);
+                     committeeIDs = userIDs(committees);
+                 }
+                 List<User> campAttendees = userController.getUsers(attendeeIDs);
+                 List<User> campCommittees = userController.getUsers(committeeIDs);
+                 int i = 0;
+                 switch (reportChoice)
+                 {
+                 	case 1:
+                        writer.write("Attendees:\n");
+                        i = 0;
+                        for(var attendee: campAttendees) {
+                            writer.write((i + 1) + ". " + attendee.getUserID() + ", " + attendee.getName() + ", Camp Attendee\n");
+                            i++;
+                        }
+                        writer.write("Committees:\n");
+                        i = 0;
+                        for (var committee: campCommittees) {
+                            writer.write((i + 1) + ". " + committee.getUserID() + ", " + committee.getName() + ", Camp Committee\n");
+                            i++;
+                        }
+                        break;
+                 	case 2:
+                        i = 0;
+                        for(var attendee: campAttendees) {
+                            writer.write((i + 1) + ". " + attendee.getUserID() + ", " + attendee.getName() + ", Camp Attendee\n");
+                            i++;
+                        }
+                 		break;
+                 	case 3:
+                         i = 0;
+                         for (var committee: campCommittees) {
+                             writer.write((i + 1) + ". " + committee.getUserID() + ", " + committee.getName() + ", Camp Committee\n");
+                             i++;
+                         }
+                 		break;
+                 }
              
-         } catch (IOException e) {
-             // Handle IOException, e.g., log the error or print a message
-             e.printStackTrace();
-         }
+             } catch (IOException e) {
+                 // Handle IOException, e.g., log the error or print a message
+                 e.printStackTrace();
+             }
+        } finally {
+            attendanceReports.recordSince(start);
+            event.commit("attendance", id, filePath);
+        }
     }
 
     /**
@@ -433,12 +1122,20 @@ public class Camp
      * @param filePath The path where the report want to be generated at.
      */
     public void generateEnquiryReport(String filePath) {
-        try (FileWriter fileWriter = new FileWriter(filePath)) {
-            for (var enquiry: enquiries) {
-                fileWriter.write( enquiry.getUserID() + ", " + enquiry.toString() + "\n");
+        var event = new ReportEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            try (FileWriter fileWriter = new FileWriter(filePath)) {
+                for (var enquiry: getAllEnquiries()) {
+                    fileWriter.write( enquiry.getUserID() + ", " + enquiry.toString() + "\n");
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
             }
-        } catch (IOException e) {
-            e.printStackTrace();
+        } finally {
+            enquiryReports.recordSince(start);
+            event.commit("enquiry", id, filePath);
         }
     }
 
@@ -474,15 +1171,18 @@ public class Camp
     public void setCampCommSlots(int slots)
     {
     	campInfo.setCampCommitteeSlots(slots);
+    	record("camp.set", String.valueOf(id), "campCommitteeSlots", String.valueOf(campInfo.getCampCommitteeSlots()));
     }
     
     /**
-     * Changes the number of total slots of this Camp.
+     * Changes the number of total slots of this Camp, filling any new slots from the waitlist.
      * @param slots This Camp's new total slots.
      */
     public void setTotalSlots(int slots)
     {
     	campInfo.setTotalSlots(slots);
+    	record("camp.set", String.valueOf(id), "totalSlots", String.valueOf(slots));
+    	promoteWaitlist();
     }
     
     /**
@@ -492,6 +1192,7 @@ public class Camp
     public void setRegCloseDate(LocalDate regCloseDate)
     {
     	campInfo.setRegCloseDate(regCloseDate);
+    	record("camp.set", String.valueOf(id), "regCloseDate", regCloseDate.toString());
     }
     
     /**
@@ -501,6 +1202,7 @@ public class Camp
     public void setDescription(String description)
     {
     	campInfo.setDescription(description);
+    	record("camp.set", String.valueOf(id), "description", description);
     }
 
     /**
@@ -510,6 +1212,7 @@ public class Camp
     public void setLocation(String location)
     {
     	campInfo.setLocation(location);
+    	record("camp.set", String.valueOf(id), "location", location);
     }
     
     /**
@@ -518,9 +1221,42 @@ public class Camp
      */
     public void setCampName(String campName)
     {
+    	var oldKey = catalogKey;
     	campInfo.setCampName(campName);
+    	catalogKey = new CatalogKey(campName, id);
+    	if (controller != null) {
+    		controller.nameChanged(this, oldKey);
+    	}
+    	record("camp.set", String.valueOf(id), "campName", campName);
     }
     
+    /**
+     * Number of times the duration of any Camp was changed.
+     * @return Count of duration changes.
+     */
+    public static int getRegionChanges() {
+        return regionChanges.get();
+    }
+
+    /**
+     * Number of recorded changes to any Camp, its members or its posts. Reading it before reading camps
+     * means that a later change always gives a larger number.
+     * @return Count of changes.
+     */
+    public static long getModifications() {
+        return modifications.get();
+    }
+
+    /**
+     * Count a change already made to a camp and record it in the journal.
+     * @param type Type of the change
+     * @param values Values of the change
+     */
+    static void record(String type, String... values) {
+        modifications.incrementAndGet();
+        Journal.record(type, values);
+    }
+
     /**
      * Changes the duration (start date and end date) of this Camp.
      * @param region This Camp's new duration (start date and end date).
@@ -528,6 +1264,11 @@ public class Camp
     public void setRegion(TimeRegion region)
     {
     	campInfo.setTimeRegion(region);
+    	regionChanges.incrementAndGet();
+    	if (controller != null) {
+    		controller.regionChanged(this);
+    	}
+    	record("camp.set", String.valueOf(id), "region", region.getStartTime().toString(), region.getEndTime().toString());
     }
     
     /**
@@ -537,24 +1278,334 @@ public class Camp
     public void setUserGroup(String userGrp)
     {
     	campInfo.setUserGroup(userGrp);
+    	if (controller != null) {
+    		controller.audienceChanged();
+    	}
+    	record("camp.set", String.valueOf(id), "userGroup", userGrp);
     }
     
     /**
-     * Return the remaining available slots of the camp committee.
+     * Representation in the camps file. The first line describes the camp and is followed by
+     * one line for each attendee, committee member, withdrawn student, enquiry and suggestion.
+     * @param userController Controller for User, used to look up the points of committee members.
+     * @return Lines that represent this Camp.
+     */
+    List<String> representation(UserController userController) {
+        // Posts are copied before taking the lock of this Camp, as posting takes them in the other order.
+        var enquiries = getAllEnquiries();
+        var suggestions = getAllSuggestions();
+        synchronized (this) {
+            return representation(userController, enquiries, suggestions);
+        }
+    }
+
+    /**
+     * Representation in the camps file, while holding the lock of this Camp.
+     * @param userController Controller for User, used to look up the points of committee members.
+     * @param enquiries Copy of the enquiries of this Camp.
+     * @param suggestions Copy of the suggestions of this Camp.
+     * @return Lines that represent this Camp.
+     */
+    private List<String> representation(UserController userController, List<Enquiry> enquiries, List<Suggestion> suggestions) {
+        var lines = new ArrayList<String>(1 + attendees.size() + committees.size() + leftAttendees.size() + enquiries.size() + suggestions.size() + waitlist.size());
+        lines.add(getClass().getTypeName() + "," + Csv.join(fields()));
+        for (var attendee: userIDs(attendees)) {
+            lines.add(Csv.join("attendee", attendee));
+        }
+        for (var committee: userIDs(committees)) {
+            int points = userController.getUser(committee) instanceof StudentCommittee studentCommittee ? studentCommittee.getPoints() : 0;
+            lines.add(Csv.join("committee", committee, String.valueOf(points)));
+        }
+        for (var leftAttendee: userIDs(leftAttendees)) {
+            lines.add(Csv.join("left", leftAttendee));
+        }
+        for (var enquiry: enquiries) {
+            var enquiryID = String.valueOf(enquiry.getID());
+            lines.add(enquiry.isAnswered()
+                    ? Csv.join("enquiry", enquiryID, enquiry.getUserID(), enquiry.getMessage(), enquiry.getAnswer())
+                    : Csv.join("enquiry", enquiryID, enquiry.getUserID(), enquiry.getMessage()));
+        }
+        for (var suggestion: suggestions) {
+            lines.add(Csv.join("suggestion", String.valueOf(suggestion.getID()), suggestion.getUserID(), suggestion.getText()));
+        }
+        for (var student: waitlist.values()) {
+            lines.add(Csv.join("waiting", student.getUserID()));
+        }
+        return lines;
+    }
+
+    /**
+     * Decode a set of students.
+     * @param numbers Numbers of the students in the UserDictionary.
+     * @return IDs of the students, in the same order.
+     */
+    private static List<String> userIDs(IntSet numbers) {
+        var userIDs = new ArrayList<String>(numbers.size());
+        numbers.forEach(number -> userIDs.add(UserDictionary.decode(number)));
+        return userIDs;
+    }
+
+    /**
+     * Position of this Camp in the catalog.
+     * @return Catalog key of this Camp.
+     */
+    CatalogKey getCatalogKey() {
+        return catalogKey;
+    }
+
+    /**
+     * Set the controller holding this Camp.
+     * @param controller Controller holding this Camp, null once removed.
+     */
+    void setController(CampController controller) {
+        this.controller = controller;
+    }
+
+    /**
+     * Mark this Camp as deleted, so that registrations made from now on are refused.
+     * Registrations already past their checks have added their students, which can then be unlinked.
+     */
+    synchronized void markRemoved() {
+        removed = true;
+    }
+
+    /**
+     * Write this Camp as a snapshot record, read back by {@link CampController#loadFrom(List, UserController)}.
+     * @param writer Writer of the snapshot.
+     * @param userController Controller for User, used to look up the points of committee members.
+     */
+    void writeTo(SnapshotWriter writer, UserController userController) {
+        // Posts are copied before taking the lock of this Camp, as posting takes them in the other order.
+        var enquiries = getAllEnquiries();
+        var suggestions = getAllSuggestions();
+        synchronized (this) {
+            writeTo(writer, userController, enquiries, suggestions);
+        }
+    }
+
+    /**
+     * Write this Camp as a snapshot record, while holding the lock of this Camp.
+     * @param writer Writer of the snapshot.
+     * @param userController Controller for User, used to look up the points of committee members.
+     * @param enquiries Copy of the enquiries of this Camp.
+     * @param suggestions Copy of the suggestions of this Camp.
+     */
+    private void writeTo(SnapshotWriter writer, UserController userController, List<Enquiry> enquiries, List<Suggestion> suggestions) {
+        var region = campInfo.getTimeRegion();
+        writer.beginCamp();
+        writer.writeInt(id);
+        writer.writeString(campInfo.getCampName());
+        writer.writeDate(region.getStartTime());
+        writer.writeDate(region.getEndTime());
+        writer.writeDate(campInfo.getRegCloseDate());
+        writer.writeString(campInfo.getUserGroup());
+        writer.writeString(campInfo.getLocation());
+        writer.writeInt(campInfo.getTotalSlots());
+        writer.writeInt(campInfo.getCampCommitteeSlots());
+        writer.writeString(campInfo.getDescription());
+        writer.writeUser(staff.getUserID());
+        writer.writeBoolean(visible);
+        writer.writeInt(nextPostID);
+        writer.writeInt(attendees.size());
+        for (var attendee: userIDs(attendees)) {
+            writer.writeUser(attendee);
+        }
+        writer.writeInt(committees.size());
+        for (var committee: userIDs(committees)) {
+            writer.writeUser(committee);
+            writer.writeInt(userController.getUser(committee) instanceof StudentCommittee studentCommittee ? studentCommittee.getPoints() : 0);
+        }
+        writer.writeInt(leftAttendees.size());
+        for (var leftAttendee: userIDs(leftAttendees)) {
+            writer.writeUser(leftAttendee);
+        }
+        writer.writeInt(enquiries.size());
+        for (var enquiry: enquiries) {
+            writer.writeInt(enquiry.getID());
+            writer.writeString(enquiry.getUserID());
+            writer.writeString(enquiry.getMessage());
+            writer.writeString(enquiry.getAnswer());
+        }
+        writer.writeInt(suggestions.size());
+        for (var suggestion: suggestions) {
+            writer.writeInt(suggestion.getID());
+            writer.writeString(suggestion.getUserID());
+            writer.writeString(suggestion.getText());
+        }
+        writer.writeInt(waitlist.size());
+        for (var student: waitlist.values()) {
+            writer.writeUser(student.getUserID());
+        }
+    }
+
+    /**
+     * Set the ID given to the next enquiry or suggestion, used when loading.
+     * @param nextPostID ID of the next enquiry or suggestion.
+     */
+    void restoreNextPostID(int nextPostID) {
+        this.nextPostID = Math.max(this.nextPostID, nextPostID);
+    }
+
+    /**
+     * Values describing the camp itself, as read back by {@link CampController} after the type of the line.
+     * @return Values of the camp line
+     */
+    String[] fields() {
+        var region = campInfo.getTimeRegion();
+        return new String[] {String.valueOf(id), campInfo.getCampName(), region.getStartTime().toString(), region.getEndTime().toString(),
+                campInfo.getRegCloseDate().toString(), campInfo.getUserGroup(), campInfo.getLocation(), String.valueOf(campInfo.getTotalSlots()),
+                String.valueOf(campInfo.getCampCommitteeSlots()), campInfo.getDescription(), staff.getUserID(), String.valueOf(visible)};
+    }
+
+    /**
+     * Add a loaded attendee to the Camp without registration checks. Does nothing if already added.
+     * @param student Student which was saved as an attendee.
+     */
+    synchronized void restoreAttendee(Student student) {
+        if (attendees.add(student.getNumber()) && !committees.contains(student.getNumber())) {
+            takenSlots.incrementAndGet();
+        }
+        if (!student.isAttending(this)) {
+            student.joinCamp(this);
+        }
+        restoreLeftWaitlist(student);
+    }
+
+    /**
+     * Add a loaded committee member to the Camp without registration checks. Does nothing if already added.
+     * @param student Student which was saved as a committee member.
+     */
+    synchronized void restoreCommittee(Student student) {
+        boolean attending = attendees.contains(student.getNumber());
+        if (committees.add(student.getNumber())) {
+            takenCommitteeSlots.incrementAndGet();
+            if (!attending) {
+                takenSlots.incrementAndGet();
+            }
+        }
+        if (!student.isAttending(this)) {
+            student.joinCamp(this);
+        }
+        restoreLeftWaitlist(student);
+    }
+
+    /**
+     * Add a loaded withdrawn student to the Camp. Does nothing if already added.
+     * @param userID ID of the student which has withdrawn.
+     */
+    synchronized void restoreLeftAttendee(String userID) {
+        leftAttendees.add(UserDictionary.encode(userID));
+    }
+
+    /**
+     * Withdraw a student as recorded in the journal, without the checks of {@link #removeStudent(Student)}.
+     * @param student Student which has withdrawn.
+     */
+    synchronized void restoreWithdrawal(Student student) {
+        if (attendees.remove(student.getNumber())) {
+            takenSlots.decrementAndGet();
+        }
+        restoreLeftAttendee(student.getUserID());
+        student.removeCamp(this);
+    }
+
+    /**
+     * Add a loaded student to the end of the waitlist without registration checks. Does nothing if already on it.
+     * @param student Student which was saved on the waitlist.
+     */
+    synchronized void restoreWaiting(Student student) {
+        waitlist.putIfAbsent(student.getNumber(), student);
+        student.joinWaitlist(this);
+    }
+
+    /**
+     * Take a student off the waitlist as recorded in the journal. Does nothing if not on it.
+     * @param student Student which has left the waitlist.
+     */
+    synchronized void restoreLeftWaitlist(Student student) {
+        waitlist.remove(student.getNumber());
+        student.leaveWaitlist(this);
+    }
+
+    /**
+     * Set the total slots as recorded in the journal, without promoting from the waitlist,
+     * as the promotions that followed are recorded too.
+     * @param slots This Camp's total slots.
+     */
+    void restoreTotalSlots(int slots) {
+        campInfo.setTotalSlots(slots);
+    }
+
+    /**
+     * Add a loaded enquiry to the Camp. Does nothing if an enquiry with the same ID was added.
+     * @param id ID of the enquiry within the Camp.
+     * @param enquiry Enquiry which was saved.
+     */
+    void restoreEnquiry(int id, Enquiry enquiry) {
+        if (findEnquiry(id) == null) {
+            enquiry.attach(this.id, id);
+            enquiries.add(enquiry);
+            nextPostID = Math.max(nextPostID, id + 1);
+        }
+    }
+
+    /**
+     * Add a loaded suggestion to the Camp. Does nothing if a suggestion with the same ID was added.
+     * @param id ID of the suggestion within the Camp.
+     * @param suggestion Suggestion which was saved.
+     */
+    void restoreSuggestion(int id, Suggestion suggestion) {
+        if (findSuggestion(id) == null) {
+            suggestion.attach(this.id, id);
+            suggestions.add(suggestion);
+            nextPostID = Math.max(nextPostID, id + 1);
+        }
+    }
+
+    /**
+     * Find an enquiry by its ID.
+     * @param id ID of the enquiry within the Camp.
+     * @return The enquiry, null if there is none with the ID.
+     */
+    Enquiry findEnquiry(int id) {
+        for (var enquiry: enquiries) {
+            if (enquiry.getID() == id) {
+                return enquiry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Find a suggestion by its ID.
+     * @param id ID of the suggestion within the Camp.
+     * @return The suggestion, null if there is none with the ID.
+     */
+    Suggestion findSuggestion(int id) {
+        for (var suggestion: suggestions) {
+            if (suggestion.getID() == id) {
+                return suggestion;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Return the remaining available slots of the camp committee, limited by the remaining total slots.
      * @return The remaining available slots of the camp committee.
      */
     public int getRemaindingCommittee()
     { 
-    	return Math.min(campInfo.getTotalSlots() - committees.size(), getRemainding());
+    	return Math.max(0, Math.min(campInfo.getCampCommitteeSlots() - takenCommitteeSlots.get(), getRemainding()));
     }
     
     /**
      * Return the remaining available slots of the total slots.
-     * Total Slots - Number of Camp Attendee - Number of Camp Committee Member.
+     * Total Slots - Number of Camp Attendee - Number of Camp Committee Member, or 0 if the total slots were lowered below that.
      * @return The remaining available slots of the total slots.
      */
     public int getRemainding()
     {
-    	return campInfo.getTotalSlots() - attendees.size() - committees.size(); 
-    }  // attendees should include committee members already
+    	return Math.max(0, campInfo.getTotalSlots() - takenSlots.get());
+    }
 }
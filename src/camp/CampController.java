@@ -1,14 +1,27 @@
 package camp;
 
+import metrics.CampListingEvent;
+import metrics.Histogram;
+import metrics.Metrics;
+import metrics.RegistrationEvent;
+import storage.Snapshot;
+import storage.SnapshotWriter;
 import user.Staff;
 import user.Student;
+import user.StudentCommittee;
 import user.User;
 import user.UserController;
+import user.UserDictionary;
+import utils.Csv;
+import utils.IntervalIndex;
+import utils.RoaringBitmap;
 import utils.TimeRegion;
 
 import java.io.*;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
 
 /**
@@ -21,6 +34,965 @@ public class CampController
 	 */
     private final List<Camp> camps = new ArrayList<>();
 
+    /**
+     * Camps indexed by their ID.
+     */
+    private final Map<Integer, Camp> campsByID = new HashMap<>();
+
+    /**
+     * ID given to the next camp created.
+     */
+    private int nextCampID = 0;
+
+    /**
+     * Camps sorted by name ignoring case, so that listings are filtered in order without sorting.
+     */
+    private final TreeMap<CatalogKey, Camp> catalog = new TreeMap<>();
+
+    /**
+     * Listings of the catalog for each audience, replaced whenever a change could alter who sees which camp.
+     */
+    private volatile AudienceViews audienceViews = new AudienceViews();
+
+    /**
+     * Listings of the catalog for each audience, in catalog order, built when first listed.
+     * A listing built while the views are being replaced only ends up in the old views.
+     */
+    private static final class AudienceViews {
+        /**
+         * Visible camps for the students of each faculty.
+         */
+        final Map<String, List<Camp>> faculties = new ConcurrentHashMap<>();
+
+        /**
+         * Every camp, as seen by staff. Null until first listed.
+         */
+        volatile List<Camp> staff;
+    }
+
+    /**
+     * Camps indexed by their duration, so that date filtered listings only visit camps inside the requested dates.
+     */
+    private final IntervalIndex<Camp> campsByRegion = new IntervalIndex<>();
+
+    /**
+     * IDs of camps deleted since the base snapshot, written to delta snapshots so that the base's copy is dropped.
+     */
+    private final Set<Integer> deletedCampIDs = new HashSet<>();
+
+    /**
+     * IDs of camps changed since the base snapshot, in order, so that a checkpoint finds them without scanning every camp.
+     */
+    private final Set<Integer> changedCampIDs = new TreeSet<>();
+
+    /**
+     * Ballots taking choices, guarded by the lock.
+     */
+    private final List<Ballot> ballots = new ArrayList<>();
+
+    /**
+     * ID given to the next ballot opened, guarded by the lock.
+     */
+    private int nextBallotID = 0;
+
+    /**
+     * Guards the list and indexes of camps, so that sessions can list camps while staff add, remove or change them.
+     * Taken before the registration lock of any student.
+     */
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Time taken by listing the camps a user can view.
+     */
+    private static final Histogram listings = Metrics.histogram("camp.list");
+
+    /**
+     * Time taken by batches of registrations.
+     */
+    private static final Histogram batches = Metrics.histogram("camp.registerAll");
+
+    /**
+     * Time taken by allocating ballots.
+     */
+    private static final Histogram allocations = Metrics.histogram("ballot.allocate");
+
+    /**
+     * Time taken by creating camps.
+     */
+    private static final Histogram creations = Metrics.histogram("camp.create");
+
+    /**
+     * Time taken by deleting camps.
+     */
+    private static final Histogram deletions = Metrics.histogram("camp.delete");
+
+    /**
+     * Serialize Method
+     * @param filePath Specify which location to save to
+     * @param campController Specify which store to retrieve from
+     * @param userController Controller for User, used to look up the points of committee members
+     */
+    public static void saveTo(String filePath, CampController campController, UserController userController) {
+        try {
+            writeTo(filePath, campController, userController);
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Serialize Method which reports failures to the caller.
+     * @param filePath Specify which location to save to
+     * @param campController Specify which store to retrieve from
+     * @param userController Controller for User, used to look up the points of committee members
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeTo(String filePath, CampController campController, UserController userController) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
+            for (var camp: campController.camps) {
+                for (var line: camp.representation(userController)) {
+                    writer.write(line);
+                    writer.newLine();
+                }
+            }
+        }
+    }
+
+    /**
+     * Deserialize Method. Members are linked back to the students in the user controller as they are read,
+     * students saved as committee members are converted to {@link StudentCommittee}.
+     * Records are read quote-aware, as the text of an enquiry or suggestion may hold line breaks.
+     * @param filePath Specify which location to load from
+     * @param userController Controller holding the users referred to by the camps
+     * @return Returns {@code Optional.of(CampController)} if load was successful, otherwise returns {@code Optional.empty()}
+     */
+    public static Optional<CampController> loadFrom(String filePath, UserController userController) {
+        var campController = new CampController();
+        try (var reader = new Csv.RecordReader(new BufferedReader(new FileReader(filePath)))) {
+            Camp camp = null;
+            String line;
+            while ((line = reader.next()) != null) {
+                var values = Csv.split(line);
+                switch (values.get(0)) {
+                    case "camp.Camp" -> {
+                        camp = parseCamp(values, userController);
+                        campController.addCamp(camp);
+                    }
+                    case "attendee" -> requireCamp(camp).restoreAttendee(getStudent(userController, values.get(1)));
+                    case "committee" -> {
+                        var committee = restoreCommittee(requireCamp(camp), getStudent(userController, values.get(1)), userController);
+                        committee.setPoints(Integer.parseInt(values.get(2)));
+                    }
+                    case "left" -> requireCamp(camp).restoreLeftAttendee(values.get(1));
+                    case "enquiry" -> {
+                        var enquiry = new Enquiry(values.get(3), values.get(2));
+                        if (values.size() > 4) {
+                            enquiry.reply(values.get(4));
+                        }
+                        requireCamp(camp).restoreEnquiry(Integer.parseInt(values.get(1)), enquiry);
+                    }
+                    case "suggestion" -> requireCamp(camp).restoreSuggestion(Integer.parseInt(values.get(1)), new Suggestion(values.get(3), values.get(2)));
+                    case "waiting" -> requireCamp(camp).restoreWaiting(getStudent(userController, values.get(1)));
+                    default -> throw new RuntimeException("Malformed type!");
+                }
+            }
+            return Optional.of(campController);
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Serialize Method for a binary snapshot, writes one record per camp.
+     * @param writer Writer of the snapshot
+     * @param campController Specify which store to retrieve from
+     * @param userController Controller for User, used to look up the points of committee members
+     */
+    public static void writeTo(SnapshotWriter writer, CampController campController, UserController userController) {
+        for (var camp: campController.camps) {
+            camp.writeTo(writer, userController);
+        }
+        campController.writeBallotsTo(writer);
+    }
+
+    /**
+     * Serialize Method for a delta snapshot, writes the camps changed since the base snapshot and the IDs of deleted ones.
+     * A camp also counts as changed when the points of one of its committee members changed.
+     * @param writer Writer of the snapshot
+     * @param campController Specify which store to retrieve from
+     * @param userController Controller for User, used to look up the points of committee members
+     */
+    public static void writeChangesTo(SnapshotWriter writer, CampController campController, UserController userController) {
+        for (var id: campController.changedCampIDs) {
+            campController.campsByID.get(id).writeTo(writer, userController);
+        }
+        for (var id: campController.deletedCampIDs) {
+            writer.deleteCamp(id);
+        }
+        campController.writeBallotsTo(writer);
+    }
+
+    /**
+     * Write every open ballot, after the camps. Ballots are few, so each snapshot holds all of them.
+     * @param writer Writer of the snapshot
+     */
+    private void writeBallotsTo(SnapshotWriter writer) {
+        lock.readLock().lock();
+        try {
+            writer.beginBallots();
+            writer.writeInt(nextBallotID);
+            writer.writeInt(ballots.size());
+            for (var ballot: ballots) {
+                ballot.writeTo(writer);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Open again the ballots of a snapshot with their choices. Camps deleted since are left out.
+     * @param snapshot Newest snapshot, holding every open ballot
+     */
+    private void loadBallots(Snapshot snapshot) {
+        var cursor = snapshot.ballots();
+        if (cursor == null) {
+            return;
+        }
+        nextBallotID = cursor.nextInt();
+        try {
+            for (int b = cursor.nextInt(); b > 0; b--) {
+                int id = cursor.nextInt();
+                int campsPerStudent = cursor.nextInt();
+                var ballotCamps = new ArrayList<Camp>();
+                for (int j = cursor.nextInt(); j > 0; j--) {
+                    var camp = campsByID.get(cursor.nextInt());
+                    if (camp != null) {
+                        ballotCamps.add(camp);
+                    }
+                }
+                var ballot = ballotCamps.isEmpty() ? null : openBallot(id, ballotCamps, campsPerStudent, false);
+                for (int j = cursor.nextInt(); j > 0; j--) {
+                    var userID = cursor.nextString();
+                    var ranked = new ArrayList<Ballot.Choice>();
+                    for (int k = cursor.nextInt(); k > 0; k--) {
+                        var camp = campsByID.get(cursor.nextInt());
+                        var role = Registration.Role.values()[cursor.nextInt()];
+                        if (camp != null && ballotCamps.contains(camp)) {
+                            ranked.add(new Ballot.Choice(camp, role));
+                        }
+                    }
+                    if (ballot != null) {
+                        ballot.restoreChoices(userID, ranked);
+                    }
+                }
+            }
+        } catch (CampControllerException e) {
+            throw new RuntimeException("Malformed snapshot, " + e.getMessage());
+        }
+    }
+
+    /**
+     * Number of camps changed or deleted since the base snapshot, counting the camps
+     * {@link #writeChangesTo(SnapshotWriter, CampController, UserController)} writes.
+     * @return Number of changed camps
+     */
+    public int getChangedCampCount() {
+        return changedCampIDs.size() + deletedCampIDs.size();
+    }
+
+    /**
+     * Mark a camp as changed since the base snapshot, as when the points of one of its committee members change.
+     * @param camp Camp to mark
+     */
+    public void markChanged(Camp camp) {
+        if (campsByID.containsKey(camp.getID())) {
+            changedCampIDs.add(camp.getID());
+        }
+    }
+
+    /**
+     * Deserialize Method for binary snapshots. Members are resolved by their record in the same snapshot,
+     * students saved as committee members are converted to {@link StudentCommittee}.
+     * A camp is taken from the newest snapshot holding it, unless a newer snapshot deleted it.
+     * @param chain Snapshots to load from, newest first, as returned by {@link Snapshot#chain(String)}
+     * @param userController Controller loaded from the same snapshots
+     * @return Controller holding the camps of the snapshots
+     */
+    public static CampController loadFrom(List<Snapshot> chain, UserController userController) {
+        var campController = new CampController();
+        var superseded = new HashSet<Integer>();
+        for (var snapshot: chain) {
+            for (int i = 0; i < snapshot.campCount(); i++) {
+                var cursor = snapshot.camp(i);
+                var id = cursor.nextInt();
+                if (superseded.add(id)) {
+                    var camp = loadCamp(snapshot, cursor, id, userController);
+                    if (snapshot.isDelta()) {
+                        campController.changedCampIDs.add(id);
+                    }
+                    campController.addCamp(camp);
+                }
+            }
+            for (var id: snapshot.deletedCamps()) {
+                superseded.add(id);
+                campController.deletedCampIDs.add(id);
+            }
+        }
+        if (chain.size() > 1) {
+            campController.camps.sort(Comparator.comparingInt(Camp::getID));
+        }
+        campController.loadBallots(chain.get(0));
+        return campController;
+    }
+
+    /**
+     * Reads the rest of a camp record and links its members.
+     * @param snapshot Snapshot holding the record
+     * @param cursor Cursor just after the ID of the camp
+     * @param id ID of the camp
+     * @param userController Controller loaded from the same snapshots
+     * @return The camp
+     */
+    private static Camp loadCamp(Snapshot snapshot, Snapshot.Cursor cursor, int id, UserController userController) {
+        var campName = cursor.nextString();
+        var region = new TimeRegion(cursor.nextDate(), cursor.nextDate());
+        var regCloseDate = cursor.nextDate();
+        var userGroup = cursor.nextString();
+        var location = cursor.nextString();
+        var totalSlots = cursor.nextInt();
+        var campCommitteeSlots = cursor.nextInt();
+        var description = cursor.nextString();
+        if (!(userController.getSnapshotUser(snapshot, cursor.nextUser()) instanceof Staff staff)) {
+            throw new RuntimeException("Camp owner is not a staff: " + campName);
+        }
+        var camp = new Camp(id, campName, region, regCloseDate, userGroup, location, totalSlots, campCommitteeSlots, description, staff, cursor.nextBoolean());
+        camp.restoreNextPostID(cursor.nextInt());
+        for (int j = cursor.nextInt(); j > 0; j--) {
+            camp.restoreAttendee(getSnapshotStudent(userController, snapshot, cursor.nextUser()));
+        }
+        for (int j = cursor.nextInt(); j > 0; j--) {
+            var committee = restoreCommittee(camp, getSnapshotStudent(userController, snapshot, cursor.nextUser()), userController);
+            committee.setPoints(cursor.nextInt());
+        }
+        for (int j = cursor.nextInt(); j > 0; j--) {
+            camp.restoreLeftAttendee(userController.getSnapshotUser(snapshot, cursor.nextUser()).getUserID());
+        }
+        for (int j = cursor.nextInt(); j > 0; j--) {
+            var enquiryID = cursor.nextInt();
+            var userID = cursor.nextString();
+            var enquiry = new Enquiry(cursor.nextString(), userID);
+            var answer = cursor.nextString();
+            if (answer != null) {
+                enquiry.reply(answer);
+            }
+            camp.restoreEnquiry(enquiryID, enquiry);
+        }
+        for (int j = cursor.nextInt(); j > 0; j--) {
+            var suggestionID = cursor.nextInt();
+            var userID = cursor.nextString();
+            camp.restoreSuggestion(suggestionID, new Suggestion(cursor.nextString(), userID));
+        }
+        if (snapshot.getVersion() >= 3) {
+            for (int j = cursor.nextInt(); j > 0; j--) {
+                camp.restoreWaiting(getSnapshotStudent(userController, snapshot, cursor.nextUser()));
+            }
+        }
+        return camp;
+    }
+
+    /**
+     * Applies a journal record to this controller. Records only set values, so applying one twice has no further effect.
+     * The camp of the record is marked as changed.
+     * @param values Values of the record, starting with its type
+     * @param userController Controller holding the users referred to by the record
+     */
+    public void replay(List<String> values, UserController userController) {
+        if (values.get(0).startsWith("ballot.")) {
+            replayBallot(values);
+            return;
+        }
+        if (values.get(0).equals("camp.create")) {
+            if (!campsByID.containsKey(Integer.parseInt(values.get(1)))) {
+                var camp = parseCamp(values, userController);
+                addCamp(camp);
+                changedCampIDs.add(camp.getID());
+            }
+            return;
+        }
+        var camp = campsByID.get(Integer.parseInt(values.get(1)));
+        if (camp == null) {
+            return; // Deleted later in the journal, and already deleted in the snapshot.
+        }
+        changedCampIDs.add(camp.getID());
+        switch (values.get(0)) {
+            case "camp.delete" -> {
+                removeCamp(camp, userController);
+                changedCampIDs.remove(camp.getID());
+                deletedCampIDs.add(camp.getID());
+            }
+            case "camp.attendee" -> camp.restoreAttendee(getStudent(userController, values.get(2)));
+            case "camp.committee" -> camp.restoreCommittee(getStudent(userController, values.get(2)));
+            case "camp.withdraw" -> camp.restoreWithdrawal(getStudent(userController, values.get(2)));
+            case "camp.enrol" -> {
+                int attendees = Integer.parseInt(values.get(2));
+                for (int i = 3; i < values.size(); i++) {
+                    var student = getStudent(userController, values.get(i));
+                    if (i < 3 + attendees) {
+                        camp.restoreAttendee(student);
+                    } else {
+                        camp.restoreCommittee(student);
+                    }
+                }
+            }
+            case "camp.wait" -> camp.restoreWaiting(getStudent(userController, values.get(2)));
+            case "camp.unwait" -> camp.restoreLeftWaitlist(getStudent(userController, values.get(2)));
+            case "camp.promote" -> {
+                int promoted = Integer.parseInt(values.get(2));
+                for (int i = 3; i < values.size(); i++) {
+                    var student = getStudent(userController, values.get(i));
+                    if (i < 3 + promoted) {
+                        camp.restoreAttendee(student);
+                    } else {
+                        camp.restoreLeftWaitlist(student);
+                    }
+                }
+            }
+            case "camp.visible" -> camp.setVisibility(Boolean.parseBoolean(values.get(2)));
+            case "camp.enquiry" -> camp.restoreEnquiry(Integer.parseInt(values.get(2)), new Enquiry(values.get(4), values.get(3)));
+            case "camp.enquiry.edit", "camp.enquiry.reply", "camp.enquiry.delete" -> {
+                var enquiry = camp.findEnquiry(Integer.parseInt(values.get(2)));
+                if (enquiry != null) {
+                    switch (values.get(0)) {
+                        case "camp.enquiry.edit" -> enquiry.edit(values.get(3));
+                        case "camp.enquiry.reply" -> enquiry.reply(values.get(3));
+                        default -> camp.deleteEnquiries(enquiry);
+                    }
+                }
+            }
+            case "camp.suggestion" -> camp.restoreSuggestion(Integer.parseInt(values.get(2)), new Suggestion(values.get(4), values.get(3)));
+            case "camp.suggestion.edit", "camp.suggestion.delete" -> {
+                var suggestion = camp.findSuggestion(Integer.parseInt(values.get(2)));
+                if (suggestion != null) {
+                    if (values.get(0).equals("camp.suggestion.edit")) {
+                        suggestion.edit(values.get(3));
+                    } else {
+                        camp.deleteSuggestion(suggestion);
+                    }
+                }
+            }
+            case "camp.set" -> {
+                var value = values.get(3);
+                switch (values.get(2)) {
+                    case "campName" -> camp.setCampName(value);
+                    case "region" -> camp.setRegion(new TimeRegion(LocalDate.parse(value), LocalDate.parse(values.get(4))));
+                    case "regCloseDate" -> camp.setRegCloseDate(LocalDate.parse(value));
+                    case "userGroup" -> camp.setUserGroup(value);
+                    case "location" -> camp.setLocation(value);
+                    case "totalSlots" -> camp.restoreTotalSlots(Integer.parseInt(value));
+                    case "campCommitteeSlots" -> camp.setCampCommSlots(Integer.parseInt(value));
+                    case "description" -> camp.setDescription(value);
+                    default -> throw new RuntimeException("Malformed camp detail: " + values.get(2));
+                }
+            }
+            default -> throw new RuntimeException("Malformed journal record: " + values.get(0));
+        }
+    }
+
+    /**
+     * Creates a camp from the values of a camp line or a {@code camp.create} record.
+     * @param values Values of the line
+     * @param userController Controller holding the staff in-charge
+     * @return The camp, without members
+     */
+    private static Camp parseCamp(List<String> values, UserController userController) {
+        if (values.size() != 13) {
+            throw new RuntimeException("Malformed camp, Length: " + values.size());
+        }
+        if (!(userController.getUser(values.get(11)) instanceof Staff staff)) {
+            throw new RuntimeException("Camp owner is not a staff: " + values.get(11));
+        }
+        return new Camp(Integer.parseInt(values.get(1)), values.get(2), new TimeRegion(LocalDate.parse(values.get(3)), LocalDate.parse(values.get(4))),
+                LocalDate.parse(values.get(5)), values.get(6), values.get(7), Integer.parseInt(values.get(8)),
+                Integer.parseInt(values.get(9)), values.get(10), staff, Boolean.parseBoolean(values.get(12)));
+    }
+
+    /**
+     * Adds a committee member to a camp while loading, converting the student if not converted yet.
+     * @param camp Camp being loaded
+     * @param student Student which was saved as a committee member
+     * @param userController Controller holding the student
+     * @return The committee member
+     */
+    private static StudentCommittee restoreCommittee(Camp camp, Student student, UserController userController) {
+        var committee = student instanceof StudentCommittee studentCommittee
+                ? studentCommittee
+                : userController.convertTo(student, camp);
+        camp.restoreCommittee(committee);
+        return committee;
+    }
+
+    /**
+     * Used while loading, to reject member lines which appear before any camp.
+     * @param camp Camp currently being loaded
+     * @return The same camp
+     */
+    private static Camp requireCamp(Camp camp) {
+        if (camp == null) {
+            throw new RuntimeException("Malformed input, member listed before camp!");
+        }
+        return camp;
+    }
+
+    /**
+     * Used while loading, to look up a student member.
+     * @param userController Controller holding the users
+     * @param userId User Identification String of the member
+     * @return The student
+     */
+    private static Student getStudent(UserController userController, String userId) {
+        if (!(userController.getUser(userId) instanceof Student student)) {
+            throw new RuntimeException("Camp member is not a student: " + userId);
+        }
+        return student;
+    }
+
+    /**
+     * Used while loading a snapshot, to look up a student member by its record.
+     * @param userController Controller loaded from the snapshot
+     * @param snapshot Snapshot holding the record
+     * @param index Index of the member's record
+     * @return The student
+     */
+    private static Student getSnapshotStudent(UserController userController, Snapshot snapshot, int index) {
+        var user = userController.getSnapshotUser(snapshot, index);
+        if (!(user instanceof Student student)) {
+            throw new RuntimeException("Camp member is not a student: " + user.getUserID());
+        }
+        return student;
+    }
+
+    /**
+     * Adds a camp to the list and the ID index.
+     * @param camp Camp to be added
+     */
+    private void addCamp(Camp camp) {
+        lock.writeLock().lock();
+        try {
+            camps.add(camp);
+            campsByID.put(camp.getID(), camp);
+            campsByRegion.add(camp, camp.getRegion());
+            catalog.put(camp.getCatalogKey(), camp);
+            camp.setController(this);
+            audienceChanged();
+            nextCampID = Math.max(nextCampID, camp.getID() + 1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Re-index a camp whose duration changed, called by {@link Camp#setRegion(TimeRegion)}.
+     * @param camp Camp which changed
+     */
+    void regionChanged(Camp camp) {
+        lock.writeLock().lock();
+        try {
+            campsByRegion.add(camp, camp.getRegion());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Move a renamed camp within the catalog, called by {@link Camp#setCampName(String)}.
+     * @param camp Camp which changed
+     * @param oldKey Catalog key of its previous name
+     */
+    void nameChanged(Camp camp, CatalogKey oldKey) {
+        lock.writeLock().lock();
+        try {
+            catalog.remove(oldKey);
+            catalog.put(camp.getCatalogKey(), camp);
+            audienceChanged();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drop the cached listings, called when camps are added, removed or renamed,
+     * and by {@link Camp} when its visibility or user group changes.
+     */
+    void audienceChanged() {
+        audienceViews = new AudienceViews();
+    }
+
+    /**
+     * Camps of the catalog which a user can view, shared by every user of the same audience.
+     * @param user User viewing the camps
+     * @return Unmodifiable list of camps, in catalog order
+     */
+    private List<Camp> audienceView(User user) {
+        var views = audienceViews;
+        if (user instanceof Staff) {
+            var view = views.staff;
+            if (view == null) {
+                view = List.copyOf(catalog.values());
+                views.staff = view;
+            }
+            return view;
+        }
+        return views.faculties.computeIfAbsent(user.getFaculty(),
+                faculty -> catalog.values().stream().filter(camp -> camp.isVisibleTo(faculty)).toList());
+    }
+
+    /**
+     * Removes a camp from the list and the ID index, unlinking its students.
+     * The camp is marked removed first, so that no registration adds a student after its members are read.
+     * @param camp Camp to be removed
+     * @param userController Controller holding the members of the camp
+     */
+    private void removeCamp(Camp camp, UserController userController) {
+        lock.writeLock().lock();
+        try {
+            camp.markRemoved();
+            var users = userController.getUsers(camp.getStudentNames());
+            for (var user: users) {
+                if (user instanceof Student student) {
+                    synchronized (student.getRegistrationLock()) {
+                        student.removeCamp(camp);
+                    }
+                }
+            }
+            for (var student: camp.getWaitlist()) {
+                synchronized (student.getRegistrationLock()) {
+                    student.leaveWaitlist(camp);
+                }
+            }
+            camps.remove(camp);
+            campsByID.remove(camp.getID());
+            campsByRegion.remove(camp);
+            catalog.remove(camp.getCatalogKey());
+            camp.setController(null);
+            audienceChanged();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Access a camp with its ID.
+     * @param id ID of the camp
+     * @return The camp
+     * @throws NoSuchElementException if there is no camp with the ID
+     */
+    public Camp getCamp(int id) throws NoSuchElementException {
+        Camp camp;
+        lock.readLock().lock();
+        try {
+            camp = campsByID.get(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (camp == null) {
+            throw new NoSuchElementException("No camp with ID " + id);
+        }
+        return camp;
+    }
+
+    /**
+     * Access a camp with its ID, if the user can view it.
+     * @param user User viewing the camp
+     * @param id ID of the camp
+     * @return The camp
+     * @throws NoSuchElementException if there is no camp with the ID that the user can view
+     */
+    public Camp getVisibleCamp(User user, int id) throws NoSuchElementException {
+        var camp = getCamp(id);
+        if (!camp.isVisible(user)) {
+            throw new NoSuchElementException("No camp with ID " + id);
+        }
+        return camp;
+    }
+
+    /**
+     * Register many students at once, such as a whole cohort for an orientation camp. The outcome of each request is
+     * filled into the request. Requests are refused for the same reasons as registering one by one, as well as for
+     * repeating an earlier request of the batch for the same student and camp. The requests for each camp are checked
+     * and applied together, holding the lock of the camp once, and camps are taken in the order of their first request.
+     * @param requests Requests to register students
+     * @param userController Controller holding the students
+     * @return Number of students registered
+     */
+    public int registerAll(List<Registration> requests, UserController userController) {
+        long start = System.nanoTime();
+        var byCamp = new LinkedHashMap<Camp, List<Registration>>();
+        var seen = new HashSet<Long>();
+        lock.readLock().lock();
+        try {
+            for (var request: requests) {
+                var camp = request.getCamp();
+                if (!seen.add((long) request.getStudent().getNumber() << 32 | camp.getID())) {
+                    refuse(request, "The student is already requested for this camp in the batch.");
+                } else if (campsByID.get(camp.getID()) != camp) {
+                    refuse(request, "No camp with ID " + camp.getID());
+                } else {
+                    byCamp.computeIfAbsent(camp, key -> new ArrayList<>()).add(request);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        try {
+            int registered = 0;
+            for (var entry: byCamp.entrySet()) {
+                registered += entry.getKey().registerAll(entry.getValue(), userController);
+            }
+            return registered;
+        } finally {
+            batches.recordSince(start);
+        }
+    }
+
+    /**
+     * Refuse a request of a batch before it reaches its camp.
+     * @param request Request refused
+     * @param message Why it was refused
+     */
+    private static void refuse(Registration request, String message) {
+        var event = new RegistrationEvent();
+        event.begin();
+        request.fail(message);
+        event.commit(request.getCamp().getID(), request.getCamp().getName(), request.getStudent().getUserID(),
+                request.getRole().name().toLowerCase(), message);
+    }
+
+    /**
+     * Open a ballot for some camps. Until it is allocated, students rank the camps of the ballot
+     * instead of registering for them or joining their waitlists.
+     * @param staff Staff in charge of the camps
+     * @param camps Camps of the ballot
+     * @param campsPerStudent Largest number of camps given to a student
+     * @return The ballot opened
+     * @throws CampControllerException if there are no camps, a camp is not in charge of the staff or already in a ballot,
+     * or the number of camps per student is not positive
+     */
+    public Ballot openBallot(Staff staff, List<Camp> camps, int campsPerStudent) throws CampControllerException {
+        if (camps.isEmpty()) {
+            throw new CampControllerException("A ballot needs at least one camp.");
+        }
+        if (campsPerStudent < 1) {
+            throw new CampControllerException("Each student must be able to get at least one camp.");
+        }
+        for (var camp: camps) {
+            if (!camp.isOwner(staff)) {
+                throw new CampControllerException("Not the owner of " + camp + ", you cannot ballot it.");
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            return openBallot(nextBallotID, camps, campsPerStudent, true);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Open a ballot saved by an earlier version with its ID, recording it in the journal.
+     * @param id ID of the ballot
+     * @param camps Camps of the ballot
+     * @param campsPerStudent Largest number of camps given to a student
+     * @return The ballot opened, null if a ballot with the ID was already opened
+     * @throws CampControllerException if a camp is already in a ballot or no longer in this controller
+     */
+    Ballot importBallot(int id, List<Camp> camps, int campsPerStudent) throws CampControllerException {
+        lock.writeLock().lock();
+        try {
+            return id < nextBallotID ? null : openBallot(id, camps, campsPerStudent, true);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Open a ballot with a given ID. Called while holding the write lock.
+     * It is recorded before its camps point at it, so that no choice submitted to it is recorded before it.
+     * @param id ID of the ballot
+     * @param camps Camps of the ballot
+     * @param campsPerStudent Largest number of camps given to a student
+     * @param record Whether to record it in the journal, false when it is loaded or replayed
+     * @return The ballot opened
+     * @throws CampControllerException if a camp is already in a ballot or no longer in this controller
+     */
+    private Ballot openBallot(int id, List<Camp> camps, int campsPerStudent, boolean record) throws CampControllerException {
+        for (var camp: camps) {
+            if (campsByID.get(camp.getID()) != camp) {
+                throw new CampControllerException("No camp with ID " + camp.getID());
+            }
+            if (camp.getBallot() != null) {
+                throw new CampControllerException(camp + " is already in a ballot.");
+            }
+        }
+        var ballot = new Ballot(id, camps, campsPerStudent);
+        if (record) {
+            Camp.record("ballot.open", ballot.openValues());
+        }
+        for (var camp: camps) {
+            camp.setBallot(ballot);
+        }
+        ballots.add(ballot);
+        nextBallotID = Math.max(nextBallotID, id + 1);
+        return ballot;
+    }
+
+    /**
+     * Find an open ballot by its ID. Called while holding the lock.
+     * @param id ID of the ballot
+     * @return The ballot, null if no open ballot has the ID
+     */
+    private Ballot findBallot(int id) {
+        for (var ballot: ballots) {
+            if (ballot.getID() == id) {
+                return ballot;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Applies a journal record of a ballot. A ballot opened again after it was closed, as known from its ID being
+     * lower than the next one, is left closed, so applying a record twice has no further effect.
+     * @param values Values of the record, starting with its type
+     */
+    private void replayBallot(List<String> values) {
+        int id = Integer.parseInt(values.get(1));
+        lock.writeLock().lock();
+        try {
+            switch (values.get(0)) {
+                case "ballot.open" -> {
+                    if (id < nextBallotID) {
+                        return;
+                    }
+                    var ballotCamps = new ArrayList<Camp>();
+                    for (int i = 3; i < values.size(); i++) {
+                        var camp = campsByID.get(Integer.parseInt(values.get(i)));
+                        if (camp != null) {
+                            ballotCamps.add(camp);
+                        }
+                    }
+                    nextBallotID = id + 1;
+                    if (!ballotCamps.isEmpty()) {
+                        openBallot(id, ballotCamps, Integer.parseInt(values.get(2)), false);
+                    }
+                }
+                case "ballot.submit" -> {
+                    var ballot = findBallot(id);
+                    if (ballot == null) {
+                        return;
+                    }
+                    var ranked = new ArrayList<Ballot.Choice>();
+                    for (int i = 3; i < values.size(); i += 2) {
+                        var camp = campsByID.get(Integer.parseInt(values.get(i)));
+                        if (camp != null && ballot.getCamps().contains(camp)) {
+                            ranked.add(new Ballot.Choice(camp, Registration.Role.valueOf(values.get(i + 1))));
+                        }
+                    }
+                    ballot.restoreChoices(values.get(2), ranked);
+                }
+                case "ballot.close" -> {
+                    var ballot = findBallot(id);
+                    if (ballot != null) {
+                        closeBallot(ballot);
+                    }
+                }
+                default -> throw new RuntimeException("Malformed journal record: " + values.get(0));
+            }
+        } catch (CampControllerException e) {
+            throw new RuntimeException("Malformed journal record, " + e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Take a ballot off the list and let its camps be registered for one by one again. Called while holding the write lock.
+     * @param ballot Ballot to close
+     */
+    private void closeBallot(Ballot ballot) {
+        ballots.remove(ballot);
+        ballot.close();
+        for (var camp: ballot.getCamps()) {
+            camp.setBallot(null);
+        }
+    }
+
+    /**
+     * Number of camps, for monitoring.
+     * @return Number of camps
+     */
+    public int getCampCount() {
+        lock.readLock().lock();
+        try {
+            return camps.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ballots taking choices.
+     * @return Copy of the list of ballots
+     */
+    public List<Ballot> getBallots() {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(ballots);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Close a ballot and give out the seats of its camps by lottery, registering the students drawn with
+     * {@link #registerAll(List, UserController)}, after which its camps are registered for one by one again.
+     * The same seed over the same choices and camps draws the same students.
+     * The ballot is recorded as closed once the registrations are, so that a crash in between leaves it open.
+     * @param staff Staff in charge of the camps of the ballot
+     * @param ballot Ballot to allocate
+     * @param seed Seed of the random order of students
+     * @param userController Controller holding the students
+     * @return Every registration made, with its outcome
+     * @throws CampControllerException if the staff is not in charge of every camp of the ballot, or the ballot is not open
+     */
+    public List<Registration> allocate(Staff staff, Ballot ballot, long seed, UserController userController) throws CampControllerException {
+        for (var camp: ballot.getCamps()) {
+            if (!camp.isOwner(staff)) {
+                throw new CampControllerException("Not the owner of " + camp + ", you cannot allocate its ballot.");
+            }
+        }
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            if (!ballots.remove(ballot)) {
+                throw new CampControllerException("The ballot is not open.");
+            }
+            ballot.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            return ballot.draw(seed, userController, pass -> registerAll(pass, userController));
+        } finally {
+            for (var camp: ballot.getCamps()) {
+                camp.setBallot(null);
+            }
+            Camp.record("ballot.close", String.valueOf(ballot.getID()));
+            allocations.recordSince(start);
+        }
+    }
+
     /**
      * Filter the Camp using date.
      * @param timeRegion Date range (From Date to Date).
@@ -29,7 +1001,30 @@ public class CampController
     public static Filter DateFilter(TimeRegion timeRegion)
     {
 
-        return (Camp camp) -> timeRegion.fullyCover(camp.getRegion());
+        return new DateRangeFilter(timeRegion);
+    }
+
+    /**
+     * Filter by date range, recognised by {@link #getVisibleCamps(User, List)} so that it can use the date index.
+     */
+    private static final class DateRangeFilter implements Filter {
+        /**
+         * Date range which camps must lie inside.
+         */
+        private final TimeRegion timeRegion;
+
+        /**
+         * Constructor
+         * @param timeRegion Date range (From Date to Date).
+         */
+        DateRangeFilter(TimeRegion timeRegion) {
+            this.timeRegion = timeRegion;
+        }
+
+        @Override
+        public boolean accept(Camp camp) {
+            return timeRegion.fullyCover(camp.getRegion());
+        }
     }
     
     /**
@@ -65,18 +1060,59 @@ public class CampController
     }
 
     /**
-     *  Returns list of camps that can be viewed by user with a filter.
+     *  Returns list of camps that can be viewed by user with a filter, sorted by name.
+     *  Without filters this is the listing shared by the user's audience, which must not be modified.
+     *  Camps are taken from the sorted catalog, or from the date index when filtering by date.
      * @param user User object.
      * @param filters Filter selected by the users.
      * @return The list of camps that can be viewed by user with a filter.
      */
     public List<Camp> getVisibleCamps(User user, List<Filter> filters)
     {
-        var visibleCamps = camps.stream().filter(camp -> camp.isVisible(user));
+        var event = new CampListingEvent();
+        event.begin();
+        long start = System.nanoTime();
+        List<Camp> visibleCamps = null;
+        try {
+            visibleCamps = listVisibleCamps(user, filters);
+            return visibleCamps;
+        } finally {
+            listings.recordSince(start);
+            event.commit(user.getUserID(), filters.size(), visibleCamps == null ? 0 : visibleCamps.size());
+        }
+    }
+
+    /**
+     * Camps that can be viewed by user with a filter, as returned by {@link #getVisibleCamps(User, List)}.
+     * @param user User object.
+     * @param filters Filter selected by the users.
+     * @return The list of camps that can be viewed by user with a filter.
+     */
+    private List<Camp> listVisibleCamps(User user, List<Filter> filters)
+    {
+        Collection<Camp> candidates;
+        lock.readLock().lock();
+        try {
+            if (filters.isEmpty()) {
+                return audienceView(user);
+            }
+            candidates = audienceView(user);
+            for (Filter filter: filters) {
+                if (filter instanceof DateRangeFilter dateFilter) {
+                    var inRange = campsByRegion.within(dateFilter.timeRegion);
+                    inRange.removeIf(camp -> !camp.isVisible(user));
+                    inRange.sort(Comparator.comparing(Camp::getCatalogKey));
+                    candidates = inRange;
+                    break;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        var visibleCamps = candidates.stream();
         for (Filter filter: filters)
             visibleCamps = visibleCamps.filter(filter::accept);
 
-        visibleCamps = visibleCamps.sorted((o1, o2) -> o1.getName().compareToIgnoreCase(o2.getName()));
         return visibleCamps.collect(Collectors.toList());
     }
     
@@ -87,8 +1123,148 @@ public class CampController
      */
     public List<Camp> getInChargeCamps(Staff staff)
     {
-        return camps.stream().filter(camp -> camp.isInCharge(staff)).collect(Collectors.toList());
+        lock.readLock().lock();
+        try {
+            return camps.stream().filter(camp -> camp.isInCharge(staff)).collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
     }
+    /**
+     * Returns list of camps open to a user group.
+     * @param userGroup NTU or a faculty.
+     * @return The list of camps open to the user group.
+     */
+    public List<Camp> getUserGroupCamps(String userGroup)
+    {
+        lock.readLock().lock();
+        try {
+            return camps.stream().filter(camp -> camp.isInUserGroup(userGroup)).collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Which members of a camp are counted by the analytics methods.
+     */
+    public enum Membership {
+        /**
+         * Camp attendees and camp committee members.
+         */
+        STUDENTS,
+        /**
+         * Camp committee members only.
+         */
+        COMMITTEES
+    }
+
+    /**
+     * Students who are members of any of the camps.
+     * @param camps Camps to look at.
+     * @param membership Which members of each camp.
+     * @return Bitmap of the students' numbers in the UserDictionary.
+     */
+    public static RoaringBitmap union(Collection<Camp> camps, Membership membership)
+    {
+        var result = new RoaringBitmap();
+        for (var camp: camps) {
+            synchronized (camp) {
+                result.or(camp.getMemberBits(membership));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Students who are members of every one of the camps. Starts from the smallest camp and stops once no student is left.
+     * @param camps Camps to look at.
+     * @param membership Which members of each camp.
+     * @return Bitmap of the students' numbers in the UserDictionary, empty if there are no camps.
+     */
+    public static RoaringBitmap intersection(Collection<Camp> camps, Membership membership)
+    {
+        var smallest = camps.stream().min(Comparator.comparingInt(camp -> camp.countMembers(membership)));
+        if (smallest.isEmpty()) {
+            return new RoaringBitmap();
+        }
+        RoaringBitmap result;
+        synchronized (smallest.get()) {
+            result = smallest.get().getMemberBits(membership);
+        }
+        for (var camp: camps) {
+            if (result.isEmpty()) {
+                break;
+            }
+            synchronized (camp) {
+                result.and(camp.getMemberBits(membership));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Students who are members of at least some number of the camps, such as students attending more than one camp.
+     * Keeps one bitmap for each count up to the threshold, so the cost grows with the threshold times the number of camps.
+     * @param camps Camps to look at.
+     * @param count Number of camps a student must be a member of, at least 1.
+     * @param membership Which members of each camp.
+     * @return Bitmap of the students' numbers in the UserDictionary.
+     */
+    public static RoaringBitmap inAtLeast(Collection<Camp> camps, int count, Membership membership)
+    {
+        if (count < 1) {
+            throw new IllegalArgumentException("Count must be at least 1: " + count);
+        }
+        // atLeast[i] holds the students seen in more than i of the camps so far.
+        var atLeast = new RoaringBitmap[count];
+        for (int i = 0; i < count; i++) {
+            atLeast[i] = new RoaringBitmap();
+        }
+        for (var camp: camps) {
+            synchronized (camp) {
+                var members = camp.getMemberBits(membership);
+                for (int i = count - 1; i > 0; i--) {
+                    if (!atLeast[i - 1].isEmpty()) {
+                        atLeast[i].or(RoaringBitmap.and(members, atLeast[i - 1]));
+                    }
+                }
+                atLeast[0].or(members);
+            }
+        }
+        return atLeast[count - 1];
+    }
+
+    /**
+     * Count the students who are members of both camps, without building the overlap.
+     * @param first First camp.
+     * @param second Second camp.
+     * @param membership Which members of each camp.
+     * @return Number of students in both camps.
+     */
+    public static int countOverlap(Camp first, Camp second, Membership membership)
+    {
+        RoaringBitmap firstMembers;
+        synchronized (first) {
+            firstMembers = first.getMemberBits(membership); // Never hold two camp locks at once.
+        }
+        synchronized (second) {
+            return RoaringBitmap.andCardinality(firstMembers, second.getMemberBits(membership));
+        }
+    }
+
+    /**
+     * IDs of the students in a bitmap returned by the analytics methods.
+     * @param students Bitmap of the students' numbers in the UserDictionary.
+     * @return IDs of the students.
+     */
+    public static List<String> getUserIDs(RoaringBitmap students)
+    {
+        var userIDs = new ArrayList<String>(students.cardinality());
+        students.forEach(number -> userIDs.add(UserDictionary.decode(number)));
+        return userIDs;
+    }
+
     /**
      * creates a camp
      * @param staff Staff object.
@@ -104,9 +1280,18 @@ public class CampController
      */
     public Camp createCamp(Staff staff, String campName, TimeRegion region, LocalDate regCloseDate, String userGroup, String location, int totalSlots, int campCommitteeSlot, String description)
     {
-        Camp newCamp = new Camp(campName, region, regCloseDate, userGroup, location, totalSlots, campCommitteeSlot, description, staff, true);
-        camps.add(newCamp);
-        return newCamp;
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            // Recorded before any session can see the camp, so its creation comes before anything done to it.
+            Camp newCamp = new Camp(nextCampID, campName, region, regCloseDate, userGroup, location, totalSlots, campCommitteeSlot, description, staff, true);
+            addCamp(newCamp);
+            Camp.record("camp.create", newCamp.fields());
+            return newCamp;
+        } finally {
+            lock.writeLock().unlock();
+            creations.recordSince(start);
+        }
     }
     
     /**
@@ -121,12 +1306,14 @@ public class CampController
         if (!camp.isOwner(staff)) {
             throw new CampControllerException("Not the owner you cannot remove it.");
         }
-        var users = userController.getUsers(camp.getStudentNames());
-        for (var user: users) {
-            if (user instanceof Student student) {
-                student.removeCamp(camp);
-            }
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            removeCamp(camp, userController);
+            Camp.record("camp.delete", String.valueOf(camp.getID()));
+        } finally {
+            lock.writeLock().unlock();
+            deletions.recordSince(start);
         }
-        camps.remove(camp);
     }
 }
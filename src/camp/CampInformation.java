@@ -45,13 +45,14 @@ public final class CampInformation
     
     /**
      * Number of total slots for the camp (Camp attendee + Camp committee slots).
+     * Volatile, as it is read by registrations running concurrently with changes.
      */
-    private int totalSlots;
+    private volatile int totalSlots;
     
     /**
-     * Number of camp committee slots for the camp.
+     * Number of camp committee slots for the camp, volatile like the total slots.
      */
-    private int campCommitteeSlots;
+    private volatile int campCommitteeSlots;
     
     /**
      * Description of the camp.
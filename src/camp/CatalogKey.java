@@ -0,0 +1,45 @@
+package camp;
+
+/**
+ * Position of a Camp in the catalog, ordered by name ignoring case and then by ID.
+ * The case folded name is computed once, so comparing keys does not fold the names again.
+ */
+final class CatalogKey implements Comparable<CatalogKey> {
+    /**
+     * Name of the Camp, folded the same way as {@link String#compareToIgnoreCase(String)} folds each character.
+     */
+    private final String folded;
+
+    /**
+     * ID of the Camp, orders camps with the same name in the order they were created.
+     */
+    private final int id;
+
+    /**
+     * Constructor
+     * @param name Name of the Camp.
+     * @param id ID of the Camp.
+     */
+    CatalogKey(String name, int id) {
+        var builder = new StringBuilder(name.length());
+        name.codePoints().forEach(c -> builder.appendCodePoint(Character.toLowerCase(Character.toUpperCase(c))));
+        this.folded = builder.toString();
+        this.id = id;
+    }
+
+    @Override
+    public int compareTo(CatalogKey other) {
+        int cmp = folded.compareTo(other.folded);
+        return cmp != 0 ? cmp : Integer.compare(id, other.id);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof CatalogKey other && id == other.id && folded.equals(other.folded);
+    }
+
+    @Override
+    public int hashCode() {
+        return folded.hashCode() * 31 + id;
+    }
+}
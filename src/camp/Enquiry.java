@@ -1,9 +1,21 @@
 package camp;
+
+import metrics.EnquiryReplyEvent;
+import user.UserDictionary;
+
 /**
  * Attendees to submit enquiry
  * Student Committee Members and Staff to reply to enquiries
  */
 public final class Enquiry {
+    /**
+     * ID of the camp this enquiry was sent to, -1 until it is added to a camp
+     */
+    private int campID = -1;
+    /**
+     * ID of this enquiry within its camp
+     */
+    private int id = -1;
 	/*
 	 * Enquiry message
 	 */
@@ -13,9 +25,9 @@ public final class Enquiry {
      */
     private String answer;
     /**
-     * Enquiry User's ID
+     * Number of the Enquiry User's ID in the UserDictionary
      */
-    private final String userID;
+    private final int author;
     /**
      * Constructor for Enquiry
      * @param message message in for enquiry
@@ -24,7 +36,7 @@ public final class Enquiry {
     public Enquiry(String message, String userID) {
         this.message = message;
         this.answer = null;
-        this.userID = userID;
+        this.author = UserDictionary.encode(userID);
     }
     /**
      * edit message
@@ -32,12 +44,23 @@ public final class Enquiry {
      */
     public void edit(String message) {
         this.message = message;
+        if (campID >= 0) {
+            Camp.record("camp.enquiry.edit", String.valueOf(campID), String.valueOf(id), message);
+        }
     }
     /**
      * reply to message
      * @param message message to reply with
      */
-    public void reply(String message) { answer = message; }
+    public void reply(String message) {
+        var event = new EnquiryReplyEvent();
+        event.begin();
+        answer = message;
+        if (campID >= 0) {
+            Camp.record("camp.enquiry.reply", String.valueOf(campID), String.valueOf(id), message);
+            event.commit(campID, id, getUserID(), message.length());
+        }
+    }
     /**
      * check if enquiry has been answered
      * @return 1 or 0
@@ -50,7 +73,44 @@ public final class Enquiry {
      * @return userID
      */
     public String getUserID() {
-        return userID;
+        return UserDictionary.decode(author);
+    }
+    /**
+     * get number of the user ID of user that submitted enquiry
+     * @return author
+     */
+    int getAuthor() {
+        return author;
+    }
+    /**
+     * get ID of this enquiry within its camp
+     * @return id
+     */
+    public int getID() {
+        return id;
+    }
+    /**
+     * attach to the camp it was added to
+     * @param campID ID of the camp
+     * @param id ID within the camp
+     */
+    void attach(int campID, int id) {
+        this.campID = campID;
+        this.id = id;
+    }
+    /**
+     * get enquiry message
+     * @return message
+     */
+    public String getMessage() {
+        return message;
+    }
+    /**
+     * get reply to enquiry
+     * @return answer, null if not yet answered
+     */
+    public String getAnswer() {
+        return answer;
     }
 
     @Override
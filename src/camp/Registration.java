@@ -0,0 +1,123 @@
+package camp;
+
+import user.Student;
+
+/**
+ * Request to register a student for a camp, one row of a batch given to
+ * {@link CampController#registerAll(java.util.List, user.UserController)}, which fills in its outcome.
+ */
+public final class Registration {
+    /**
+     * Role the student registers for.
+     */
+    public enum Role {
+        /**
+         * Normal camp attendee
+         */
+        ATTENDEE,
+        /**
+         * Camp committee member
+         */
+        COMMITTEE
+    }
+
+    /**
+     * Student to register.
+     */
+    private final Student student;
+
+    /**
+     * Camp to register for.
+     */
+    private final Camp camp;
+
+    /**
+     * Role to register for.
+     */
+    private final Role role;
+
+    /**
+     * Whether the batch has processed this request.
+     */
+    private boolean done = false;
+
+    /**
+     * Why the student was not registered, null if registered or not processed yet.
+     */
+    private String failure;
+
+    /**
+     * Constructor
+     * @param student Student to register
+     * @param camp Camp to register for
+     * @param role Role to register for
+     */
+    public Registration(Student student, Camp camp, Role role) {
+        this.student = student;
+        this.camp = camp;
+        this.role = role;
+    }
+
+    /**
+     * Getter
+     * @return Student to register
+     */
+    public Student getStudent() {
+        return student;
+    }
+
+    /**
+     * Getter
+     * @return Camp to register for
+     */
+    public Camp getCamp() {
+        return camp;
+    }
+
+    /**
+     * Getter
+     * @return Role to register for
+     */
+    public Role getRole() {
+        return role;
+    }
+
+    /**
+     * Whether the student was registered.
+     * @return True if registered, false if refused or not processed yet
+     */
+    public boolean isRegistered() {
+        return done && failure == null;
+    }
+
+    /**
+     * Why the student was not registered.
+     * @return Message of the failure, null if registered or not processed yet
+     */
+    public String getFailure() {
+        return failure;
+    }
+
+    /**
+     * Record that the student was registered.
+     */
+    void succeed() {
+        done = true;
+        failure = null;
+    }
+
+    /**
+     * Record why the student was not registered.
+     * @param message Message of the failure
+     */
+    void fail(String message) {
+        done = true;
+        failure = message;
+    }
+
+    @Override
+    public String toString() {
+        return student.getUserID() + " " + role.name().toLowerCase() + " of " + camp
+                + (!done ? "" : failure == null ? ": registered" : ": " + failure);
+    }
+}
@@ -1,17 +1,28 @@
 package camp;
+
+import user.UserDictionary;
+
 /**
  * Student Committee to send suggestion
  * Staff to reply to suggestion
  */
 public final class Suggestion {
+    /**
+     * ID of the camp this suggestion was sent to, -1 until it is added to a camp
+     */
+    private int campID = -1;
+    /**
+     * ID of this suggestion within its camp
+     */
+    private int id = -1;
     /**
      * content of suggestion
      */
 	private String text;
 	/*
-	 * userID of user who sent suggestion
+	 * number of the userID of user who sent suggestion in the UserDictionary
 	 */
-    private final String userID;
+    private final int author;
     /**
      * Constructor for Suggestion
      * @param text Suggestion content
@@ -19,7 +30,7 @@ public final class Suggestion {
      */
     public Suggestion(String text, String userID) {
         this.text = text;
-        this.userID = userID;
+        this.author = UserDictionary.encode(userID);
     }
     /**
      * edit suggestion
@@ -27,13 +38,46 @@ public final class Suggestion {
      */
     public void edit(String newText) {
         text = newText;
+        if (campID >= 0) {
+            Camp.record("camp.suggestion.edit", String.valueOf(campID), String.valueOf(id), newText);
+        }
     }
     /**
      * return userID
      * @return userID
      */
     public String getUserID() {
-        return userID;
+        return UserDictionary.decode(author);
+    }
+    /**
+     * return number of the userID
+     * @return author
+     */
+    int getAuthor() {
+        return author;
+    }
+    /**
+     * get ID of this suggestion within its camp
+     * @return id
+     */
+    public int getID() {
+        return id;
+    }
+    /**
+     * attach to the camp it was added to
+     * @param campID ID of the camp
+     * @param id ID within the camp
+     */
+    void attach(int campID, int id) {
+        this.campID = campID;
+        this.id = id;
+    }
+    /**
+     * return content of suggestion
+     * @return text
+     */
+    public String getText() {
+        return text;
     }
 
     @Override
@@ -0,0 +1,49 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for listing the camps a user can view.
+ */
+@Name("cams.CampListing")
+@Label("Camp Listing")
+@Category({"CAMs", "Camps"})
+@Description("Camps listed for a user, with the filters of the user applied.")
+public final class CampListingEvent extends Event {
+    /**
+     * User the camps were listed for.
+     */
+    @Label("User ID")
+    private String userID;
+
+    /**
+     * Number of filters applied.
+     */
+    @Label("Filters")
+    private int filterCount;
+
+    /**
+     * Number of camps listed.
+     */
+    @Label("Camps")
+    private int resultSize;
+
+    /**
+     * Commit the event with its outcome, if it is recorded.
+     * @param userID User the camps were listed for
+     * @param filterCount Number of filters applied
+     * @param resultSize Number of camps listed, 0 if the listing failed
+     */
+    public void commit(String userID, int filterCount, int resultSize) {
+        if (shouldCommit()) {
+            this.userID = userID;
+            this.filterCount = filterCount;
+            this.resultSize = resultSize;
+            commit();
+        }
+    }
+}
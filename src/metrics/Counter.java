@@ -0,0 +1,43 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Count of events, such as refused registrations. Incremented without locking, and spread over cells
+ * so that threads counting at once do not contend.
+ */
+public final class Counter {
+    /**
+     * Count so far.
+     */
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * Constructor, used by {@link Metrics#counter(String)}.
+     */
+    Counter() {
+    }
+
+    /**
+     * Count one event.
+     */
+    public void increment() {
+        count.increment();
+    }
+
+    /**
+     * Count some events.
+     * @param events Number of events
+     */
+    public void add(long events) {
+        count.add(events);
+    }
+
+    /**
+     * Getter
+     * @return Count so far
+     */
+    public long get() {
+        return count.sum();
+    }
+}
@@ -0,0 +1,57 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for a reply to an enquiry sent to a camp.
+ */
+@Name("cams.EnquiryReply")
+@Label("Enquiry Reply")
+@Category({"CAMs", "Camps"})
+@Description("A reply to an enquiry, by the staff in charge or a committee member.")
+public final class EnquiryReplyEvent extends Event {
+    /**
+     * ID of the camp the enquiry was sent to.
+     */
+    @Label("Camp ID")
+    private int campID;
+
+    /**
+     * ID of the enquiry within its camp.
+     */
+    @Label("Enquiry ID")
+    private int enquiryID;
+
+    /**
+     * Student who sent the enquiry.
+     */
+    @Label("Author")
+    private String author;
+
+    /**
+     * Length of the reply in characters.
+     */
+    @Label("Reply Length")
+    private int replyLength;
+
+    /**
+     * Commit the event, if it is recorded.
+     * @param campID ID of the camp the enquiry was sent to
+     * @param enquiryID ID of the enquiry within its camp
+     * @param author Student who sent the enquiry
+     * @param replyLength Length of the reply in characters
+     */
+    public void commit(int campID, int enquiryID, String author, int replyLength) {
+        if (shouldCommit()) {
+            this.campID = campID;
+            this.enquiryID = enquiryID;
+            this.author = author;
+            this.replyLength = replyLength;
+            commit();
+        }
+    }
+}
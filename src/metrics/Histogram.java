@@ -0,0 +1,205 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies of an operation, in nanoseconds, recorded without locking into a fixed set of buckets.
+ * As in HdrHistogram, values below {@value #SUB_BUCKETS} each have a bucket, and every power of two above is split
+ * into {@value #SUB_BUCKETS} buckets of equal width, so a value is known to within 1% whatever its size.
+ * Values from about 18 minutes up share the last bucket. Takes about 35 KB whatever the number of values.
+ */
+public final class Histogram {
+    /**
+     * Bits of each value kept exactly.
+     */
+    private static final int SUB_BUCKET_BITS = 7;
+
+    /**
+     * Buckets each power of two is split into.
+     */
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * Largest power of two told apart, values from 2^40 nanoseconds share the last bucket.
+     */
+    private static final int MAX_MAGNITUDE = 39;
+
+    /**
+     * Number of buckets.
+     */
+    private static final int BUCKETS = SUB_BUCKETS + (MAX_MAGNITUDE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    /**
+     * Number of values in each bucket.
+     */
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    /**
+     * Sum of the values.
+     */
+    private final LongAdder sum = new LongAdder();
+
+    /**
+     * Largest value.
+     */
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Constructor, used by {@link Metrics#histogram(String)}.
+     */
+    Histogram() {
+    }
+
+    /**
+     * Record a latency.
+     * @param nanos Latency in nanoseconds, negative values count as zero
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucket(value));
+        sum.add(value);
+        long largest = max.get();
+        while (value > largest && !max.compareAndSet(largest, value)) {
+            largest = max.get();
+        }
+    }
+
+    /**
+     * Record the time since a start, as read from {@link System#nanoTime()} before the operation.
+     * @param startNanos Start of the operation
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Bucket of a value.
+     * @param value Value, not negative
+     * @return Index of its bucket
+     */
+    private static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        if (magnitude > MAX_MAGNITUDE) {
+            return BUCKETS - 1;
+        }
+        int shift = magnitude - SUB_BUCKET_BITS;
+        return SUB_BUCKETS + shift * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+
+    /**
+     * Largest value of a bucket.
+     * @param bucket Index of the bucket
+     * @return Largest value that falls in it
+     */
+    private static long highestValue(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+        long lowest = (long) (SUB_BUCKETS + (bucket - SUB_BUCKETS) % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    /**
+     * Copy the values recorded so far. Values recorded while copying may be left out of some of its figures.
+     * @return Copy of the histogram
+     */
+    public Snapshot snapshot() {
+        var copy = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+        }
+        return new Snapshot(copy, sum.sum(), max.get());
+    }
+
+    /**
+     * Values of a histogram at one time.
+     */
+    public static final class Snapshot {
+        /**
+         * Number of values in each bucket.
+         */
+        private final long[] counts;
+
+        /**
+         * Number of values.
+         */
+        private final long count;
+
+        /**
+         * Sum of the values.
+         */
+        private final long sum;
+
+        /**
+         * Largest value.
+         */
+        private final long max;
+
+        /**
+         * Constructor
+         * @param counts Number of values in each bucket
+         * @param sum Sum of the values
+         * @param max Largest value
+         */
+        private Snapshot(long[] counts, long sum, long max) {
+            this.counts = counts;
+            long total = 0;
+            for (long bucketCount: counts) {
+                total += bucketCount;
+            }
+            this.count = total;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        /**
+         * Getter
+         * @return Number of values
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Getter
+         * @return Mean of the values in nanoseconds, 0 if there are none
+         */
+        public double getMean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        /**
+         * Getter
+         * @return Largest value in nanoseconds
+         */
+        public long getMax() {
+            return max;
+        }
+
+        /**
+         * Value below which a share of the values fall, to within 1%.
+         * @param quantile Share of the values, between 0 and 1, such as 0.99 for the 99th percentile
+         * @return Value in nanoseconds, 0 if there are no values
+         */
+        public long getValueAt(double quantile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(quantile * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(highestValue(i), max);
+                }
+            }
+            return max;
+        }
+    }
+}
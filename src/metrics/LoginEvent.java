@@ -0,0 +1,41 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for a login, begun before the user is looked up.
+ */
+@Name("cams.Login")
+@Label("Login")
+@Category({"CAMs", "Users"})
+@Description("A user logging in, including waiting for other sessions.")
+public final class LoginEvent extends Event {
+    /**
+     * User ID given.
+     */
+    @Label("User ID")
+    private String userID;
+
+    /**
+     * Whether the user ID and password matched.
+     */
+    @Label("Success")
+    private boolean success;
+
+    /**
+     * Commit the event with its outcome, if it is recorded.
+     * @param userID User ID given
+     * @param success Whether the user ID and password matched
+     */
+    public void commit(String userID, boolean success) {
+        if (shouldCommit()) {
+            this.userID = userID;
+            this.success = success;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package metrics;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Registry of the counters, gauges and latency histograms of the process, by name.
+ * Instrumented classes look their metrics up once, into static fields, so recording costs no lookup.
+ * Names are dotted, starting with the area measured, such as {@code camp.register}.
+ */
+public final class Metrics {
+    /**
+     * Counters by name.
+     */
+    private static final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Gauges by name, read when a snapshot is taken.
+     */
+    private static final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+    /**
+     * Histograms by name.
+     */
+    private static final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    /**
+     * Not meant to be instantiated.
+     */
+    private Metrics() {
+    }
+
+    /**
+     * Counter with a name, created the first time it is asked for.
+     * @param name Name of the counter
+     * @return The counter
+     */
+    public static Counter counter(String name) {
+        return counters.computeIfAbsent(name, key -> new Counter());
+    }
+
+    /**
+     * Register a gauge, replacing any with the same name.
+     * @param name Name of the gauge
+     * @param gauge Reads the current value
+     */
+    public static void gauge(String name, LongSupplier gauge) {
+        gauges.put(name, gauge);
+    }
+
+    /**
+     * Latency histogram with a name, created the first time it is asked for.
+     * @param name Name of the histogram
+     * @return The histogram
+     */
+    public static Histogram histogram(String name) {
+        return histograms.computeIfAbsent(name, key -> new Histogram());
+    }
+
+    /**
+     * Read every metric.
+     * @return Values of the metrics, by name in order
+     */
+    public static Snapshot snapshot() {
+        var counterValues = new TreeMap<String, Long>();
+        counters.forEach((name, counter) -> counterValues.put(name, counter.get()));
+        var gaugeValues = new TreeMap<String, Long>();
+        gauges.forEach((name, gauge) -> gaugeValues.put(name, gauge.getAsLong()));
+        var histogramValues = new TreeMap<String, Histogram.Snapshot>();
+        histograms.forEach((name, histogram) -> histogramValues.put(name, histogram.snapshot()));
+        return new Snapshot(System.currentTimeMillis(), counterValues, gaugeValues, histogramValues);
+    }
+
+    /**
+     * Values of every metric at one time.
+     */
+    public static final class Snapshot {
+        /**
+         * When the values were read, in milliseconds since the epoch.
+         */
+        private final long takenAt;
+
+        /**
+         * Counts by name.
+         */
+        private final Map<String, Long> counters;
+
+        /**
+         * Gauge values by name.
+         */
+        private final Map<String, Long> gauges;
+
+        /**
+         * Histograms by name.
+         */
+        private final Map<String, Histogram.Snapshot> histograms;
+
+        /**
+         * Constructor
+         * @param takenAt When the values were read, in milliseconds since the epoch
+         * @param counters Counts by name
+         * @param gauges Gauge values by name
+         * @param histograms Histograms by name
+         */
+        private Snapshot(long takenAt, Map<String, Long> counters, Map<String, Long> gauges, Map<String, Histogram.Snapshot> histograms) {
+            this.takenAt = takenAt;
+            this.counters = Collections.unmodifiableMap(counters);
+            this.gauges = Collections.unmodifiableMap(gauges);
+            this.histograms = Collections.unmodifiableMap(histograms);
+        }
+
+        /**
+         * Getter
+         * @return When the values were read, in milliseconds since the epoch
+         */
+        public long getTakenAt() {
+            return takenAt;
+        }
+
+        /**
+         * Getter
+         * @return Counts by name, in order
+         */
+        public Map<String, Long> getCounters() {
+            return counters;
+        }
+
+        /**
+         * Getter
+         * @return Gauge values by name, in order
+         */
+        public Map<String, Long> getGauges() {
+            return gauges;
+        }
+
+        /**
+         * Getter
+         * @return Histograms by name, in order
+         */
+        public Map<String, Histogram.Snapshot> getHistograms() {
+            return histograms;
+        }
+
+        /**
+         * Lines of text, one per metric, as dumped to file: {@code counter name count},
+         * {@code gauge name value} and {@code histogram name count mean p50 p90 p99 p999 max} with latencies in microseconds.
+         * @return The lines
+         */
+        public String format() {
+            var builder = new StringBuilder();
+            builder.append("# ").append(Instant.ofEpochMilli(takenAt)).append('\n');
+            counters.forEach((name, count) -> builder.append("counter ").append(name).append(' ').append(count).append('\n'));
+            gauges.forEach((name, value) -> builder.append("gauge ").append(name).append(' ').append(value).append('\n'));
+            histograms.forEach((name, histogram) -> builder.append(String.format("histogram %s %d %.1f %.1f %.1f %.1f %.1f %.1f%n", name,
+                    histogram.getCount(), histogram.getMean() / 1e3, histogram.getValueAt(0.5) / 1e3, histogram.getValueAt(0.9) / 1e3,
+                    histogram.getValueAt(0.99) / 1e3, histogram.getValueAt(0.999) / 1e3, histogram.getMax() / 1e3)));
+            return builder.toString();
+        }
+    }
+}
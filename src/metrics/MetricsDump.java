@@ -0,0 +1,70 @@
+package metrics;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background task which writes a snapshot of every metric to a local file periodically, and once more when closed.
+ * The file is replaced whole each time, so a reader never sees half a dump.
+ */
+public final class MetricsDump implements Closeable {
+    /**
+     * File the dump is written to.
+     */
+    private final Path path;
+
+    /**
+     * Runs the periodic dumps.
+     */
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        var thread = new Thread(runnable, "metrics-dump");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Constructor, starts dumping periodically.
+     * @param path File the dump is written to
+     * @param intervalSeconds Seconds between dumps
+     */
+    public MetricsDump(String path, long intervalSeconds) {
+        this.path = Path.of(path);
+        scheduler.scheduleWithFixedDelay(this::dump, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Write a snapshot of every metric to the file.
+     */
+    public synchronized void dump() {
+        try {
+            var parent = path.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            var temporary = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+            Files.writeString(temporary, Metrics.snapshot().format(), StandardCharsets.UTF_8);
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.out.println("Metrics: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stop the periodic dumps and write a last one.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        dump();
+    }
+}
@@ -0,0 +1,73 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for a student trying to register for a camp, its committee or its waitlist.
+ * A batch of registrations commits one event per student, each lasting as long as the batch for the camp.
+ */
+@Name("cams.Registration")
+@Label("Registration")
+@Category({"CAMs", "Camps"})
+@Description("A student registering for a camp, its committee or its waitlist, including waiting for other sessions.")
+public final class RegistrationEvent extends Event {
+    /**
+     * ID of the camp.
+     */
+    @Label("Camp ID")
+    private int campID;
+
+    /**
+     * Name of the camp.
+     */
+    @Label("Camp")
+    private String campName;
+
+    /**
+     * Student registering.
+     */
+    @Label("User ID")
+    private String userID;
+
+    /**
+     * Role registered for: attendee, committee or waitlist.
+     */
+    @Label("Role")
+    private String role;
+
+    /**
+     * Whether the student was registered.
+     */
+    @Label("Registered")
+    private boolean registered;
+
+    /**
+     * Why the student was refused, null if registered.
+     */
+    @Label("Rejection Reason")
+    private String reason;
+
+    /**
+     * Commit the event with its outcome, if it is recorded.
+     * @param campID ID of the camp
+     * @param campName Name of the camp
+     * @param userID Student registering
+     * @param role Role registered for: attendee, committee or waitlist
+     * @param reason Why the student was refused, as the message of the exception, null if registered
+     */
+    public void commit(int campID, String campName, String userID, String role, String reason) {
+        if (shouldCommit()) {
+            this.campID = campID;
+            this.campName = campName;
+            this.userID = userID;
+            this.role = role;
+            this.registered = reason == null;
+            this.reason = reason;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.io.File;
+
+/**
+ * Flight Recorder event for writing a report to file.
+ */
+@Name("cams.Report")
+@Label("Report")
+@Category({"CAMs", "Reports"})
+@Description("A report written to file.")
+public final class ReportEvent extends Event {
+    /**
+     * Kind of report: attendance, enquiry or performance.
+     */
+    @Label("Kind")
+    private String kind;
+
+    /**
+     * ID of the camp reported on, -1 for a report over several camps.
+     */
+    @Label("Camp ID")
+    private int campID;
+
+    /**
+     * File written.
+     */
+    @Label("Path")
+    private String path;
+
+    /**
+     * Size of the file written.
+     */
+    @Label("Bytes Written")
+    @DataAmount
+    private long bytesWritten;
+
+    /**
+     * Commit the event once the file is closed, if it is recorded. The size of the file is only read then.
+     * @param kind Kind of report: attendance, enquiry or performance
+     * @param campID ID of the camp reported on, -1 for a report over several camps
+     * @param path File written
+     */
+    public void commit(String kind, int campID, String path) {
+        if (shouldCommit()) {
+            this.kind = kind;
+            this.campID = campID;
+            this.path = path;
+            this.bytesWritten = new File(path).length();
+            commit();
+        }
+    }
+}
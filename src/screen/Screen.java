@@ -1,6 +1,10 @@
 package screen;
 
+import camp.Ballot;
+import camp.Camp;
 import camp.CampController;
+import camp.CampControllerException;
+import camp.Registration;
 import user.User;
 import user.UserController;
 import user.Student;
@@ -8,6 +12,7 @@ import utils.TimeRegion;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.InputMismatchException;
 import java.util.List;
 import java.util.Scanner;
@@ -33,9 +38,17 @@ public abstract class Screen {
         this.campController = campController;
     }
     /**
-     * Creates new instance of scanner
+     * Scanner of the console, used when the screen is not run by a {@link Session}.
      */
-    public static Scanner scanner = new Scanner(System.in);
+    private static final Scanner consoleScanner = new Scanner(System.in);
+    /**
+     * Scanner to read input from: that of the session run by this thread, otherwise that of the console.
+     * @return Scanner of the current user
+     */
+    public static Scanner scanner() {
+        var session = Session.current();
+        return session != null ? session.getScanner() : consoleScanner;
+    }
     /**
      * abstract class of display for subclass to implement
      * @return system input
@@ -50,11 +63,11 @@ public abstract class Screen {
      */
     public static<T> T select(List<T> indexableContainable) throws ScreenException {
         try {
-            var choice = scanner.nextInt();
-            scanner.nextLine();
+            var choice = scanner().nextInt();
+            scanner().nextLine();
             return indexableContainable.get(choice);
         } catch (InputMismatchException e) {
-            scanner.nextLine();
+            scanner().nextLine();
             throw new ScreenException("Use a number for selection.");
         } catch (IndexOutOfBoundsException e) {
             throw new ScreenException("Not a valid selection.");
@@ -83,21 +96,71 @@ public abstract class Screen {
     public static int getInt() throws ScreenException {
         int ret;
         try {
-            ret = scanner.nextInt();
-            scanner.nextLine();
+            ret = scanner().nextInt();
+            scanner().nextLine();
         } catch (InputMismatchException e) {
-            scanner.nextLine();
+            scanner().nextLine();
             throw new ScreenException("Use a number for selection.");
         }
         return ret;
     }
+    /**
+     * offers a student who could not register for a full camp to join its waitlist instead
+     * @param student Student that could not register
+     * @param camp Camp that the student tried to register for
+     */
+    protected static void offerWaitlist(Student student, Camp camp) {
+        if (!camp.isFull()) {
+            return;
+        }
+        System.out.println("(0) Do not wait or (1) Join the waitlist of " + camp + ", " + camp.getWaitlistSize() + " waiting.");
+        try {
+            if (getInt() == 1) {
+                camp.joinWaitlist(student);
+                int position = camp.getWaitlistPosition(student);
+                System.out.println(position > 0 ? "Joined the waitlist at position " + position + "." : "A slot was free, registered to " + camp + ".");
+            }
+        } catch (ScreenException | CampControllerException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+    /**
+     * offers a student who could not register for a camp taken by ballot to rank it in the ballot instead
+     * @param student Student that could not register
+     * @param camp Camp that the student tried to register for
+     * @param role Role that the student tried to register for
+     */
+    protected static void offerBallot(Student student, Camp camp, Registration.Role role) {
+        var ballot = camp.getBallot();
+        if (ballot == null) {
+            return;
+        }
+        var ranked = new ArrayList<>(ballot.getChoices(student));
+        ranked.removeIf(choice -> choice.getCamp() == camp);
+        System.out.println("Your ranking in the ballot: ");
+        for (int i = 0; i < ranked.size(); i++) {
+            System.out.println((i + 1) + ": " + ranked.get(i));
+        }
+        System.out.println("(0) Do not rank or (1-" + (ranked.size() + 1) + ") Rank " + camp + " at this position.");
+        try {
+            int position = getInt();
+            if (position < 1 || position > ranked.size() + 1) {
+                return;
+            }
+            ranked.add(position - 1, new Ballot.Choice(camp, role));
+            ballot.submit(student, ranked);
+            System.out.println("Ranked " + camp + " at position " + position + ".");
+        } catch (ScreenException | CampControllerException e) {
+            System.out.println(e.getMessage());
+        }
+    }
     /**
      * takes user for input and changes user password based on system input
      * @param user User that want to change password
      */
     protected static void changePassword(User user) {
         System.out.println("Choose new password: ");
-        var password = scanner.nextLine();
+        var password = scanner().nextLine();
         user.changePassword(password);
     }
     /**
@@ -118,12 +181,12 @@ public abstract class Screen {
             System.out.println("8: Delete filter");
             System.out.println("9: Return.");
 
-            int filterChoice = scanner.nextInt();
-            scanner.nextLine();
+            int filterChoice = scanner().nextInt();
+            scanner().nextLine();
             switch (filterChoice) {
                 case 0 -> {
                     System.out.println("What is your preferred date (indicate start) (YYYY-MM-DD)?");
-                    var start = scanner.nextLine();
+                    var start = scanner().nextLine();
                     LocalDate startDate = null;
                     LocalDate endDate = null;
 
@@ -136,7 +199,7 @@ public abstract class Screen {
                     }
 
                     System.out.println("What is your preferred date (indicate end) (YYYY-MM-DD)?");
-                    var end = scanner.nextLine();
+                    var end = scanner().nextLine();
                     while (endDate == null) {
                         try {
                             endDate = LocalDate.parse(end);
@@ -151,7 +214,7 @@ public abstract class Screen {
                 }
                 case 1 -> {
                     System.out.println("What is your preferred location?");
-                    String location = scanner.nextLine();
+                    String location = scanner().nextLine();
                     user.addFilter("Location", CampController.LocationFilter(location));
                 }
                 case 8 -> {
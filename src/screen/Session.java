@@ -0,0 +1,164 @@
+package screen;
+
+import camp.CampController;
+import user.UserController;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+
+/**
+ * Connection of one user to the {@link SessionServer}, or a scripted user, running its own chain of screens on its own thread.
+ * While it runs, {@link Screen#scanner()} reads from the connection and {@link SessionOutput} sends
+ * {@code System.out} to it, so screens work the same as on the console.
+ */
+public final class Session implements Runnable {
+    /**
+     * Session run by each thread.
+     */
+    private static final ThreadLocal<Session> current = new ThreadLocal<>();
+
+    /**
+     * Connection of the user, closed when the session ends.
+     */
+    private final Closeable connection;
+
+    /**
+     * Input of the user.
+     */
+    private final Scanner scanner;
+
+    /**
+     * Output to the user, sent whenever the user is asked for input.
+     */
+    private final PrintStream output;
+
+    /**
+     * User Controller
+     */
+    private final UserController userController;
+
+    /**
+     * Camp Controller
+     */
+    private final CampController campController;
+
+    /**
+     * Constructor
+     * @param socket Connection of the user
+     * @param userController UserController shared by every session
+     * @param campController CampController shared by every session
+     * @throws IOException if the streams of the connection cannot be opened
+     */
+    Session(Socket socket, UserController userController, CampController campController) throws IOException {
+        this(socket.getInputStream(), socket.getOutputStream(), socket, userController, campController);
+    }
+
+    /**
+     * Constructor for a session reading and writing streams rather than a connection, such as a scripted user.
+     * Output is sent whenever the screens ask for input, and the input is closed when the session ends.
+     * @param input Input of the user
+     * @param output Output to the user
+     * @param userController UserController shared by every session
+     * @param campController CampController shared by every session
+     */
+    public Session(InputStream input, OutputStream output, UserController userController, CampController campController) {
+        this(input, output, input, userController, campController);
+        SessionOutput.install();
+    }
+
+    /**
+     * Constructor
+     * @param input Input of the user
+     * @param output Output to the user
+     * @param connection Connection of the user, closed when the session ends
+     * @param userController UserController shared by every session
+     * @param campController CampController shared by every session
+     */
+    private Session(InputStream input, OutputStream output, Closeable connection, UserController userController, CampController campController) {
+        this.connection = connection;
+        this.userController = userController;
+        this.campController = campController;
+        this.output = new PrintStream(new BufferedOutputStream(output), false, StandardCharsets.UTF_8);
+        scanner = new Scanner(new FilterInputStream(input) {
+            @Override
+            public int read() throws IOException {
+                Session.this.output.flush();
+                return super.read();
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                Session.this.output.flush();
+                return super.read(b, off, len);
+            }
+        }, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Session run by this thread.
+     * @return The session, null if this thread does not run one
+     */
+    static Session current() {
+        return current.get();
+    }
+
+    /**
+     * Getter
+     * @return Input of the user
+     */
+    Scanner getScanner() {
+        return scanner;
+    }
+
+    /**
+     * Getter
+     * @return Output to the user
+     */
+    PrintStream getOutput() {
+        return output;
+    }
+
+    /**
+     * Run the screens from the login screen until the user exits or disconnects.
+     */
+    @Override
+    public void run() {
+        current.set(this);
+        try {
+            Screen screen = new UserLoginScreen(userController, campController);
+            while (screen != null) {
+                screen = screen.display();
+            }
+        } catch (NoSuchElementException | IllegalStateException e) {
+            // Input ended while a screen was waiting for it: the user disconnected.
+        } catch (UncheckedIOException e) {
+            // The journal stopped, so no further change can be saved.
+            output.println(e.getMessage());
+        } finally {
+            output.flush();
+            current.remove();
+            close();
+        }
+    }
+
+    /**
+     * Close the connection, which ends the session if it is waiting for input.
+     */
+    void close() {
+        try {
+            connection.close();
+        } catch (IOException e) {
+            // Already closed.
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package screen;
+
+import camp.CampController;
+import user.UserController;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serves CAMs to many users at once over plain text connections on localhost, such as from telnet or netcat.
+ * Every connection gets its own {@link Session} on its own thread, and all sessions share the same controllers.
+ */
+public final class SessionServer implements Closeable {
+    /**
+     * Number of connections waiting to be accepted before more are refused.
+     */
+    private static final int BACKLOG = 256;
+
+    /**
+     * Socket accepting connections.
+     */
+    private final ServerSocket serverSocket;
+
+    /**
+     * Sessions still running.
+     */
+    private final Set<Session> sessions = ConcurrentHashMap.newKeySet();
+
+    /**
+     * User Controller
+     */
+    private final UserController userController;
+
+    /**
+     * Camp Controller
+     */
+    private final CampController campController;
+
+    /**
+     * Thread accepting connections.
+     */
+    private final Thread acceptor;
+
+    /**
+     * Number of connections accepted, used to name their threads.
+     */
+    private int accepted = 0;
+
+    /**
+     * Starts serving on a port of the loopback address.
+     * @param port Port to listen on, 0 for any free port
+     * @param userController UserController shared by every session
+     * @param campController CampController shared by every session
+     * @throws IOException if the port cannot be listened on
+     */
+    public SessionServer(int port, UserController userController, CampController campController) throws IOException {
+        this.userController = userController;
+        this.campController = campController;
+        serverSocket = new ServerSocket(port, BACKLOG, InetAddress.getLoopbackAddress());
+        SessionOutput.install();
+        acceptor = new Thread(this::accept, "session-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * Getter
+     * @return Port the server listens on
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Getter
+     * @return Number of sessions still running
+     */
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Accept connections until the server is closed, starting a session for each.
+     */
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                var socket = serverSocket.accept();
+                var session = new Session(socket, userController, campController);
+                sessions.add(session);
+                var thread = new Thread(() -> {
+                    try {
+                        session.run();
+                    } finally {
+                        sessions.remove(session);
+                    }
+                }, "session-" + ++accepted);
+                thread.setDaemon(true);
+                thread.start();
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    System.out.println(e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Stop accepting connections and disconnect every session.
+     * @throws IOException if the server socket cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for (var session: sessions) {
+            session.close();
+        }
+        try {
+            acceptor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
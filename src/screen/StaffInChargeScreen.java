@@ -1,18 +1,27 @@
 package screen;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.SecureRandom;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Scanner; //Test
 
 
 import camp.Camp;
 import camp.CampController;
+import camp.CampControllerException;
+import camp.Registration;
 import screen.enquiry.StaffInChargeEnquiryScreen;
 import screen.suggestion.StaffInChargeSuggestionScreen;
 import user.Staff;
+import user.Student;
 import user.StudentCommittee;
 import user.User;
 import user.UserController;
+import utils.Csv;
 /**
  * Screen for staff in charge
  */
@@ -47,6 +56,9 @@ public class StaffInChargeScreen extends StaffScreen {
         System.out.println("3: Generate attendance report: ");
         System.out.println("4: Generate performance report: ");
         System.out.println("5: Generate enquiry report: ");
+        System.out.println("6: Enrol students from a file: ");
+        System.out.println("7: Open a ballot for camps: ");
+        System.out.println("8: Allocate a ballot: ");
         System.out.println("9: Back.");
 
         int choice = -1;
@@ -185,6 +197,83 @@ public class StaffInChargeScreen extends StaffScreen {
                 }
         		yield this;
             }
+            case 6 -> {
+                try {
+                    System.out.println("Select a camp: ");
+                    var selectedCamp = select(camps);
+                    System.out.println("File with a student on each line, as userID or userID,committee: ");
+                    var requests = new ArrayList<Registration>();
+                    for (var line: Files.readAllLines(Path.of(scanner().nextLine()))) {
+                        var values = Csv.split(line);
+                        var userID = values.get(0).trim();
+                        if (userID.isEmpty()) {
+                            continue;
+                        }
+                        try {
+                            if (userController.getUser(userID) instanceof Student student) {
+                                var role = values.size() > 1 && values.get(1).trim().equalsIgnoreCase("committee")
+                                        ? Registration.Role.COMMITTEE : Registration.Role.ATTENDEE;
+                                requests.add(new Registration(student, selectedCamp, role));
+                            } else {
+                                System.out.println(userID + ": not a student");
+                            }
+                        } catch (NoSuchElementException e) {
+                            System.out.println(userID + ": no such user");
+                        }
+                    }
+                    int registered = campController.registerAll(requests, userController);
+                    for (var request: requests) {
+                        if (!request.isRegistered()) {
+                            System.out.println(request);
+                        }
+                    }
+                    System.out.println("Registered " + registered + " of " + requests.size() + " students.");
+                } catch (ScreenException | IOException e) {
+                    System.out.println(e.getMessage());
+                }
+                yield this;
+            }
+            case 7 -> {
+                try {
+                    System.out.println("Numbers of the camps, separated by spaces: ");
+                    var selected = new ArrayList<Camp>();
+                    for (var number: scanner().nextLine().trim().split("\\s+")) {
+                        selected.add(camps.get(Integer.parseInt(number)));
+                    }
+                    System.out.println("Most camps given to a student: ");
+                    var ballot = campController.openBallot(staff, selected, getInt());
+                    System.out.println("Opened " + ballot + ".");
+                } catch (NumberFormatException | IndexOutOfBoundsException e) {
+                    System.out.println("Not a valid selection.");
+                } catch (ScreenException | CampControllerException e) {
+                    System.out.println(e.getMessage());
+                }
+                yield this;
+            }
+            case 8 -> {
+                try {
+                    var ballots = campController.getBallots().stream()
+                            .filter(ballot -> ballot.getCamps().stream().allMatch(camp -> camp.isOwner(staff))).toList();
+                    System.out.println("Select a ballot: ");
+                    displayContents(ballots);
+                    var selectedBallot = select(ballots);
+                    long seed = new SecureRandom().nextLong();
+                    var registrations = campController.allocate(staff, selectedBallot, seed, userController);
+                    int registered = 0;
+                    for (var registration: registrations) {
+                        if (registration.isRegistered()) {
+                            registered++;
+                        } else {
+                            System.out.println(registration);
+                        }
+                    }
+                    System.out.println("Drew " + selectedBallot.getStudentCount() + " students with seed " + seed
+                            + ", registered " + registered + " of " + registrations.size() + " seats given.");
+                } catch (ScreenException | CampControllerException e) {
+                    System.out.println(e.getMessage());
+                }
+                yield this;
+            }
             case 9 -> new StaffScreen(userController, campController, staff);
             default -> this;
         };
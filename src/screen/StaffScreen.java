@@ -107,14 +107,14 @@ public class StaffScreen extends Screen {
                 LocalDate registrationDeadline = null;
 
                 System.out.println("Choose a camp name: ");
-                var name = scanner.nextLine();
+                var name = scanner().nextLine();
 
                 do
                 {
 	                try
 	                {
 		                System.out.println("Enter the start date of Camp (yyyy-MM-dd): ");
-		                String sDate = scanner.nextLine();
+		                String sDate = scanner().nextLine();
 		                LocalDate SelectedSDate = LocalDate.parse(sDate, DateTimeFormatter.ofPattern("yyyy-MM-dd"));
 
                         if(SelectedSDate.isBefore(LocalDate.now()))
@@ -140,7 +140,7 @@ public class StaffScreen extends Screen {
                 	try
                 	{
 	                	System.out.println("Enter the end date of Camp (yyyy-MM-dd): ");
-	                    String eDate = scanner.nextLine();
+	                    String eDate = scanner().nextLine();
 	                    LocalDate SelectedEDate = LocalDate.parse(eDate, DateTimeFormatter.ofPattern("yyyy-MM-dd"));
 
                         if(SelectedEDate.isAfter(startDate))
@@ -167,7 +167,7 @@ public class StaffScreen extends Screen {
                 	try
                 	{
 	                	System.out.println("Enter the registration closing date of the Camp (yyyy-MM-dd): ");
-	                    String rcDate = scanner.nextLine();
+	                    String rcDate = scanner().nextLine();
 	                    LocalDate SelectedRDate = LocalDate.parse(rcDate, DateTimeFormatter.ofPattern("yyyy-MM-dd"));
 
                         if(SelectedRDate.isBefore(LocalDate.now()))
@@ -194,7 +194,7 @@ public class StaffScreen extends Screen {
                 do
                 {                    
                         System.out.println("Choose which user group this camp is open to: ");
-                        userGroup = scanner.nextLine();
+                        userGroup = scanner().nextLine();
                         
                         if(!userGroup.isEmpty())
                         {
@@ -209,7 +209,7 @@ public class StaffScreen extends Screen {
                 do
                 {
                 	System.out.println("Choose the camp location: ");
-                    location = scanner.nextLine();
+                    location = scanner().nextLine();
                         
                     if(!location.isEmpty())
                     {
@@ -225,14 +225,14 @@ public class StaffScreen extends Screen {
                 
                 
                 System.out.println("Enter a short description for the camp: ");
-                var description = scanner.nextLine();
+                var description = scanner().nextLine();
                 
                 do
                 {
                     try
                     {
                         System.out.println("Choose the total camp slots: ");
-                        totalSlots = scanner.nextInt();
+                        totalSlots = scanner().nextInt();
 
                         if(totalSlots > 0)
                         {
@@ -246,7 +246,7 @@ public class StaffScreen extends Screen {
                     catch(InputMismatchException e)
                     {
                         System.out.println("Error: Invalid total camp slots! Please enter a valid positive integer for total camp slots.");
-                        scanner.nextLine();
+                        scanner().nextLine();
                     }
                     
                 }while(!validTSVal);
@@ -256,7 +256,7 @@ public class StaffScreen extends Screen {
                     try
                     {
                         System.out.println("Choose the camp committee slots (lesser than total slot and capped at 10 if total slot is more than 10): ");
-                        campCommitteeSlots = scanner.nextInt();
+                        campCommitteeSlots = scanner().nextInt();
                         if(campCommitteeSlots > 0 && campCommitteeSlots < totalSlots)
                         {
                             validCSVal = true;
@@ -269,7 +269,7 @@ public class StaffScreen extends Screen {
                     catch(InputMismatchException e)
                     {
                         System.out.println("Error: Invalid camp committee slots! Please enter a valid positive integer for camp committee slots.");
-                        scanner.next();
+                        scanner().next();
                     }
                 }while(!validCSVal);
                  
@@ -330,7 +330,7 @@ public class StaffScreen extends Screen {
 	                                try
 	                                {
 	                                    System.out.println("Enter new camp committee slots (max 10): ");
-	                                    campCommitteeSlots = scanner.nextInt();
+	                                    campCommitteeSlots = scanner().nextInt();
 	                                    if(campCommitteeSlots > 0 && campCommitteeSlots < 11)
 	                                    {
 	                                        validCSVal = true;
@@ -343,7 +343,7 @@ public class StaffScreen extends Screen {
 	                                catch(InputMismatchException e)
 	                                {
 	                                    System.out.println("Error: Invalid camp committee slots! Please enter a valid positive integer for camp committee slots.");
-	                                    scanner.next();
+	                                    scanner().next();
 	                                }
 	                            }while(!validCSVal);
 	                    		selectedCamp.setCampCommSlots(campCommitteeSlots);
@@ -355,7 +355,7 @@ public class StaffScreen extends Screen {
 	                                try
 	                                {
 	                                    System.out.println("Enter new total camp slots: ");
-	                                    totalSlots = scanner.nextInt();
+	                                    totalSlots = scanner().nextInt();
 	
 	                                    if(totalSlots > 0)
 	                                    {
@@ -369,7 +369,7 @@ public class StaffScreen extends Screen {
 	                                catch(InputMismatchException e)
 	                                {
 	                                    System.out.println("Error: Invalid total camp slots! Please enter a valid positive integer for total camp slots.");
-	                                    scanner.nextLine();
+	                                    scanner().nextLine();
 	                                }
 	                                
 	                            }while(!validTSVal);
@@ -382,7 +382,7 @@ public class StaffScreen extends Screen {
 	                            	try
 	                            	{
 	            	                	System.out.println("Enter new registration closing date of the Camp (yyyy-MM-dd): ");
-	            	                    String rcDate = scanner.nextLine();
+	            	                    String rcDate = scanner().nextLine();
 	            	                    LocalDate SelectedRDate = LocalDate.parse(rcDate, DateTimeFormatter.ofPattern("yyyy-MM-dd"));
 	
 	                                    if(SelectedRDate.isBefore(LocalDate.now()))
@@ -410,7 +410,7 @@ public class StaffScreen extends Screen {
 	                    		break;
 	                    	case "description":
 	                    		System.out.println("Enter a new short description for the camp: ");
-	                            var description = scanner.nextLine();
+	                            var description = scanner().nextLine();
 	                            selectedCamp.setDescription(description);
 	                            System.out.println("Successfully edited camp description.");
 	                            break;
@@ -418,7 +418,7 @@ public class StaffScreen extends Screen {
 	                    		do
 	                            {
 	                            	System.out.println("Choose a new camp location: ");
-	                                location = scanner.nextLine();
+	                                location = scanner().nextLine();
 	                                    
 	                                if(!location.isEmpty())
 	                                {
@@ -436,7 +436,7 @@ public class StaffScreen extends Screen {
 	                    		break;
 	                    	case "campName":
 	                    		System.out.println("Choose a new camp name: ");
-	                            var name = scanner.nextLine();
+	                            var name = scanner().nextLine();
 	                            selectedCamp.setCampName(name);
 	                            System.out.println("Successfully edited camp name.");
 	                            break;
@@ -446,7 +446,7 @@ public class StaffScreen extends Screen {
 	            	                try
 	            	                {
 	            		                System.out.println("Enter a new start date of Camp (yyyy-MM-dd): ");
-	            		                String sDate = scanner.nextLine();
+	            		                String sDate = scanner().nextLine();
 	            		                LocalDate SelectedSDate = LocalDate.parse(sDate, DateTimeFormatter.ofPattern("yyyy-MM-dd"));
 	
 	                                    if(SelectedSDate.isBefore(LocalDate.now()))
@@ -472,7 +472,7 @@ public class StaffScreen extends Screen {
 	                            	try
 	                            	{
 	            	                	System.out.println("Enter a new end date of Camp (yyyy-MM-dd): ");
-	            	                    String eDate = scanner.nextLine();
+	            	                    String eDate = scanner().nextLine();
 	            	                    LocalDate SelectedEDate = LocalDate.parse(eDate, DateTimeFormatter.ofPattern("yyyy-MM-dd"));
 	
 	                                    if(SelectedEDate.isAfter(startDate))
@@ -500,7 +500,7 @@ public class StaffScreen extends Screen {
 	                    		do
 	                            {                    
 	                                    System.out.println("Choose a new user group this camp is open to: ");
-	                                    userGroup = scanner.nextLine();
+	                                    userGroup = scanner().nextLine();
 	                                    
 	                                    if(!userGroup.isEmpty())
 	                                    {
@@ -3,6 +3,7 @@ package screen;
 import camp.Camp;
 import camp.CampController;
 import camp.CampControllerException;
+import camp.Registration;
 import screen.enquiry.StudentCommitteeEnquiryScreen;
 import screen.suggestion.StudentCommitteeSuggestionScreen;
 import user.StudentCommittee;
@@ -94,9 +95,15 @@ public class StudentCommitteeScreen extends Screen {
                     System.out.println("Select a camp: ");
                     printCamp(camps);
                     var selectedCamp = select(camps);
-                    selectedCamp.addStudent(studentCommittee);
-                    System.out.println("Joined camp! " + selectedCamp);
-                } catch (ScreenException | CampControllerException e) {
+                    try {
+                        selectedCamp.addStudent(studentCommittee);
+                        System.out.println("Joined camp! " + selectedCamp);
+                    } catch (CampControllerException e) {
+                        System.out.println(e.getMessage());
+                        offerBallot(studentCommittee, selectedCamp, Registration.Role.ATTENDEE);
+                        offerWaitlist(studentCommittee, selectedCamp);
+                    }
+                } catch (ScreenException e) {
                     System.out.println(e.getMessage());
                 }
                 yield this;
@@ -137,16 +144,10 @@ public class StudentCommitteeScreen extends Screen {
                 yield this;
             }
             case 6 -> {
-                boolean isCommMem = false;
                 try {
                     int reportChoice, formatChoice;
                     var selectedCamp = studentCommittee.getCommitteeCamp();
-                    for (int i = 0; i < selectedCamp.getCommittees().size(); i++) {
-                        if (selectedCamp.getCommittees().get(i) == studentCommittee.getUserID()) {
-                            isCommMem = true;
-                        }
-                    }
-                    if (isCommMem) {
+                    if (selectedCamp.isCommittee(studentCommittee)) {
                         do {
                             System.out.println("Select what you want to include in the report: ");
                             System.out.println("1: Both Camp Attendees and Camp Committees");
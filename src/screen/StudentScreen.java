@@ -4,6 +4,7 @@ import camp.Camp;
 import camp.CampController;
 import camp.CampControllerException;
 import camp.Enquiry;
+import camp.Registration;
 import screen.enquiry.StudentEnquiryScreen;
 import user.Student;
 import user.UserController;
@@ -96,20 +97,31 @@ public class StudentScreen extends Screen {
                     try {
                         System.out.println("Select a camp: ");
                         var selectedCamp = select(camps);
-                        selectedCamp.addStudent(student);
-                        System.out.println("Registered student to " + selectedCamp + " as attendee.");
-                    } catch (ScreenException | CampControllerException e) {
+                        try {
+                            selectedCamp.addStudent(student);
+                            System.out.println("Registered student to " + selectedCamp + " as attendee.");
+                        } catch (CampControllerException e) {
+                            System.out.println(e.getMessage());
+                            offerBallot(student, selectedCamp, Registration.Role.ATTENDEE);
+                            offerWaitlist(student, selectedCamp);
+                        }
+                    } catch (ScreenException e) {
                         System.out.println(e.getMessage());
                     }
                 } else if (whichChoice == 1) {
                     try {
                         System.out.println("Select a camp: ");
                         var selectedCamp = select(camps);
-                        selectedCamp.addStudentCommittee(student);
-                        var committeeMember = userController.convertTo(student, selectedCamp);
-                        System.out.println("Registered student to " + selectedCamp + " as camp committee member.");
-                        yield new StudentCommitteeScreen(userController, campController, committeeMember);
-                    } catch (ScreenException | CampControllerException e) {
+                        try {
+                            selectedCamp.addStudentCommittee(student);
+                            var committeeMember = userController.convertTo(student, selectedCamp);
+                            System.out.println("Registered student to " + selectedCamp + " as camp committee member.");
+                            yield new StudentCommitteeScreen(userController, campController, committeeMember);
+                        } catch (CampControllerException e) {
+                            System.out.println(e.getMessage());
+                            offerBallot(student, selectedCamp, Registration.Role.COMMITTEE);
+                        }
+                    } catch (ScreenException e) {
                         System.out.println(e.getMessage());
                     }
                 }
@@ -121,7 +133,7 @@ public class StudentScreen extends Screen {
                     printCamps(camps);
                     var selectedCamp = select(camps);
                     System.out.println("Type out your enquiry!");
-                    var enquiry = scanner.nextLine();
+                    var enquiry = scanner().nextLine();
                     selectedCamp.addEnquiries(student, new Enquiry(enquiry, student.getUserID()));
                     System.out.println("Enquiry submitted!");
                } catch (ScreenException e) {
@@ -154,6 +166,9 @@ public class StudentScreen extends Screen {
             }
             case 5 -> {
                 printCamps(student.getAttendingCamps());
+                for (var waitlistedCamp: List.copyOf(student.getWaitlistedCamps())) {
+                    System.out.println("Waiting for " + waitlistedCamp + " at position " + waitlistedCamp.getWaitlistPosition(student) + ".");
+                }
                 yield this;
             }
             case 6 -> {
@@ -23,9 +23,9 @@ public class UserLoginScreen extends Screen {
     public Screen display() {
         System.out.println("Login: ");
         System.out.println("What's your userID: ");
-        String userId = scanner.nextLine();
+        String userId = scanner().nextLine();
         System.out.println("What's your password: ");
-        String password = scanner.nextLine();
+        String password = scanner().nextLine();
 
         try {
             User user = userController.verifyLogin(userId, password);
@@ -57,7 +57,7 @@ public class StaffInChargeEnquiryScreen extends StaffScreen {
                     System.out.println("Select enquiry.");
                     var enquiry = select(enquiries);
                     System.out.println("Type message to reply.");
-                    var reply = scanner.nextLine();
+                    var reply = scanner().nextLine();
                     enquiry.reply(reply);
                     System.out.println("Sent!");
                 } catch (ScreenException e) {
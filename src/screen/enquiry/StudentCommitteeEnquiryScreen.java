@@ -56,7 +56,7 @@ public class StudentCommitteeEnquiryScreen extends StudentCommitteeScreen {
                     System.out.println("Select enquiry.");
                     var enquiry = select(enquiries);
                     System.out.println("Type message to reply.");
-                    var reply = scanner.nextLine();
+                    var reply = scanner().nextLine();
                     enquiry.reply(reply);
                     studentCommittee.addPoint();
                     System.out.println("Sent!");
@@ -58,7 +58,7 @@ public class StudentEnquiryScreen extends StudentScreen {
                     var enquiry = select(enquiries);
                     if (!enquiry.isAnswered()) {
                         System.out.println("Type new message to change.");
-                        var message = scanner.nextLine();
+                        var message = scanner().nextLine();
                         enquiry.edit(message);
                         System.out.println("Enquiry changed.");
                     } else {
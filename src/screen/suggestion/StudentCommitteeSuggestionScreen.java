@@ -56,7 +56,7 @@ public class StudentCommitteeSuggestionScreen extends StudentCommitteeScreen {
         return switch (choice) {
             case 0 -> {
                 System.out.println("Suggestion: ");
-                var suggestion = scanner.nextLine();
+                var suggestion = scanner().nextLine();
                 camp.addSuggestion(studentCommittee, new Suggestion(suggestion, studentCommittee.getUserID()));
                 studentCommittee.addPoint();
                 yield this;
@@ -66,7 +66,7 @@ public class StudentCommitteeSuggestionScreen extends StudentCommitteeScreen {
                     System.out.println("Select suggestion: ");
                     var selectedSuggestion = select(suggestions);
                     System.out.println("Type new message to change.");
-                    var newSuggestion = scanner.nextLine();
+                    var newSuggestion = scanner().nextLine();
                     selectedSuggestion.edit(newSuggestion);
                     System.out.println("Suggestion changed.");
                 } catch (ScreenException e) {
@@ -0,0 +1,199 @@
+package storage;
+
+import camp.CampController;
+import user.UserController;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background task which folds sealed journal segments into a fresh snapshot, so that replay on startup stays short.
+ * Folding works on controllers of its own, loaded from the last snapshot, and never touches the ones in use by screens.
+ * They are kept between checkpoints, so each one only replays its own segments onto them.
+ * Replay records the IDs of the users and camps it changes, and only those are written as a delta snapshot over the
+ * last full one, so a checkpoint costs as much as the changes since the full snapshot rather than the whole roster.
+ */
+public final class Compactor implements Closeable {
+    /**
+     * Size of the current segment after which it is sealed and folded.
+     */
+    private static final long SEGMENT_LIMIT = 1 << 20;
+
+    /**
+     * A full snapshot is written instead of a delta once this many users and camps have changed for every one
+     * in the base snapshot, as a large delta slows down every later checkpoint and startup.
+     */
+    private static final double FULL_REWRITE_RATIO = 0.25;
+
+    /**
+     * Journal being folded.
+     */
+    private final Journal journal;
+
+    /**
+     * Directory holding the snapshots.
+     */
+    private final String snapshotPath;
+
+    /**
+     * Full snapshot the controllers were loaded from, null until the first fold and after a full rewrite.
+     */
+    private Snapshot base;
+
+    /**
+     * Controller for User holding the state of the last snapshot written.
+     */
+    private UserController userController;
+
+    /**
+     * Controller for Camp holding the state of the last snapshot written.
+     */
+    private CampController campController;
+
+    /**
+     * Runs the periodic checks.
+     */
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        var thread = new Thread(runnable, "journal-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Constructor, starts checking the journal periodically.
+     * @param journal Journal to be folded
+     * @param snapshotPath Directory holding the snapshots
+     * @param intervalSeconds Seconds between checks, a non-empty segment is always folded at this interval
+     */
+    public Compactor(Journal journal, String snapshotPath, long intervalSeconds) {
+        this.journal = journal;
+        this.snapshotPath = snapshotPath;
+        scheduler.scheduleWithFixedDelay(() -> compactOver(SEGMENT_LIMIT), 1, 1, TimeUnit.SECONDS);
+        scheduler.scheduleWithFixedDelay(() -> compactOver(1), intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Seal the current segment and fold every sealed segment into the snapshot.
+     * @throws IOException if the journal has stopped after failing to write, or the snapshot cannot be written,
+     * the segments are then kept
+     */
+    public synchronized void compact() throws IOException {
+        fold(journal.rotate());
+    }
+
+    /**
+     * Stop the checks, close the journal and fold what is left of it.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        journal.close();
+        try {
+            synchronized (this) {
+                fold(Long.MAX_VALUE);
+            }
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Seal and fold the current segment if it has reached a size, run by the periodic checks.
+     * @param minimumSize Size the current segment must have reached
+     */
+    private void compactOver(long minimumSize) {
+        try {
+            if (journal.segmentSize() >= minimumSize) {
+                compact();
+            }
+        } catch (IOException e) {
+            System.out.println("Compactor: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Replay sealed segments onto the controllers, loading them from the snapshot first if needed,
+     * write the changes back and delete the segments. The controllers are dropped after a full rewrite or a failure,
+     * and loaded again from the newest snapshot by the next fold.
+     * @param lastSegment Number of the last sealed segment
+     * @throws IOException if a segment cannot be read or the snapshot cannot be written
+     */
+    private void fold(long lastSegment) throws IOException {
+        var segments = Journal.segments(journal.getDirectory()).stream()
+                .filter(segment -> Journal.segmentNumber(segment) <= lastSegment)
+                .toList();
+        if (segments.isEmpty()) {
+            return;
+        }
+        if (isEmpty(segments)) {
+            // Nothing to fold, the snapshot is left as it is.
+            for (var segment: segments) {
+                Files.delete(segment);
+            }
+            return;
+        }
+        var failure = new IOException[1];
+        Journal.suppress(() -> {
+            boolean keep = false;
+            try {
+                if (base == null) {
+                    var chain = Snapshot.chain(snapshotPath);
+                    if (chain.isEmpty()) {
+                        throw new IOException("No snapshot in " + snapshotPath);
+                    }
+                    base = chain.get(chain.size() - 1);
+                    userController = UserController.loadFrom(chain);
+                    campController = CampController.loadFrom(chain, userController);
+                }
+                Journal.replay(segments, userController, campController);
+                int changed = userController.getChangedUserCount() + campController.getChangedCampCount();
+                boolean full = changed > (base.userCount() + base.campCount()) * FULL_REWRITE_RATIO;
+                var written = full
+                        ? Snapshot.write(snapshotPath, userController, campController)
+                        : Snapshot.writeDelta(snapshotPath, base, userController, campController);
+                Snapshot.deleteOlder(snapshotPath, written);
+                keep = !full;
+            } catch (IOException e) {
+                failure[0] = e;
+            } finally {
+                if (!keep) {
+                    base = null;
+                    userController = null;
+                    campController = null;
+                }
+            }
+        });
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+        for (var segment: segments) {
+            Files.delete(segment);
+        }
+    }
+
+    /**
+     * Check if segments hold no records.
+     * @param segments Paths of the segments
+     * @return True if every segment is empty
+     * @throws IOException if the size of a segment cannot be read
+     */
+    private static boolean isEmpty(List<Path> segments) throws IOException {
+        for (var segment: segments) {
+            if (Files.size(segment) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,413 @@
+package storage;
+
+import camp.CampController;
+import user.UserController;
+import utils.Csv;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Append-only write-ahead journal of every mutation made to users and camps.
+ * Records are appended to numbered segment files and written out in groups by a single flusher thread,
+ * a caller of {@link #record(String, String...)} returns once the group holding its record is on disk.
+ * If a group cannot be written the journal stops: the callers waiting on it and every later caller get the error,
+ * so no change is ever reported as saved when it is not.
+ * Every record sets a value rather than changing it relatively, so a segment may safely be replayed
+ * on top of a snapshot which already contains some of its records.
+ */
+public final class Journal implements Closeable {
+    /**
+     * Extension of segment files.
+     */
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    /**
+     * Journal which records are currently appended to, null if journaling is off.
+     */
+    private static volatile Journal current;
+
+    /**
+     * Set on threads which must not record, such as the compactor replaying into its own controllers.
+     */
+    private static final ThreadLocal<Boolean> suppressed = ThreadLocal.withInitial(() -> false);
+
+    /**
+     * Directory holding the segments.
+     */
+    private final Path directory;
+
+    /**
+     * Records waiting for the flusher.
+     */
+    private final StringBuilder pending = new StringBuilder();
+
+    /**
+     * Thread writing pending records to disk.
+     */
+    private final Thread flusher;
+
+    /**
+     * Number of records appended so far.
+     */
+    private long appended = 0;
+
+    /**
+     * Number of records known to be on disk.
+     */
+    private long durable = 0;
+
+    /**
+     * Number of the segment currently written to.
+     */
+    private long segment;
+
+    /**
+     * Bytes written to the current segment.
+     */
+    private long segmentSize = 0;
+
+    /**
+     * Set when a new segment should be started.
+     */
+    private boolean rotateRequested = false;
+
+    /**
+     * Set when the journal is closing.
+     */
+    private boolean closed = false;
+
+    /**
+     * Error which stopped the flusher, null while records are being written.
+     */
+    private IOException failure;
+
+    /**
+     * Channel of the current segment, only touched by the flusher.
+     */
+    private FileChannel channel;
+
+    /**
+     * Constructor, starts a new segment after any existing ones.
+     * @param directory Directory holding the segments
+     * @throws IOException if the directory or segment cannot be created
+     */
+    private Journal(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        var segments = segments(directory);
+        segment = segments.isEmpty() ? 1 : segmentNumber(segments.get(segments.size() - 1)) + 1;
+        channel = openSegment(segment);
+        flusher = new Thread(this::flushLoop, "journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Opens a journal in the directory and makes it the one records are appended to.
+     * @param directory Directory holding the segments
+     * @return The opened journal
+     * @throws IOException if the directory or segment cannot be created
+     */
+    public static Journal open(String directory) throws IOException {
+        var journal = new Journal(Path.of(directory));
+        current = journal;
+        return journal;
+    }
+
+    /**
+     * Append a record to the current journal and wait until it is on disk. Does nothing if no journal is open.
+     * @param type Type of the record, such as {@code camp.attendee}
+     * @param values Values of the record
+     * @throws UncheckedIOException if the journal could not write the record, or has stopped after failing to write
+     */
+    public static void record(String type, String... values) {
+        var journal = current;
+        if (journal == null || suppressed.get()) {
+            return;
+        }
+        var fields = new String[values.length + 1];
+        fields[0] = type;
+        System.arraycopy(values, 0, fields, 1, values.length);
+        journal.append(Csv.join(fields));
+    }
+
+    /**
+     * Run an action on this thread without recording any of its mutations.
+     * @param action Action to run
+     */
+    public static void suppress(Runnable action) {
+        boolean previous = suppressed.get();
+        suppressed.set(true);
+        try {
+            action.run();
+        } finally {
+            suppressed.set(previous);
+        }
+    }
+
+    /**
+     * List the segments in a directory, oldest first.
+     * @param directory Directory holding the segments
+     * @return Paths of the segments
+     * @throws IOException if the directory cannot be listed
+     */
+    public static List<Path> segments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted((o1, o2) -> Long.compare(segmentNumber(o1), segmentNumber(o2)))
+                    .toList();
+        }
+    }
+
+    /**
+     * Replay every segment in a directory onto the controllers.
+     * @param directory Directory holding the segments
+     * @param userController Controller for User
+     * @param campController Controller for Camp
+     * @throws IOException if a segment cannot be read
+     */
+    public static void replay(String directory, UserController userController, CampController campController) throws IOException {
+        replay(segments(Path.of(directory)), userController, campController);
+    }
+
+    /**
+     * Replay segments onto the controllers, in the order given. Records are read quote-aware,
+     * as a value such as the text of an enquiry may hold line breaks.
+     * A record cut short by a crash can only be the last record of a segment and is skipped.
+     * @param segments Paths of the segments
+     * @param userController Controller for User
+     * @param campController Controller for Camp
+     * @throws IOException if a segment cannot be read
+     */
+    public static void replay(List<Path> segments, UserController userController, CampController campController) throws IOException {
+        for (var segment: segments) {
+            try (var reader = new Csv.RecordReader(Files.newBufferedReader(segment, StandardCharsets.UTF_8))) {
+                String line = reader.next();
+                while (line != null) {
+                    String next = reader.next();
+                    List<String> values;
+                    try {
+                        values = Csv.split(line);
+                    } catch (IllegalArgumentException e) {
+                        if (next == null) {
+                            break;
+                        }
+                        throw e;
+                    }
+                    if (values.get(0).startsWith("user.")) {
+                        userController.replay(values, campController);
+                    } else {
+                        campController.replay(values, userController);
+                    }
+                    line = next;
+                }
+            }
+        }
+    }
+
+    /**
+     * Start a new segment once every record appended so far is on disk.
+     * @return Number of the last segment which will no longer be written to
+     * @throws IOException if the journal has stopped after failing to write
+     */
+    public synchronized long rotate() throws IOException {
+        if (failure != null) {
+            throw new IOException("Journal stopped: " + failure, failure);
+        }
+        if (closed) {
+            return segment;
+        }
+        rotateRequested = true;
+        notifyAll();
+        while (rotateRequested && failure == null) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (failure != null) {
+            throw new IOException("Journal stopped: " + failure, failure);
+        }
+        return segment - 1;
+    }
+
+    /**
+     * Bytes written to the current segment.
+     * @return Size of the current segment
+     */
+    public synchronized long segmentSize() {
+        return segmentSize + pending.length();
+    }
+
+    /**
+     * Directory holding the segments.
+     * @return Directory of this journal
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Writes out every pending record and stops journaling.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (current == this) {
+                current = null;
+            }
+            closed = true;
+            notifyAll();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Queue a line for the flusher and wait for it to be written.
+     * @param line Line to be written
+     * @throws UncheckedIOException if the line could not be written, or the journal has stopped after failing to write
+     */
+    private void append(String line) {
+        long ticket;
+        synchronized (this) {
+            checkNotFailed();
+            if (closed) {
+                return;
+            }
+            pending.append(line).append('\n');
+            ticket = ++appended;
+            notifyAll();
+            while (durable < ticket && failure == null) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            if (durable < ticket) {
+                checkNotFailed();
+            }
+        }
+    }
+
+    /**
+     * Refuse to go on once the flusher has failed. Called while holding the lock of this journal.
+     * @throws UncheckedIOException if the flusher has failed
+     */
+    private void checkNotFailed() {
+        if (failure != null) {
+            throw new UncheckedIOException("Journal stopped, the change was not saved: " + failure, failure);
+        }
+    }
+
+    /**
+     * Body of the flusher thread. Everything queued while the previous group was being forced
+     * to disk is written as the next group. Stops at the first error, leaving a group cut short
+     * as the last line of its segment, where replay skips it.
+     */
+    private void flushLoop() {
+        while (true) {
+            String batch;
+            long target;
+            boolean rotate;
+            boolean stop;
+            synchronized (this) {
+                while (pending.length() == 0 && !rotateRequested && !closed) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        closed = true;
+                    }
+                }
+                batch = pending.toString();
+                pending.setLength(0);
+                target = appended;
+                rotate = rotateRequested;
+                stop = closed;
+            }
+            try {
+                if (!batch.isEmpty()) {
+                    var buffer = ByteBuffer.wrap(batch.getBytes(StandardCharsets.UTF_8));
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    channel.force(false);
+                }
+                if (rotate) {
+                    channel.close();
+                    channel = openSegment(segment + 1);
+                }
+                if (stop) {
+                    channel.close();
+                }
+            } catch (IOException e) {
+                System.out.println("Journal: " + e.getMessage());
+                synchronized (this) {
+                    failure = e;
+                    notifyAll();
+                }
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                    // Already failed.
+                }
+                return;
+            }
+            synchronized (this) {
+                durable = target;
+                segmentSize += batch.length();
+                if (rotate) {
+                    segment++;
+                    segmentSize = 0;
+                    rotateRequested = false;
+                }
+                notifyAll();
+            }
+            if (stop) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Open a segment for appending.
+     * @param number Number of the segment
+     * @return Channel to the segment
+     * @throws IOException if the segment cannot be opened
+     */
+    private FileChannel openSegment(long number) throws IOException {
+        return FileChannel.open(directory.resolve(String.format("%012d%s", number, SEGMENT_SUFFIX)),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Number of a segment from its file name.
+     * @param segment Path of the segment
+     * @return Number of the segment
+     */
+    static long segmentNumber(Path segment) {
+        var name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
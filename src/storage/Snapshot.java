@@ -0,0 +1,596 @@
+package storage;
+
+import camp.CampController;
+import user.Staff;
+import user.Student;
+import user.StudentCommittee;
+import user.User;
+import user.UserController;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Binary snapshot of users and camps, read through a memory mapping.
+ * <p>
+ * Layout, all numbers are big-endian 32-bit integers:
+ * <ul>
+ *     <li>Header: magic, version, user count, camp count, offsets of the user table, camp table, camp area and string heap,
+ *     base generation (64-bit), deleted camp count, offset of the deleted camp table and offset of the ballots.</li>
+ *     <li>User table: one fixed-width record per user, sorted by the UTF-8 bytes of the User Identification String,
+ *     holding the type and first login flag followed by the heap offsets of ID, name, password and faculty.</li>
+ *     <li>Camp table: offset of each camp record within the camp area.</li>
+ *     <li>Camp area: camp records as written by {@link CampController}, see {@link SnapshotWriter},
+ *     followed by the open ballots with their choices.</li>
+ *     <li>Deleted camp table: IDs of camps of the base snapshot which no longer exist.</li>
+ *     <li>String heap: length-prefixed UTF-8 strings.</li>
+ * </ul>
+ * A user can be found by binary search over the user table, so logins are served straight from the mapping
+ * and a user only becomes an object once it is needed.
+ * <p>
+ * Snapshots are written as numbered generations into a directory and never replaced in place.
+ * A full snapshot holds everything. A delta snapshot names a full snapshot as its base and only holds the users and camps
+ * changed since then, so a checkpoint costs as much as the changes rather than the whole roster.
+ * Deltas are cumulative, the state is always the newest generation laid over its base.
+ * Ballots are few, so every snapshot holds all the open ones and they are read from the newest.
+ */
+public final class Snapshot {
+    /**
+     * Identifies a snapshot file, "CAMS" in ASCII.
+     */
+    private static final int MAGIC = 0x43414D53;
+
+    /**
+     * Version of the layout written. Version 2 added delta snapshots, version 3 the waitlist at the end of camp records,
+     * and version 4 the ballots.
+     */
+    private static final int VERSION = 4;
+
+    /**
+     * Size of the header in bytes.
+     */
+    private static final int HEADER_SIZE = 52;
+
+    /**
+     * Size of the header of version 1, which had no base generation or deleted camps.
+     */
+    private static final int HEADER_SIZE_V1 = 32;
+
+    /**
+     * Size of a user record in bytes.
+     */
+    private static final int USER_RECORD_SIZE = 20;
+
+    /**
+     * Extension of snapshot files.
+     */
+    private static final String SUFFIX = ".snapshot";
+
+    /**
+     * Type codes of users.
+     */
+    private static final byte STUDENT = 0, STUDENT_COMMITTEE = 1, STAFF = 2;
+
+    /**
+     * Mapped contents of the file.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * Generation of this snapshot.
+     */
+    private final long generation;
+
+    /**
+     * Version of the layout of this snapshot.
+     */
+    private final int version;
+
+    /**
+     * Number of users.
+     */
+    private final int userCount;
+
+    /**
+     * Number of camps.
+     */
+    private final int campCount;
+
+    /**
+     * Offset of the user table.
+     */
+    private final int userTable;
+
+    /**
+     * Offset of the camp table.
+     */
+    private final int campTable;
+
+    /**
+     * Offset of the camp area.
+     */
+    private final int campArea;
+
+    /**
+     * Offset of the string heap.
+     */
+    private final int heap;
+
+    /**
+     * Generation of the base snapshot, 0 for a full snapshot.
+     */
+    private final long base;
+
+    /**
+     * Number of deleted camps.
+     */
+    private final int deletedCount;
+
+    /**
+     * Offset of the deleted camp table.
+     */
+    private final int deletedTable;
+
+    /**
+     * Offset of the ballots, -1 if the snapshot has none.
+     */
+    private final int ballotArea;
+
+    /**
+     * Constructor, checks the header.
+     * @param buffer Mapped contents of the file
+     * @param generation Generation of the snapshot
+     * @throws IOException if the file is not a snapshot of a supported version
+     */
+    private Snapshot(ByteBuffer buffer, long generation) throws IOException {
+        this.buffer = buffer;
+        this.generation = generation;
+        if (buffer.capacity() < HEADER_SIZE_V1 || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a snapshot file.");
+        }
+        version = buffer.getInt(4);
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unsupported snapshot version " + version);
+        }
+        userCount = buffer.getInt(8);
+        campCount = buffer.getInt(12);
+        userTable = buffer.getInt(16);
+        campTable = buffer.getInt(20);
+        campArea = buffer.getInt(24);
+        heap = buffer.getInt(28);
+        if (version == 1) {
+            base = 0;
+            deletedCount = 0;
+            deletedTable = 0;
+        } else {
+            base = buffer.getLong(32);
+            deletedCount = buffer.getInt(40);
+            deletedTable = buffer.getInt(44);
+        }
+        ballotArea = version >= 4 ? buffer.getInt(48) : -1;
+    }
+
+    /**
+     * Map a snapshot file.
+     * @param path Location of the file
+     * @return The snapshot
+     * @throws IOException if the file cannot be mapped or is not a snapshot
+     */
+    public static Snapshot open(Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new Snapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), generation(path));
+        }
+    }
+
+    /**
+     * Map the newest state in a directory: the newest snapshot, followed by its base if it is a delta.
+     * @param directory Directory holding the snapshots
+     * @return The snapshots, newest first, empty if there are none
+     * @throws IOException if a snapshot cannot be mapped, or the base of a delta is missing
+     */
+    public static List<Snapshot> chain(String directory) throws IOException {
+        var snapshots = list(Path.of(directory));
+        if (snapshots.isEmpty()) {
+            return List.of();
+        }
+        var newest = open(snapshots.get(snapshots.size() - 1));
+        if (!newest.isDelta()) {
+            return List.of(newest);
+        }
+        var base = Path.of(directory).resolve(String.format("%012d%s", newest.base, SUFFIX));
+        if (!Files.exists(base)) {
+            throw new IOException("Base of snapshot " + newest.generation + " is missing: " + base);
+        }
+        return List.of(newest, open(base));
+    }
+
+    /**
+     * Write every user and camp of the controllers as the next generation in a directory.
+     * The file only gets its final name once it is complete.
+     * @param directory Directory holding the snapshots
+     * @param userController Controller for User
+     * @param campController Controller for Camp
+     * @return Location of the new snapshot
+     * @throws IOException if the snapshot cannot be written
+     */
+    public static Path write(String directory, UserController userController, CampController campController) throws IOException {
+        var writer = new SnapshotWriter(userController);
+        for (var user: userController.getAllUsers()) {
+            writer.addUser(user);
+        }
+        CampController.writeTo(writer, campController, userController);
+        return write(Path.of(directory), 0, writer);
+    }
+
+    /**
+     * Write the users and camps changed since a full snapshot as the next generation in a directory.
+     * Users referred to by a changed camp are written along with it.
+     * @param directory Directory holding the snapshots
+     * @param base Full snapshot the controllers were loaded from
+     * @param userController Controller for User
+     * @param campController Controller for Camp
+     * @return Location of the new snapshot
+     * @throws IOException if the snapshot cannot be written
+     */
+    public static Path writeDelta(String directory, Snapshot base, UserController userController, CampController campController) throws IOException {
+        if (base.isDelta()) {
+            throw new IllegalArgumentException("Base of a delta must be a full snapshot.");
+        }
+        var writer = new SnapshotWriter(userController);
+        for (var user: userController.getChangedUsers()) {
+            writer.addUser(user);
+        }
+        CampController.writeChangesTo(writer, campController, userController);
+        return write(Path.of(directory), base.generation, writer);
+    }
+
+    /**
+     * Write the contents of a writer as the next generation in a directory.
+     * @param dir Directory holding the snapshots
+     * @param base Generation of the base snapshot, 0 for a full snapshot
+     * @param writer Writer holding the camps and users
+     * @return Location of the new snapshot
+     * @throws IOException if the snapshot cannot be written
+     */
+    private static Path write(Path dir, long base, SnapshotWriter writer) throws IOException {
+        Files.createDirectories(dir);
+        var existing = list(dir);
+        long generation = existing.isEmpty() ? 1 : generation(existing.get(existing.size() - 1)) + 1;
+
+        var users = writer.sortUsers();
+        var records = new int[users.length * 4];
+        for (int i = 0; i < users.length; i++) {
+            var user = users[i];
+            records[i * 4] = writer.string(user.getUserID());
+            records[i * 4 + 1] = writer.string(user.getName());
+            records[i * 4 + 2] = writer.string(user.getPassword());
+            records[i * 4 + 3] = writer.string(user.getFaculty());
+        }
+        var deletedCamps = writer.deletedCamps();
+        var heapBytes = writer.heap();
+
+        int userTable = HEADER_SIZE;
+        int campTable = userTable + users.length * USER_RECORD_SIZE;
+        int campArea = campTable + writer.campCount() * 4;
+        int deletedTable = campArea + writer.size() * 4;
+        int heap = deletedTable + deletedCamps.size() * 4;
+        if ((long) heap + heapBytes.length > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot too large.");
+        }
+
+        var temp = dir.resolve(String.format("%012d%s.tmp", generation, SUFFIX));
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(users.length);
+            out.writeInt(writer.campCount());
+            out.writeInt(userTable);
+            out.writeInt(campTable);
+            out.writeInt(campArea);
+            out.writeInt(heap);
+            out.writeLong(base);
+            out.writeInt(deletedCamps.size());
+            out.writeInt(deletedTable);
+            out.writeInt(writer.ballotStart() < 0 ? -1 : campArea + writer.ballotStart() * 4);
+            for (int i = 0; i < users.length; i++) {
+                var user = users[i];
+                out.writeByte(user instanceof StudentCommittee ? STUDENT_COMMITTEE : user instanceof Student ? STUDENT : STAFF);
+                out.writeByte(user.isFirstLogin() ? 1 : 0);
+                out.writeShort(0);
+                for (int j = 0; j < 4; j++) {
+                    out.writeInt(records[i * 4 + j]);
+                }
+            }
+            var campStarts = writer.campStarts();
+            for (int i = 0; i < writer.campCount(); i++) {
+                out.writeInt(campStarts[i] * 4);
+            }
+            var values = writer.values();
+            for (int i = 0; i < writer.size(); i++) {
+                out.writeInt(values[i]);
+            }
+            for (var id: deletedCamps) {
+                out.writeInt(id);
+            }
+            out.write(heapBytes);
+        }
+        try (var channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        var target = dir.resolve(String.format("%012d%s", generation, SUFFIX));
+        Files.move(temp, target);
+        return target;
+    }
+
+    /**
+     * Delete every snapshot in a directory older than the given one, except its base.
+     * Deleting may fail while an old snapshot is still mapped on some platforms, it is then retried next time.
+     * @param directory Directory holding the snapshots
+     * @param keep Location of the newest snapshot, which is kept
+     * @throws IOException if the directory cannot be listed or the newest snapshot cannot be read
+     */
+    public static void deleteOlder(String directory, Path keep) throws IOException {
+        long keepGeneration = generation(keep);
+        long keepBase = open(keep).base;
+        for (var snapshot: list(Path.of(directory))) {
+            if (generation(snapshot) < keepGeneration && generation(snapshot) != keepBase) {
+                try {
+                    Files.delete(snapshot);
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    /**
+     * Generation of this snapshot.
+     * @return Generation number
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Version of the layout of this snapshot, so that records written by older versions can still be read.
+     * @return Version number
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Whether this snapshot only holds changes made since its base.
+     * @return True for a delta snapshot, false for a full snapshot
+     */
+    public boolean isDelta() {
+        return base != 0;
+    }
+
+    /**
+     * IDs of camps of the base snapshot which were deleted, always empty for a full snapshot.
+     * @return Deleted camp IDs
+     */
+    public int[] deletedCamps() {
+        var ids = new int[deletedCount];
+        for (int i = 0; i < deletedCount; i++) {
+            ids[i] = buffer.getInt(deletedTable + i * 4);
+        }
+        return ids;
+    }
+
+    /**
+     * Number of users in this snapshot.
+     * @return Number of users
+     */
+    public int userCount() {
+        return userCount;
+    }
+
+    /**
+     * Number of camps in this snapshot.
+     * @return Number of camps
+     */
+    public int campCount() {
+        return campCount;
+    }
+
+    /**
+     * Find the record of a user by binary search.
+     * @param userID User Identification String
+     * @return Index of the record, -1 if the user is not in this snapshot
+     */
+    public int findUser(String userID) {
+        var key = userID.getBytes(StandardCharsets.UTF_8);
+        int low = 0, high = userCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compare(buffer.getInt(userTable + mid * USER_RECORD_SIZE + 4), key);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * User Identification String of a record, without reading the rest of it.
+     * @param index Index of the record
+     * @return User Identification String
+     */
+    public String userID(int index) {
+        return string(buffer.getInt(userTable + index * USER_RECORD_SIZE + 4));
+    }
+
+    /**
+     * Create the user of a record. Committee members are created as students,
+     * they are converted when their camp is loaded.
+     * @param index Index of the record
+     * @return User of the record
+     */
+    public User readUser(int index) {
+        int record = userTable + index * USER_RECORD_SIZE;
+        var userID = string(buffer.getInt(record + 4));
+        var name = string(buffer.getInt(record + 8));
+        var password = string(buffer.getInt(record + 12));
+        var faculty = string(buffer.getInt(record + 16));
+        User user = buffer.get(record) == STAFF
+                ? new Staff(name, userID, password, faculty)
+                : new Student(name, userID, password, faculty);
+        if (buffer.get(record + 1) != 0) {
+            user.enableFirstLogin();
+        }
+        return user;
+    }
+
+    /**
+     * Start reading the record of a camp.
+     * @param index Index of the camp
+     * @return Cursor at the first value of the record
+     */
+    public Cursor camp(int index) {
+        return new Cursor(campArea + buffer.getInt(campTable + index * 4));
+    }
+
+    /**
+     * Start reading the ballots.
+     * @return Cursor at the first value of the ballots, null if this snapshot has none
+     */
+    public Cursor ballots() {
+        return ballotArea < 0 ? null : new Cursor(ballotArea);
+    }
+
+    /**
+     * Reads the values of a camp record or the ballots in the order they were written by {@link SnapshotWriter}.
+     */
+    public final class Cursor {
+        /**
+         * Offset of the next value.
+         */
+        private int position;
+
+        /**
+         * Constructor
+         * @param position Offset of the first value
+         */
+        private Cursor(int position) {
+            this.position = position;
+        }
+
+        /**
+         * Read a number.
+         * @return The number
+         */
+        public int nextInt() {
+            int value = buffer.getInt(position);
+            position += 4;
+            return value;
+        }
+
+        /**
+         * Read a flag.
+         * @return The flag
+         */
+        public boolean nextBoolean() {
+            return nextInt() != 0;
+        }
+
+        /**
+         * Read a date.
+         * @return The date
+         */
+        public LocalDate nextDate() {
+            return LocalDate.ofEpochDay(nextInt());
+        }
+
+        /**
+         * Read a string.
+         * @return The string, may be null
+         */
+        public String nextString() {
+            return string(nextInt());
+        }
+
+        /**
+         * Read a reference to a user.
+         * @return Index of the user's record
+         */
+        public int nextUser() {
+            return nextInt();
+        }
+    }
+
+    /**
+     * Decode a string from the heap.
+     * @param offset Offset in the heap, -1 for null
+     * @return The string
+     */
+    private String string(int offset) {
+        if (offset < 0) {
+            return null;
+        }
+        int length = buffer.getInt(heap + offset);
+        var bytes = new byte[length];
+        buffer.get(heap + offset + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compare a string in the heap against a key, byte by byte without decoding it.
+     * @param offset Offset of the string in the heap
+     * @param key UTF-8 bytes of the key
+     * @return Negative, zero or positive as the string is less than, equal to or greater than the key
+     */
+    private int compare(int offset, byte[] key) {
+        int length = buffer.getInt(heap + offset);
+        int start = heap + offset + 4;
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            int cmp = Byte.compareUnsigned(buffer.get(start + i), key[i]);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(length, key.length);
+    }
+
+    /**
+     * List the snapshots in a directory, oldest first.
+     * @param directory Directory holding the snapshots
+     * @return Locations of the snapshots
+     * @throws IOException if the directory cannot be listed
+     */
+    private static List<Path> list(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(SUFFIX))
+                    .sorted((o1, o2) -> Long.compare(generation(o1), generation(o2)))
+                    .toList();
+        }
+    }
+
+    /**
+     * Generation of a snapshot from its file name.
+     * @param snapshot Location of the snapshot
+     * @return Generation number
+     */
+    private static long generation(Path snapshot) {
+        var name = snapshot.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+}
@@ -0,0 +1,293 @@
+package storage;
+
+import user.User;
+import user.UserController;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Collects the camp records and strings of a snapshot while it is being written.
+ * Every value of a camp record takes four bytes: strings are written as offsets into a shared,
+ * de-duplicated string heap and users as the index of their fixed-width record.
+ * Values are read back in the same order with a {@link Snapshot.Cursor}.
+ * Users are numbered in the order they are added until the camps are written, the user table is then sorted
+ * and every reference is renumbered to the sorted position.
+ */
+public final class SnapshotWriter {
+    /**
+     * Controller for User, used to find users which are referred to but were not added.
+     */
+    private final UserController userController;
+
+    /**
+     * Users of the user table, in the order they were added.
+     */
+    private final List<User> users = new ArrayList<>();
+
+    /**
+     * Number given to each user added, by User Identification String.
+     */
+    private final Map<String, Integer> userIndex = new HashMap<>();
+
+    /**
+     * Offset of each string already in the heap.
+     */
+    private final Map<String, Integer> strings = new HashMap<>();
+
+    /**
+     * Heap of length-prefixed UTF-8 strings.
+     */
+    private final ByteArrayOutputStream heap = new ByteArrayOutputStream();
+
+    /**
+     * Values of all camp records, one after the other.
+     */
+    private int[] values = new int[1024];
+
+    /**
+     * Number of values written.
+     */
+    private int size = 0;
+
+    /**
+     * Index into values at which each camp record starts.
+     */
+    private int[] campStarts = new int[64];
+
+    /**
+     * Number of camp records started.
+     */
+    private int campCount = 0;
+
+    /**
+     * Index into values of each user reference, renumbered once the user table is sorted.
+     */
+    private int[] userRefs = new int[1024];
+
+    /**
+     * Number of user references written.
+     */
+    private int userRefCount = 0;
+
+    /**
+     * IDs of camps deleted since the base snapshot, only written to delta snapshots.
+     */
+    private final List<Integer> deletedCamps = new ArrayList<>();
+
+    /**
+     * Index into values at which the ballots start, -1 until they are begun.
+     */
+    private int ballotStart = -1;
+
+    /**
+     * Constructor
+     * @param userController Controller for User, used to find users which are referred to but were not added
+     */
+    SnapshotWriter(UserController userController) {
+        this.userController = userController;
+    }
+
+    /**
+     * Add a user to the user table. Does nothing if already added.
+     * @param user User to be added
+     * @return Number of the user until the table is sorted
+     */
+    int addUser(User user) {
+        var index = userIndex.get(user.getUserID());
+        if (index == null) {
+            index = users.size();
+            users.add(user);
+            userIndex.put(user.getUserID(), index);
+        }
+        return index;
+    }
+
+    /**
+     * Start the record of the next camp.
+     */
+    public void beginCamp() {
+        if (campCount == campStarts.length) {
+            campStarts = Arrays.copyOf(campStarts, campCount * 2);
+        }
+        campStarts[campCount++] = size;
+    }
+
+    /**
+     * Write a number.
+     * @param value Number to be written
+     */
+    public void writeInt(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    /**
+     * Write a flag.
+     * @param value Flag to be written
+     */
+    public void writeBoolean(boolean value) {
+        writeInt(value ? 1 : 0);
+    }
+
+    /**
+     * Write a date.
+     * @param date Date to be written
+     */
+    public void writeDate(LocalDate date) {
+        writeInt((int) date.toEpochDay());
+    }
+
+    /**
+     * Write a string, which may be null.
+     * @param value String to be written
+     */
+    public void writeString(String value) {
+        writeInt(string(value));
+    }
+
+    /**
+     * Write a reference to a user, adding the user to the user table if not there yet.
+     * @param userID User Identification String of the user
+     * @throws NoSuchElementException if there is no such user
+     */
+    public void writeUser(String userID) throws NoSuchElementException {
+        var index = userIndex.get(userID);
+        if (index == null) {
+            index = addUser(userController.getUser(userID));
+        }
+        if (userRefCount == userRefs.length) {
+            userRefs = Arrays.copyOf(userRefs, userRefCount * 2);
+        }
+        userRefs[userRefCount++] = size;
+        writeInt(index);
+    }
+
+    /**
+     * Start the ballots, written with the same methods as camps once every camp has been written.
+     */
+    public void beginBallots() {
+        ballotStart = size;
+    }
+
+    /**
+     * Record that a camp of the base snapshot no longer exists.
+     * @param id ID of the camp
+     */
+    public void deleteCamp(int id) {
+        deletedCamps.add(id);
+    }
+
+    /**
+     * Sort the user table by the UTF-8 bytes of the User Identification String and renumber every reference.
+     * Called once every camp has been written.
+     * @return Users of the user table, in sorted order
+     */
+    User[] sortUsers() {
+        var keys = new byte[users.size()][];
+        var order = new Integer[users.size()];
+        for (int i = 0; i < order.length; i++) {
+            keys[i] = users.get(i).getUserID().getBytes(StandardCharsets.UTF_8);
+            order[i] = i;
+        }
+        Arrays.sort(order, (o1, o2) -> Arrays.compareUnsigned(keys[o1], keys[o2]));
+        var sorted = new User[order.length];
+        var position = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            sorted[i] = users.get(order[i]);
+            position[order[i]] = i;
+        }
+        for (int i = 0; i < userRefCount; i++) {
+            values[userRefs[i]] = position[values[userRefs[i]]];
+        }
+        return sorted;
+    }
+
+    /**
+     * Offset of a string in the heap, adding it if not there yet.
+     * @param value String to be stored, may be null
+     * @return Offset of the string, -1 for null
+     */
+    int string(String value) {
+        if (value == null) {
+            return -1;
+        }
+        var offset = strings.get(value);
+        if (offset == null) {
+            offset = heap.size();
+            var bytes = value.getBytes(StandardCharsets.UTF_8);
+            heap.write(bytes.length >>> 24);
+            heap.write(bytes.length >>> 16);
+            heap.write(bytes.length >>> 8);
+            heap.write(bytes.length);
+            heap.write(bytes, 0, bytes.length);
+            strings.put(value, offset);
+        }
+        return offset;
+    }
+
+    /**
+     * Values of all camp records.
+     * @return Values array, valid up to {@link #size()}
+     */
+    int[] values() {
+        return values;
+    }
+
+    /**
+     * Number of values written.
+     * @return Number of values
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Index into the values at which each camp record starts.
+     * @return Starts array, valid up to {@link #campCount()}
+     */
+    int[] campStarts() {
+        return campStarts;
+    }
+
+    /**
+     * Number of camp records.
+     * @return Number of camps
+     */
+    int campCount() {
+        return campCount;
+    }
+
+    /**
+     * Index into the values at which the ballots start.
+     * @return Start of the ballots, -1 if none were written
+     */
+    int ballotStart() {
+        return ballotStart;
+    }
+
+    /**
+     * IDs of camps deleted since the base snapshot.
+     * @return Deleted camp IDs
+     */
+    List<Integer> deletedCamps() {
+        return deletedCamps;
+    }
+
+    /**
+     * Contents of the string heap.
+     * @return Heap bytes
+     */
+    byte[] heap() {
+        return heap.toByteArray();
+    }
+}
@@ -0,0 +1,495 @@
+package tools;
+
+import camp.CampController;
+import user.UserController;
+import utils.Csv;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+
+/**
+ * Generates synthetic rosters and camps for benchmarks and soak tests, from 1k to 1M users and 100 to 100k camps.
+ * Writes {@code student_list.csv} and {@code staff_list.csv} in the roster format and {@code camps.csv} in the format of
+ * {@link CampController#writeTo(String, CampController, UserController)}, one line at a time, so that only the
+ * schedule of each student is held in memory.
+ * <p>
+ * Students are spread over faculties by weight, one user in fifty is staff, about a third of camps are open only to
+ * the faculty of their staff in charge, and camps start through a year and last one to seven days, so they overlap.
+ * Members are drawn from the students the camp is open to, never into camps overlapping those they already attend,
+ * at most one committee per student, and never over the slots of the camp. The same seed gives the same files.
+ */
+public final class DatasetGenerator {
+    /**
+     * Faculties students and staff belong to.
+     */
+    private static final String[] FACULTIES = {"SCSE", "EEE", "NBS", "ADM", "SSS", "MAE", "SPMS", "CEE", "SOH"};
+
+    /**
+     * Share of users in each faculty, in the order of {@link #FACULTIES}.
+     */
+    private static final double[] FACULTY_WEIGHTS = {0.20, 0.15, 0.18, 0.06, 0.08, 0.12, 0.10, 0.07, 0.04};
+
+    /**
+     * Surnames names and user IDs are made from.
+     */
+    private static final String[] SURNAMES = {"TAN", "LIM", "LEE", "NG", "ONG", "WONG", "GOH", "CHUA", "CHAN", "KOH",
+            "TEO", "ANG", "YEO", "TAY", "HO", "LOW", "TOH", "SIM", "CHONG", "CHIA", "KUMAR", "RAJ", "SINGH", "AHMAD"};
+
+    /**
+     * Locations camps are held at.
+     */
+    private static final String[] LOCATIONS = {"NTU", "Sentosa", "Pulau Ubin", "East Coast Park", "MacRitchie",
+            "Jurong Lake", "Changi", "Bukit Timah", "Marina Bay", "Punggol"};
+
+    /**
+     * Subjects of camp names.
+     */
+    private static final String[] THEMES = {"Orientation", "Leadership", "Outdoor", "Coding", "Robotics", "Arts",
+            "Sports", "Service", "Entrepreneurship", "Music", "Film", "Debate", "Sustainability", "Cultural"};
+
+    /**
+     * Questions students ask in enquiries.
+     */
+    private static final String[] ENQUIRIES = {"Is transport provided?", "What should I bring?", "Are meals halal?",
+            "Can I leave early on the last day?", "Is there an attire requirement?", "Where do we meet?"};
+
+    /**
+     * Ideas committee members put in suggestions.
+     */
+    private static final String[] SUGGESTIONS = {"Add a night walk.", "Move the briefing earlier.", "Change the venue to a larger hall.",
+            "Extend the registration by a week.", "Add a vegetarian meal option.", "Shorten the opening talk."};
+
+    /**
+     * One user in this many is staff.
+     */
+    private static final int STUDENTS_PER_STAFF = 50;
+
+    /**
+     * Seed of every random choice.
+     */
+    private final long seed;
+
+    /**
+     * Number of users, students and staff.
+     */
+    private final int users;
+
+    /**
+     * Number of camps.
+     */
+    private final int camps;
+
+    /**
+     * First day camps can start on.
+     */
+    private LocalDate firstDay = LocalDate.of(2030, 1, 1);
+
+    /**
+     * Average number of enquiries of each camp.
+     */
+    private double enquiriesPerCamp = 3;
+
+    /**
+     * Average number of suggestions of each committee member.
+     */
+    private double suggestionsPerCommittee = 1;
+
+    /**
+     * Constructor
+     * @param seed Seed of every random choice
+     * @param users Number of users, students and staff
+     * @param camps Number of camps
+     */
+    public DatasetGenerator(long seed, int users, int camps) {
+        if (users < 2 || camps < 0) {
+            throw new IllegalArgumentException("Need at least one student and one staff, and no negative number of camps.");
+        }
+        this.seed = seed;
+        this.users = users;
+        this.camps = camps;
+    }
+
+    /**
+     * Setter
+     * @param firstDay First day camps can start on, the registration of some closing before it
+     */
+    public void setFirstDay(LocalDate firstDay) {
+        this.firstDay = firstDay;
+    }
+
+    /**
+     * Setter
+     * @param enquiriesPerCamp Average number of enquiries of each camp
+     */
+    public void setEnquiriesPerCamp(double enquiriesPerCamp) {
+        this.enquiriesPerCamp = enquiriesPerCamp;
+    }
+
+    /**
+     * Setter
+     * @param suggestionsPerCommittee Average number of suggestions of each committee member
+     */
+    public void setSuggestionsPerCommittee(double suggestionsPerCommittee) {
+        this.suggestionsPerCommittee = suggestionsPerCommittee;
+    }
+
+    /**
+     * Write the rosters and camps into a directory, creating it if needed.
+     * @param directory Directory to write student_list.csv, staff_list.csv and camps.csv into
+     * @throws IOException if a file cannot be written
+     */
+    public void writeTo(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        var random = new Random(seed);
+        int staffCount = Math.max(1, users / STUDENTS_PER_STAFF);
+        int studentCount = users - staffCount;
+
+        var studentFaculties = new byte[studentCount];
+        var facultySizes = new int[FACULTIES.length];
+        try (var writer = Files.newBufferedWriter(directory.resolve("student_list.csv"), StandardCharsets.UTF_8)) {
+            writer.write("Name,Email,Faculty");
+            writer.newLine();
+            for (int i = 0; i < studentCount; i++) {
+                int faculty = pickFaculty(random);
+                studentFaculties[i] = (byte) faculty;
+                facultySizes[faculty]++;
+                writeRosterLine(writer, i, studentID(i), "@e.ntu.edu.sg", FACULTIES[faculty]);
+            }
+        }
+        var staffFaculties = new byte[staffCount];
+        try (var writer = Files.newBufferedWriter(directory.resolve("staff_list.csv"), StandardCharsets.UTF_8)) {
+            writer.write("Name,Email,Faculty");
+            writer.newLine();
+            for (int i = 0; i < staffCount; i++) {
+                int faculty = pickFaculty(random);
+                staffFaculties[i] = (byte) faculty;
+                writeRosterLine(writer, i, staffID(i), "@ntu.edu.sg", FACULTIES[faculty]);
+            }
+        }
+
+        var byFaculty = new int[FACULTIES.length][];
+        for (int f = 0; f < FACULTIES.length; f++) {
+            byFaculty[f] = new int[facultySizes[f]];
+        }
+        var filled = new int[FACULTIES.length];
+        for (int i = 0; i < studentCount; i++) {
+            byFaculty[studentFaculties[i]][filled[studentFaculties[i]]++] = i;
+        }
+
+        var schedules = new Schedules(studentCount);
+        var committees = new BitSet(studentCount);
+        try (var writer = Files.newBufferedWriter(directory.resolve("camps.csv"), StandardCharsets.UTF_8)) {
+            for (int id = 0; id < camps; id++) {
+                writeCamp(writer, random, id, staffFaculties, byFaculty, studentCount, schedules, committees);
+            }
+        }
+    }
+
+    /**
+     * Load rosters written by {@link #writeTo(Path)} into a new controller, through the roster loaders.
+     * @param directory Directory written to
+     * @return Controller holding the users
+     */
+    public static UserController loadUsers(Path directory) {
+        var userController = new UserController();
+        userController.addStudents(directory.resolve("student_list.csv").toString());
+        userController.addStaff(directory.resolve("staff_list.csv").toString());
+        return userController;
+    }
+
+    /**
+     * Load camps written by {@link #writeTo(Path)} into a new controller, linking their members.
+     * @param directory Directory written to
+     * @param userController Controller holding the users, from {@link #loadUsers(Path)}
+     * @return Controller holding the camps
+     */
+    public static CampController loadCamps(Path directory, UserController userController) {
+        return CampController.loadFrom(directory.resolve("camps.csv").toString(), userController)
+                .orElseThrow(() -> new RuntimeException("Could not load " + directory.resolve("camps.csv")));
+    }
+
+    /**
+     * Write one camp with its members, enquiries and suggestions.
+     * @param writer Writer of camps.csv
+     * @param random Source of random choices
+     * @param id ID of the camp
+     * @param staffFaculties Faculty of each staff
+     * @param byFaculty Students of each faculty
+     * @param studentCount Number of students
+     * @param schedules Camps each student attends so far
+     * @param committees Students already committee members
+     * @throws IOException if the file cannot be written
+     */
+    private void writeCamp(BufferedWriter writer, Random random, int id, byte[] staffFaculties, int[][] byFaculty, int studentCount,
+                           Schedules schedules, BitSet committees) throws IOException {
+        int staff = random.nextInt(staffFaculties.length);
+        boolean facultyOnly = random.nextInt(3) == 0;
+        int faculty = staffFaculties[staff];
+        int startDay = random.nextInt(365);
+        int endDay = startDay + (random.nextInt(4) == 0 ? 2 + random.nextInt(5) : random.nextInt(3));
+        var start = firstDay.plusDays(startDay);
+        int totalSlots = (int) Math.max(10, Math.min(500, Math.exp(3.5 + random.nextGaussian() * 0.7)));
+        int committeeSlots = Math.max(1, Math.min(10, totalSlots / 10));
+        boolean visible = random.nextInt(10) != 0;
+        var theme = THEMES[random.nextInt(THEMES.length)];
+        writer.write(Csv.join("camp.Camp", String.valueOf(id), theme + " Camp " + id, start.toString(), firstDay.plusDays(endDay).toString(),
+                start.minusDays(7 + random.nextInt(24)).toString(), facultyOnly ? FACULTIES[faculty] : "NTU",
+                LOCATIONS[random.nextInt(LOCATIONS.length)], String.valueOf(totalSlots), String.valueOf(committeeSlots),
+                theme + " activities for " + (facultyOnly ? FACULTIES[faculty] : "all") + " students.", staffID(staff), String.valueOf(visible)));
+        writer.newLine();
+        if (!visible) {
+            return;
+        }
+
+        int poolSize = facultyOnly ? byFaculty[faculty].length : studentCount;
+        if (poolSize == 0) {
+            return;
+        }
+        int members = (int) Math.round(totalSlots * (0.2 + 0.8 * random.nextDouble()));
+        int committeeTarget = Math.min(members, (int) Math.ceil(committeeSlots * (0.5 + 0.5 * random.nextDouble())));
+        var committeeMembers = new int[committeeTarget];
+        int committeeCount = 0;
+        for (int tries = 0; committeeCount < committeeTarget && tries < committeeTarget * 8; tries++) {
+            int student = pick(random, facultyOnly, byFaculty[faculty], studentCount);
+            if (!committees.get(student) && schedules.add(student, startDay, endDay)) {
+                committees.set(student);
+                committeeMembers[committeeCount++] = student;
+            }
+        }
+        int attendeeTarget = members - committeeCount;
+        var attendees = new int[attendeeTarget];
+        int attendeeCount = 0;
+        for (int tries = 0; attendeeCount < attendeeTarget && tries < attendeeTarget * 4; tries++) {
+            int student = pick(random, facultyOnly, byFaculty[faculty], studentCount);
+            if (schedules.add(student, startDay, endDay)) {
+                attendees[attendeeCount++] = student;
+            }
+        }
+
+        for (int i = 0; i < attendeeCount; i++) {
+            writer.write(Csv.join("attendee", studentID(attendees[i])));
+            writer.newLine();
+        }
+        var suggestionCounts = new int[committeeCount];
+        for (int i = 0; i < committeeCount; i++) {
+            suggestionCounts[i] = poisson(random, suggestionsPerCommittee);
+            writer.write(Csv.join("committee", studentID(committeeMembers[i]), String.valueOf(suggestionCounts[i])));
+            writer.newLine();
+        }
+        int left = random.nextInt(50) == 0 ? 1 + random.nextInt(3) : 0;
+        for (int i = 0; i < left; i++) {
+            int student = pick(random, facultyOnly, byFaculty[faculty], studentCount);
+            if (!schedules.overlaps(student, startDay, endDay)) {
+                writer.write(Csv.join("left", studentID(student)));
+                writer.newLine();
+            }
+        }
+
+        int postID = 0;
+        int enquiries = poisson(random, enquiriesPerCamp);
+        for (int i = 0; i < enquiries; i++) {
+            var author = studentID(pick(random, facultyOnly, byFaculty[faculty], studentCount));
+            var message = ENQUIRIES[random.nextInt(ENQUIRIES.length)];
+            writer.write(random.nextInt(5) < 3
+                    ? Csv.join("enquiry", String.valueOf(postID++), author, message, "Please refer to the camp briefing.")
+                    : Csv.join("enquiry", String.valueOf(postID++), author, message));
+            writer.newLine();
+        }
+        for (int i = 0; i < committeeCount; i++) {
+            for (int j = 0; j < suggestionCounts[i]; j++) {
+                writer.write(Csv.join("suggestion", String.valueOf(postID++), studentID(committeeMembers[i]), SUGGESTIONS[random.nextInt(SUGGESTIONS.length)]));
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Pick a random student a camp is open to.
+     * @param random Source of random choices
+     * @param facultyOnly Whether the camp is only open to one faculty
+     * @param faculty Students of that faculty
+     * @param studentCount Number of students
+     * @return Index of the student
+     */
+    private static int pick(Random random, boolean facultyOnly, int[] faculty, int studentCount) {
+        return facultyOnly ? faculty[random.nextInt(faculty.length)] : random.nextInt(studentCount);
+    }
+
+    /**
+     * Pick a faculty by its weight.
+     * @param random Source of random choices
+     * @return Index of the faculty
+     */
+    private static int pickFaculty(Random random) {
+        double r = random.nextDouble();
+        for (int f = 0; f < FACULTY_WEIGHTS.length - 1; f++) {
+            r -= FACULTY_WEIGHTS[f];
+            if (r < 0) {
+                return f;
+            }
+        }
+        return FACULTY_WEIGHTS.length - 1;
+    }
+
+    /**
+     * Draw a count from a Poisson distribution.
+     * @param random Source of random choices
+     * @param mean Mean of the distribution
+     * @return The count
+     */
+    private static int poisson(Random random, double mean) {
+        double limit = Math.exp(-mean);
+        double product = random.nextDouble();
+        int count = 0;
+        while (product > limit) {
+            product *= random.nextDouble();
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * User Identification String of a generated student, a surname followed by the index of the student.
+     * @param index Index of the student
+     * @return User Identification String
+     */
+    static String studentID(int index) {
+        return SURNAMES[index % SURNAMES.length] + index;
+    }
+
+    /**
+     * User Identification String of a generated staff.
+     * @param index Index of the staff
+     * @return User Identification String
+     */
+    static String staffID(int index) {
+        return "STF" + SURNAMES[index % SURNAMES.length] + index;
+    }
+
+    /**
+     * Write a row of a roster.
+     * @param writer Writer of the roster
+     * @param index Index of the user, which with its surname makes its name
+     * @param userID User Identification String, the part of the email before the @
+     * @param domain Domain of the email
+     * @param faculty Faculty of the user
+     * @throws IOException if the file cannot be written
+     */
+    private static void writeRosterLine(BufferedWriter writer, int index, String userID, String domain, String faculty) throws IOException {
+        writer.write(Csv.join(SURNAMES[index % SURNAMES.length] + " " + index, userID + domain, faculty));
+        writer.newLine();
+    }
+
+    /**
+     * Days taken by the camps each student attends, as start and end day pairs, grown as camps are added.
+     */
+    private static final class Schedules {
+        /**
+         * Start and end day of each camp of each student, null while a student attends none.
+         */
+        private final int[][] days;
+
+        /**
+         * Number of camps of each student.
+         */
+        private final int[] counts;
+
+        /**
+         * Constructor
+         * @param students Number of students
+         */
+        Schedules(int students) {
+            days = new int[students][];
+            counts = new int[students];
+        }
+
+        /**
+         * Check if a student attends a camp overlapping some days.
+         * @param student Index of the student
+         * @param start First day
+         * @param end Last day
+         * @return True if they overlap
+         */
+        boolean overlaps(int student, int start, int end) {
+            var taken = days[student];
+            for (int i = 0; i < counts[student] * 2; i += 2) {
+                if (taken[i] <= end && start <= taken[i + 1]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Add a camp to a student unless it overlaps one they attend.
+         * @param student Index of the student
+         * @param start First day
+         * @param end Last day
+         * @return True if added
+         */
+        boolean add(int student, int start, int end) {
+            if (overlaps(student, start, end)) {
+                return false;
+            }
+            var taken = days[student];
+            int count = counts[student];
+            if (taken == null) {
+                taken = days[student] = new int[4];
+            } else if (taken.length == count * 2) {
+                taken = days[student] = Arrays.copyOf(taken, count * 4);
+            }
+            taken[count * 2] = start;
+            taken[count * 2 + 1] = end;
+            counts[student]++;
+            return true;
+        }
+    }
+
+    /**
+     * Main. Writes a dataset into a directory.
+     * @param args {@code [--users N] [--camps N] [--seed N] [--enquiries MEAN] [--suggestions MEAN] [--first-day DATE] [--out DIR]},
+     * 10000 users, 1000 camps, seed 1 and data/generated by default
+     * @throws IOException if a file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        int users = 10000;
+        int camps = 1000;
+        long seed = 1;
+        var out = Path.of("data", "generated");
+        Double enquiries = null;
+        Double suggestions = null;
+        LocalDate firstDay = null;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--users" -> users = Integer.parseInt(args[i + 1]);
+                case "--camps" -> camps = Integer.parseInt(args[i + 1]);
+                case "--seed" -> seed = Long.parseLong(args[i + 1]);
+                case "--enquiries" -> enquiries = Double.parseDouble(args[i + 1]);
+                case "--suggestions" -> suggestions = Double.parseDouble(args[i + 1]);
+                case "--first-day" -> firstDay = LocalDate.parse(args[i + 1]);
+                case "--out" -> out = Path.of(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        var generator = new DatasetGenerator(seed, users, camps);
+        if (enquiries != null) {
+            generator.setEnquiriesPerCamp(enquiries);
+        }
+        if (suggestions != null) {
+            generator.setSuggestionsPerCommittee(suggestions);
+        }
+        if (firstDay != null) {
+            generator.setFirstDay(firstDay);
+        }
+        long start = System.nanoTime();
+        generator.writeTo(out);
+        System.out.println("Wrote " + users + " users and " + camps + " camps to " + out + " in " + (System.nanoTime() - start) / 1_000_000 + " ms.");
+    }
+}
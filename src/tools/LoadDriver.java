@@ -0,0 +1,418 @@
+package tools;
+
+import camp.CampController;
+import metrics.Metrics;
+import screen.Session;
+import storage.Journal;
+import user.Student;
+import user.StudentCommittee;
+import user.UserController;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs many scripted student sessions at once against the real screens, as on registration day: each logs in,
+ * browses the camps, registers for one of the most popular, sends it an enquiry and logs out.
+ * <p>
+ * Every session runs a {@link Session} on its own thread, reading its input from a script and writing its output
+ * to memory. A line of the script is handed out only when the screens ask for input, so the time from handing out a
+ * line to the next request for input is the time taken by the action it answers, and is recorded under the name of
+ * the action. Offers to join a waitlist or rank a ballot are declined as they come. The report gives, for each action,
+ * how often it ran, how often its output lacked what a success prints, its rate and its latency percentiles.
+ */
+public final class LoadDriver {
+    /**
+     * One line of a script.
+     */
+    private static final class Step {
+        /**
+         * Name of the action the line answers.
+         */
+        final String action;
+
+        /**
+         * Line typed.
+         */
+        final String input;
+
+        /**
+         * Text printed when the action succeeds, null if any output is a success.
+         */
+        final String expect;
+
+        /**
+         * Constructor
+         * @param action Name of the action the line answers
+         * @param input Line typed
+         * @param expect Text printed when the action succeeds, null if any output is a success
+         */
+        Step(String action, String input, String expect) {
+            this.action = action;
+            this.input = input;
+            this.expect = expect;
+        }
+    }
+
+    /**
+     * Latencies and failures of one action, merged from every session when it ends.
+     */
+    private static final class ActionStats {
+        /**
+         * Latency of each run, in nanoseconds.
+         */
+        long[] latencies = new long[16];
+
+        /**
+         * Number of runs.
+         */
+        int count = 0;
+
+        /**
+         * Number of runs whose output lacked the expected text.
+         */
+        int unexpected = 0;
+
+        /**
+         * Record a run.
+         * @param latency Latency in nanoseconds
+         * @param expected Whether its output had the expected text
+         */
+        void add(long latency, boolean expected) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latency;
+            if (!expected) {
+                unexpected++;
+            }
+        }
+
+        /**
+         * Add the runs of the same action from another session.
+         * @param other Runs to add
+         */
+        void addAll(ActionStats other) {
+            if (count + other.count > latencies.length) {
+                latencies = Arrays.copyOf(latencies, Math.max(latencies.length * 2, count + other.count));
+            }
+            System.arraycopy(other.latencies, 0, latencies, count, other.count);
+            count += other.count;
+            unexpected += other.unexpected;
+        }
+    }
+
+    /**
+     * Input of a scripted session. Hands out one line of the script each time the screens ask for input,
+     * recording how long the previous line took, and reads what the screens printed to decline optional offers
+     * and to check that the previous action succeeded.
+     */
+    private static final class ScriptedInput extends InputStream {
+        /**
+         * Lines still to type.
+         */
+        private final ArrayDeque<Step> script;
+
+        /**
+         * Output of the screens since the last line handed out.
+         */
+        private final ByteArrayOutputStream printed;
+
+        /**
+         * Runs of each action by this session.
+         */
+        private final Map<String, ActionStats> stats;
+
+        /**
+         * Pause before each line, in milliseconds, left out of the latencies.
+         */
+        private final long thinkMillis;
+
+        /**
+         * Line being handed out, null before the first.
+         */
+        private Step current;
+
+        /**
+         * Bytes of the line being handed out.
+         */
+        private byte[] pending = new byte[0];
+
+        /**
+         * Bytes of the line already handed out.
+         */
+        private int position = 0;
+
+        /**
+         * When the line being handed out was handed out, in nanoseconds.
+         */
+        private long handedOut;
+
+        /**
+         * Constructor
+         * @param script Lines to type
+         * @param printed Output of the screens, read and cleared as lines are handed out
+         * @param stats Runs of each action by this session
+         * @param thinkMillis Pause before each line, in milliseconds
+         */
+        ScriptedInput(List<Step> script, ByteArrayOutputStream printed, Map<String, ActionStats> stats, long thinkMillis) {
+            this.script = new ArrayDeque<>(script);
+            this.printed = printed;
+            this.stats = stats;
+            this.thinkMillis = thinkMillis;
+        }
+
+        @Override
+        public int read() {
+            var one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (position == pending.length && !nextLine()) {
+                return -1;
+            }
+            int n = Math.min(len, pending.length - position);
+            System.arraycopy(pending, position, b, off, n);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return pending.length - position;
+        }
+
+        /**
+         * Record the line just answered and pick the next one, declining offers the screens just made.
+         * @return False once the script is done
+         */
+        private boolean nextLine() {
+            long now = System.nanoTime();
+            var output = printed.toString(StandardCharsets.UTF_8);
+            printed.reset();
+            if (current != null) {
+                stats.computeIfAbsent(current.action, action -> new ActionStats())
+                        .add(now - handedOut, current.expect == null || output.contains(current.expect));
+            }
+            if (output.contains("Join the waitlist of")) {
+                current = new Step("decline waitlist", "0", null);
+            } else if (output.contains(") Rank ")) {
+                current = new Step("decline ballot", "0", null);
+            } else {
+                current = script.poll();
+            }
+            if (current == null) {
+                return false;
+            }
+            if (thinkMillis > 0) {
+                try {
+                    Thread.sleep(thinkMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            pending = (current.input + "\n").getBytes(StandardCharsets.UTF_8);
+            position = 0;
+            handedOut = System.nanoTime();
+            return true;
+        }
+    }
+
+    /**
+     * User Controller
+     */
+    private final UserController userController;
+
+    /**
+     * Camp Controller
+     */
+    private final CampController campController;
+
+    /**
+     * Constructor
+     * @param userController UserController shared by every session
+     * @param campController CampController shared by every session
+     */
+    public LoadDriver(UserController userController, CampController campController) {
+        this.userController = userController;
+        this.campController = campController;
+    }
+
+    /**
+     * Script of one student: log in, view all camps, register as attendee for one of the first camps listed,
+     * send an enquiry to another of them, and log out.
+     * @param student Student to script
+     * @param password Password of the student
+     * @param popular Number of camps at the top of the listing that students register for
+     * @param random Source of random choices
+     * @return Lines of the script
+     */
+    private List<Step> script(Student student, String password, int popular, Random random) {
+        int listed = Math.max(1, Math.min(popular, campController.getVisibleCamps(student).size()));
+        return List.of(
+                new Step("enter user ID", student.getUserID(), "password"),
+                new Step("login", password, "Logging in as"),
+                new Step("browse", "0", "Camps:"),
+                new Step("open register", "1", "Join as attendee"),
+                new Step("choose role", "0", "Select a camp"),
+                new Step("register", String.valueOf(random.nextInt(listed)), "Registered student to"),
+                new Step("open enquire", "2", "Select a camp"),
+                new Step("choose camp", String.valueOf(random.nextInt(listed)), "Type out your enquiry"),
+                new Step("enquire", "Is transport provided?", "Enquiry submitted"),
+                new Step("logout", "7", "Login:"));
+    }
+
+    /**
+     * Run scripted sessions of distinct students picked at random, and print a report of every action.
+     * @param sessions Number of sessions
+     * @param concurrency Number of sessions running at once
+     * @param popular Number of camps at the top of the listing that students register for
+     * @param thinkMillis Pause before each line, in milliseconds
+     * @param seed Seed of the students picked and the camps chosen
+     * @param password Password of every student
+     * @throws InterruptedException if interrupted while waiting for the sessions
+     */
+    public void run(int sessions, int concurrency, int popular, long thinkMillis, long seed, String password) throws InterruptedException {
+        var random = new Random(seed);
+        var students = new ArrayList<Student>();
+        for (var user: userController.getAllUsers()) {
+            if (user instanceof Student student && !(student instanceof StudentCommittee)) {
+                students.add(student);
+            }
+        }
+        students.sort((a, b) -> a.getUserID().compareTo(b.getUserID()));
+        Collections.shuffle(students, random);
+        if (students.size() < sessions) {
+            throw new IllegalArgumentException("Only " + students.size() + " students for " + sessions + " sessions.");
+        }
+        var scripts = new ArrayList<List<Step>>(sessions);
+        for (int i = 0; i < sessions; i++) {
+            scripts.add(script(students.get(i), password, popular, random));
+        }
+
+        var totals = new TreeMap<String, ActionStats>();
+        var failed = new AtomicInteger();
+        var threads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency, runnable -> {
+            var thread = new Thread(runnable, "load-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long start = System.nanoTime();
+        for (var script: scripts) {
+            executor.execute(() -> {
+                var stats = new TreeMap<String, ActionStats>();
+                var printed = new ByteArrayOutputStream();
+                try {
+                    new Session(new ScriptedInput(script, printed, stats, thinkMillis), printed, userController, campController).run();
+                } catch (RuntimeException e) {
+                    failed.incrementAndGet();
+                }
+                synchronized (totals) {
+                    for (var entry: stats.entrySet()) {
+                        totals.computeIfAbsent(entry.getKey(), action -> new ActionStats()).addAll(entry.getValue());
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%d sessions, %d at once, in %.2f s: %.0f sessions/s, %d failed%n",
+                sessions, concurrency, seconds, sessions / seconds, failed.get());
+        System.out.printf("%-18s %8s %10s %10s %10s %10s %10s %10s%n", "action", "count", "unexpected", "per s", "p50 us", "p90 us", "p99 us", "max us");
+        for (var entry: totals.entrySet()) {
+            var stats = entry.getValue();
+            var latencies = Arrays.copyOf(stats.latencies, stats.count);
+            Arrays.sort(latencies);
+            System.out.printf("%-18s %8d %10d %10.0f %10.1f %10.1f %10.1f %10.1f%n", entry.getKey(), stats.count, stats.unexpected,
+                    stats.count / seconds, percentile(latencies, 0.5), percentile(latencies, 0.9), percentile(latencies, 0.99),
+                    latencies.length == 0 ? 0 : latencies[latencies.length - 1] / 1e3);
+        }
+        System.out.println();
+        System.out.println("Metrics of the controllers:");
+        System.out.print(Metrics.snapshot().format());
+    }
+
+    /**
+     * Percentile of sorted latencies.
+     * @param sorted Latencies in nanoseconds, sorted
+     * @param quantile Quantile between 0 and 1
+     * @return Latency at the quantile, in microseconds
+     */
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.max(0, (int) Math.ceil(quantile * sorted.length) - 1)] / 1e3;
+    }
+
+    /**
+     * Main. Loads a dataset written by {@link DatasetGenerator}, generating one first if none is given,
+     * and runs the sessions against it.
+     * @param args {@code [--data DIR | --users N --camps N] [--sessions N] [--concurrency N] [--popular N] [--think-ms N]
+     * [--seed N] [--journal DIR]}, by default 5000 sessions, 200 at once, on the 10 first camps listed, against a
+     * generated dataset of 20000 users and 500 camps, without a journal
+     * @throws IOException if the dataset cannot be written or the journal cannot be opened
+     * @throws InterruptedException if interrupted while waiting for the sessions
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Path data = null;
+        Path journal = null;
+        int users = 20000;
+        int camps = 500;
+        int sessions = 5000;
+        int concurrency = 200;
+        int popular = 10;
+        long thinkMillis = 0;
+        long seed = 1;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--data" -> data = Path.of(args[i + 1]);
+                case "--users" -> users = Integer.parseInt(args[i + 1]);
+                case "--camps" -> camps = Integer.parseInt(args[i + 1]);
+                case "--sessions" -> sessions = Integer.parseInt(args[i + 1]);
+                case "--concurrency" -> concurrency = Integer.parseInt(args[i + 1]);
+                case "--popular" -> popular = Integer.parseInt(args[i + 1]);
+                case "--think-ms" -> thinkMillis = Long.parseLong(args[i + 1]);
+                case "--seed" -> seed = Long.parseLong(args[i + 1]);
+                case "--journal" -> journal = Path.of(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        if (data == null) {
+            data = Files.createTempDirectory("cams-load");
+            new DatasetGenerator(seed, users, camps).writeTo(data);
+        }
+        var userController = DatasetGenerator.loadUsers(data);
+        var campController = DatasetGenerator.loadCamps(data, userController);
+        var opened = journal == null ? null : Journal.open(journal.toString());
+        try {
+            new LoadDriver(userController, campController).run(sessions, concurrency, popular, thinkMillis, seed, "password");
+        } finally {
+            if (opened != null) {
+                opened.close();
+            }
+        }
+    }
+}
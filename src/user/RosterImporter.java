@@ -0,0 +1,256 @@
+package user;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+
+/**
+ * Reads roster CSV files (student_list.csv, staff_list.csv) in parallel.
+ * The file is cut into byte ranges on line breaks outside of quotes, each range is parsed on the
+ * common ForkJoin pool, where each row is also turned into its result. Results are joined back in file order,
+ * so they do not depend on scheduling.
+ * Fields follow RFC-4180: they may be quoted, and quoted fields may contain commas, doubled quotes and line breaks.
+ */
+final class RosterImporter {
+    /**
+     * Smallest range worth parsing on its own.
+     */
+    private static final int MIN_CHUNK = 1 << 16;
+
+    /**
+     * UTF-8 byte order mark, written by some spreadsheet programs.
+     */
+    private static final byte[] BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+    /**
+     * Not meant to be instantiated.
+     */
+    private RosterImporter() {
+    }
+
+    /**
+     * Read every row of a roster, without its header.
+     * @param filePath Location of the roster
+     * @param mapper Turns the fields of a row into a result, run in parallel
+     * @param <T> Type of result
+     * @return Result of each row, in file order
+     * @throws IOException if the file cannot be read
+     */
+    static <T> List<T> read(String filePath, Function<String[], T> mapper) throws IOException {
+        var bytes = Files.readAllBytes(Path.of(filePath));
+        int start = startsWith(bytes, BOM) ? BOM.length : 0;
+        start = skipLine(bytes, start); // First line is header.
+        var bounds = split(bytes, start, Math.max(MIN_CHUNK, bytes.length / (ForkJoinPool.getCommonPoolParallelism() * 4 + 1)));
+        return ForkJoinPool.commonPool().invoke(new ParseTask<>(bytes, bounds, 0, bounds.length - 1, mapper));
+    }
+
+    /**
+     * Find the start of the next line, skipping line breaks inside quotes.
+     * @param bytes Contents of the file
+     * @param start Offset of the current line
+     * @return Offset of the next line
+     */
+    private static int skipLine(byte[] bytes, int start) {
+        boolean quoted = false;
+        for (int i = start; i < bytes.length; i++) {
+            if (bytes[i] == '"') {
+                quoted = !quoted;
+            } else if (bytes[i] == '\n' && !quoted) {
+                return i + 1;
+            }
+        }
+        return bytes.length;
+    }
+
+    /**
+     * Find where ranges start. A range starts just after a line break which is not inside quotes,
+     * found by a single scan keeping track of whether it is inside quotes.
+     * @param bytes Contents of the file
+     * @param start Offset of the first row
+     * @param chunkSize Approximate size of a range
+     * @return Offsets at which ranges start, followed by the end of the file
+     */
+    private static int[] split(byte[] bytes, int start, int chunkSize) {
+        var bounds = new int[16];
+        int count = 0;
+        bounds[count++] = start;
+        boolean quoted = false;
+        int next = start + chunkSize;
+        for (int i = start; i < bytes.length; i++) {
+            byte b = bytes[i];
+            if (b == '"') {
+                quoted = !quoted;
+            } else if (b == '\n' && !quoted && i >= next && i + 1 < bytes.length) {
+                if (count == bounds.length) {
+                    bounds = Arrays.copyOf(bounds, count * 2);
+                }
+                bounds[count++] = i + 1;
+                next = i + 1 + chunkSize;
+            }
+        }
+        if (count == bounds.length) {
+            bounds = Arrays.copyOf(bounds, count + 1);
+        }
+        bounds[count++] = bytes.length;
+        return Arrays.copyOf(bounds, count);
+    }
+
+    /**
+     * Parses a run of ranges, forking when there is more than one.
+     * @param <T> Type of result
+     */
+    private static final class ParseTask<T> extends RecursiveTask<List<T>> {
+        /**
+         * Version of the serialized form, which is never written as tasks only live in the pool.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Contents of the file.
+         */
+        private final byte[] bytes;
+        /**
+         * Offsets at which ranges start.
+         */
+        private final int[] bounds;
+        /**
+         * First range parsed by this task.
+         */
+        private final int from;
+        /**
+         * Range after the last one parsed by this task.
+         */
+        private final int to;
+        /**
+         * Turns the fields of a row into a result.
+         */
+        private final Function<String[], T> mapper;
+
+        /**
+         * Constructor
+         * @param bytes Contents of the file
+         * @param bounds Offsets at which ranges start
+         * @param from First range
+         * @param to Range after the last one
+         * @param mapper Turns the fields of a row into a result
+         */
+        ParseTask(byte[] bytes, int[] bounds, int from, int to, Function<String[], T> mapper) {
+            this.bytes = bytes;
+            this.bounds = bounds;
+            this.from = from;
+            this.to = to;
+            this.mapper = mapper;
+        }
+
+        @Override
+        protected List<T> compute() {
+            if (to - from <= 1) {
+                var rows = parse(new String(bytes, bounds[from], bounds[to] - bounds[from], StandardCharsets.UTF_8));
+                var results = new ArrayList<T>(rows.size());
+                for (var row: rows) {
+                    results.add(mapper.apply(row));
+                }
+                return results;
+            }
+            int middle = (from + to) >>> 1;
+            var right = new ParseTask<>(bytes, bounds, middle, to, mapper);
+            right.fork();
+            var left = new ParseTask<>(bytes, bounds, from, middle, mapper).compute();
+            var rest = right.join();
+            var rows = new ArrayList<T>(left.size() + rest.size());
+            rows.addAll(left);
+            rows.addAll(rest);
+            return rows;
+        }
+    }
+
+    /**
+     * Parse the rows of a range. Blank lines are skipped, and empty fields at the end of a row are dropped,
+     * as by the {@code split(",")} rosters used to be read with, so that a row with a trailing comma keeps its length.
+     * Unquoted fields are cut straight out of the text, only quoted fields are copied character by character.
+     * @param text Text of the range, which starts and ends on a row boundary
+     * @return Fields of each row
+     */
+    static List<String[]> parse(String text) {
+        var rows = new ArrayList<String[]>();
+        var fields = new ArrayList<String>();
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (c == '\r' || c == '\n') {
+                i++; // Blank line.
+                continue;
+            }
+            boolean endOfRow = false;
+            while (!endOfRow) {
+                if (i < length && text.charAt(i) == '"') {
+                    var field = new StringBuilder();
+                    i++;
+                    while (i < length) {
+                        char q = text.charAt(i++);
+                        if (q == '"') {
+                            if (i < length && text.charAt(i) == '"') {
+                                field.append('"');
+                                i++;
+                            } else {
+                                break;
+                            }
+                        } else {
+                            field.append(q);
+                        }
+                    }
+                    int end = i;
+                    while (end < length && text.charAt(end) != ',' && text.charAt(end) != '\n' && text.charAt(end) != '\r') {
+                        end++;
+                    }
+                    field.append(text, i, end); // Characters after the closing quote are kept as is.
+                    fields.add(field.toString());
+                    i = end;
+                } else {
+                    int end = i;
+                    while (end < length && text.charAt(end) != ',' && text.charAt(end) != '\n' && text.charAt(end) != '\r') {
+                        end++;
+                    }
+                    fields.add(text.substring(i, end));
+                    i = end;
+                }
+                if (i < length && text.charAt(i) == ',') {
+                    i++;
+                } else {
+                    endOfRow = true;
+                    if (i < length && text.charAt(i) == '\r') {
+                        i++;
+                    }
+                    if (i < length && text.charAt(i) == '\n') {
+                        i++;
+                    }
+                }
+            }
+            int size = fields.size();
+            while (size > 0 && fields.get(size - 1).isEmpty()) {
+                size--;
+            }
+            rows.add(fields.subList(0, size).toArray(new String[0]));
+            fields.clear();
+        }
+        return rows;
+    }
+
+    /**
+     * Check for a prefix.
+     * @param bytes Bytes to check
+     * @param prefix Prefix expected
+     * @return True if bytes start with prefix
+     */
+    private static boolean startsWith(byte[] bytes, byte[] prefix) {
+        return bytes.length >= prefix.length && Arrays.equals(bytes, 0, prefix.length, prefix, 0, prefix.length);
+    }
+}
@@ -1,8 +1,10 @@
 package user;
 
 import camp.Camp;
+import utils.IntervalIndex;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -10,9 +12,47 @@ import java.util.List;
  */
 public class Student extends User {
     /**
-     * All attending camps, used for error checking.
+     * Registration state of a student, guarded by their registration lock. It is handed over to the committee member
+     * the student is converted to, so that a session still holding the replaced object registers for the same student.
      */
-    protected List<Camp> attendingCamps; //Change to public to so I could use it to display the camp attending by the student on the screen
+    static final class Registrations {
+        /**
+         * All attending camps, used for error checking.
+         */
+        private final List<Camp> attendingCamps = new ArrayList<>();
+
+        /**
+         * Durations of all attending camps, used for time conflict checks.
+         */
+        private final IntervalIndex<Camp> schedule = new IntervalIndex<>();
+
+        /**
+         * Value of {@link Camp#getRegionChanges()} when the schedule was last built.
+         */
+        private int scheduleVersion = Camp.getRegionChanges();
+
+        /**
+         * Camps whose waitlist the student is on.
+         */
+        private final List<Camp> waitlistedCamps = new ArrayList<>();
+    }
+
+    /**
+     * Registration state, shared with the object this student is converted to.
+     */
+    Registrations registrations = new Registrations();
+
+    /**
+     * Locks held while a student registers for or withdraws from camps, shared by every student whose
+     * UserDictionary number falls on the same stripe.
+     */
+    private static final Object[] registrationLocks = new Object[1024];
+
+    static {
+        for (int i = 0; i < registrationLocks.length; i++) {
+            registrationLocks[i] = new Object();
+        }
+    }
 
     /**
      * Student Constructor
@@ -23,7 +63,6 @@ public class Student extends User {
      */
     public Student(String name, String userID, String password, String faculty) {
         super(name, userID, password, faculty);
-        attendingCamps = new ArrayList<>();
     }
     // check for conflicts of time, camp remaining slots.
 
@@ -33,7 +72,24 @@ public class Student extends User {
      * @return True if there is no conflicts in time, otherwise false.
      */
     public boolean checkTimeConflicts(Camp joinCamp) {
-        return attendingCamps.stream().noneMatch(camp -> camp.getRegion().conflictsWith(joinCamp.getRegion()));
+        int version = Camp.getRegionChanges();
+        if (version != registrations.scheduleVersion) {
+            registrations.schedule.clear();
+            for (var camp: registrations.attendingCamps) {
+                registrations.schedule.add(camp, camp.getRegion());
+            }
+            registrations.scheduleVersion = version;
+        }
+        return !registrations.schedule.overlaps(joinCamp.getRegion());
+    }
+
+    /**
+     * Check if this student attends a camp, as attendee or committee member.
+     * @param camp Camp to check
+     * @return True if attending
+     */
+    public boolean isAttending(Camp camp) {
+        return registrations.schedule.contains(camp);
     }
 
     /**
@@ -42,7 +98,8 @@ public class Student extends User {
      */
     public void joinCamp(Camp camp) {
     	
-    	attendingCamps.add(camp);	
+    	registrations.attendingCamps.add(camp);
+    	registrations.schedule.add(camp, camp.getRegion());
     }
 
     /**
@@ -51,7 +108,71 @@ public class Student extends User {
      */
     public void removeCamp(Camp camp) { 
     	
-    	attendingCamps.remove(camp); 
+    	registrations.attendingCamps.remove(camp);
+    	registrations.schedule.remove(camp);
+    }
+
+    /**
+     * Join the waitlist of a camp
+     * @param camp Camp waited for
+     */
+    public void joinWaitlist(Camp camp) {
+        if (!registrations.waitlistedCamps.contains(camp)) {
+            registrations.waitlistedCamps.add(camp);
+        }
+    }
+
+    /**
+     * Leave the waitlist of a camp
+     * @param camp Camp no longer waited for
+     */
+    public void leaveWaitlist(Camp camp) {
+        registrations.waitlistedCamps.remove(camp);
+    }
+
+    /**
+     * Getter
+     * @return Camps whose waitlist the student is on
+     */
+    public List<Camp> getWaitlistedCamps() {
+        return registrations.waitlistedCamps;
+    }
+
+    /**
+     * Lock held while this student registers for or withdraws from camps, taken before the lock of any camp.
+     * It is found by user ID, so it is also the lock of this student once converted to a committee member.
+     * @return Lock of this student
+     */
+    public Object getRegistrationLock() {
+        return registrationLocks[getNumber() & (registrationLocks.length - 1)];
+    }
+
+    /**
+     * Run an action while holding the registration locks of many students, such as when a camp promotes a batch
+     * from its waitlist. The locks are taken in the order of their stripes, so two such actions cannot deadlock.
+     * Must not be called while holding the registration lock of any student.
+     * @param students Students whose locks are held
+     * @param action Action to run
+     */
+    public static void withRegistrationLocks(Collection<? extends Student> students, Runnable action) {
+        var stripes = students.stream().mapToInt(student -> student.getNumber() & (registrationLocks.length - 1)).distinct().sorted().toArray();
+        withRegistrationLocks(stripes, 0, action);
+    }
+
+    /**
+     * Hold the locks of the remaining stripes, then run the action.
+     * @param stripes Stripes of the locks, in ascending order
+     * @param next Index of the next stripe to lock
+     * @param action Action to run
+     */
+    private static void withRegistrationLocks(int[] stripes, int next, Runnable action) {
+        if (next == stripes.length) {
+            action.run();
+            return;
+        }
+        synchronized (registrationLocks[stripes[next]]) {
+            withRegistrationLocks(stripes, next + 1, action);
+        }
     }
 
     /**
@@ -59,6 +180,6 @@ public class Student extends User {
      * @return Get camps that student is attending
      */
     public List<Camp> getAttendingCamps() {
-        return attendingCamps;
+        return registrations.attendingCamps;
     }
 }
@@ -19,13 +19,14 @@ public class StudentCommittee extends Student {
     private int points = 0;
 
     /**
-     * Conversion Constructor
+     * Conversion Constructor, takes over the registration state of the student, which the replaced object keeps sharing.
      * @param student Student
      * @param camp Camp to join
      */
     public StudentCommittee(Student student, Camp camp) {
         this(student.getName(), student.getUserID(), student.getPassword(), student.getFaculty(), camp);
         filters = student.getFilters();
+        registrations = student.registrations;
     }
 
     /**
@@ -60,7 +61,10 @@ public class StudentCommittee extends Student {
     /**
      * Increase point by 1
      */
-    public void addPoint() { points++; }
+    public void addPoint() {
+        points++;
+        record("user.points", userID, String.valueOf(points));
+    }
 
     /**
      * Get total no. of points.
@@ -69,4 +73,12 @@ public class StudentCommittee extends Student {
     public int getPoints() {
         return points;
     }
+
+    /**
+     * Set total no. of points, used when loading from disk.
+     * @param points Number of points.
+     */
+    public void setPoints(int points) {
+        this.points = points;
+    }
 }
@@ -1,9 +1,12 @@
 package user;
 
 import camp.CampController;
+import storage.Journal;
+import utils.Csv;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 /**
@@ -18,6 +21,10 @@ public class User {
      * Unique Identification String, indicated in CSV file.
      */
     protected final String userID;
+    /**
+     * Number of the user ID in the {@link UserDictionary}.
+     */
+    private final int number;
     /**
      * Password for verification, defaulted to "password".
      */
@@ -37,6 +44,11 @@ public class User {
      */
     protected boolean firstLogin;
 
+    /**
+     * Number of recorded changes to this user.
+     */
+    private final AtomicInteger version = new AtomicInteger();
+
     /**
      * Constructor
      * @param name Name
@@ -59,6 +71,7 @@ public class User {
     public User(String name, String userID, String password, String faculty) {
         this.name = name;
         this.userID = userID;
+        this.number = UserDictionary.encode(userID);
         this.password = password;
         this.faculty = faculty;
         this.filters = new HashMap<>();
@@ -73,6 +86,14 @@ public class User {
         return userID;
     }
 
+    /**
+     * Getter for the number of the user ID in the {@link UserDictionary}.
+     * @return Number of the user ID.
+     */
+    public int getNumber() {
+        return number;
+    }
+
     /**
      * Getter for Name.
      * @return name field.
@@ -97,6 +118,14 @@ public class User {
         return faculty;
     }
 
+    /**
+     * Getter for first login flag.
+     * @return firstLogin field.
+     */
+    public boolean isFirstLogin() {
+        return firstLogin;
+    }
+
     /**
      * Setting first login to true
      */
@@ -111,6 +140,9 @@ public class User {
     public boolean toggleFirstLogin() {
         boolean ret = firstLogin;
         firstLogin = false;
+        if (ret) {
+            record("user.firstLogin", userID, String.valueOf(false));
+        }
         return ret;
     }
 
@@ -155,6 +187,26 @@ public class User {
      */
     public void changePassword(String newPassword) {
         password = newPassword;
+        record("user.password", userID, newPassword);
+    }
+
+    /**
+     * Number of recorded changes to this user, counted after each change is made,
+     * so that a listing made for the user can tell it is out of date.
+     * @return Count of changes.
+     */
+    public int getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Count a change already made to this user and record it in the journal.
+     * @param type Type of the change
+     * @param values Values of the change
+     */
+    protected void record(String type, String... values) {
+        version.incrementAndGet();
+        Journal.record(type, values);
     }
 
     /**
@@ -162,6 +214,6 @@ public class User {
      * @return String that represents the user in a csv.
      */
     public String representation() {
-        return String.join(",", getClass().getTypeName(), name, userID, password, faculty, String.valueOf(firstLogin));
+        return Csv.join(getClass().getTypeName(), name, userID, password, faculty, String.valueOf(firstLogin));
     }
 }
@@ -1,21 +1,131 @@
 package user;
 
 import camp.Camp;
+import camp.CampController;
+import metrics.Counter;
+import metrics.Histogram;
+import metrics.LoginEvent;
+import metrics.Metrics;
+import metrics.ReportEvent;
+import storage.Journal;
+import storage.Snapshot;
+import utils.Csv;
 
 import java.io.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * The main storage class of users in the CMS. Handles user registration, user saving and loading.
  */
 public class UserController {
     /**
-     * Internal storage of users
+     * Internal storage of users, indexed by User Identification String.
+     * Insertion order is kept so that saved files stay stable across runs.
      */
-    private final ArrayList<User> users = new ArrayList<>();
+    private final LinkedHashMap<String, User> users = new LinkedHashMap<>();
+
+    /**
+     * Time taken by logins, including waiting for other sessions.
+     */
+    private static final Histogram logins = Metrics.histogram("user.login");
+
+    /**
+     * Logins refused for a wrong user ID or password.
+     */
+    private static final Counter failedLogins = Metrics.counter("user.login.failed");
+
+    /**
+     * Time taken by looking up one user.
+     */
+    private static final Histogram lookups = Metrics.histogram("user.get");
+
+    /**
+     * Time taken by looking up many users at once.
+     */
+    private static final Histogram batchLookups = Metrics.histogram("user.getMany");
+
+    /**
+     * Time taken by writing performance reports.
+     */
+    private static final Histogram performanceReports = Metrics.histogram("report.performance");
+
+    /**
+     * Snapshots the users were loaded from, newest first, empty if not loaded from a snapshot.
+     * Users in a snapshot are only created once they are looked up.
+     */
+    private Snapshot[] snapshots = new Snapshot[0];
+
+    /**
+     * Users already created from each record of each snapshot.
+     */
+    private User[][] snapshotUsers = new User[0][];
+
+    /**
+     * IDs of the users changed since the base snapshot, so that a checkpoint finds them without scanning every user.
+     */
+    private final Set<String> changedUserIDs = new LinkedHashSet<>();
+
+    /**
+     * Adds a user to the index. The first user registered with a given ID is kept.
+     * @param user User to be added
+     * @return True if the user was added, false if the ID was already taken
+     */
+    private boolean addUser(User user) {
+        if (lookup(user.getUserID()) != null) {
+            return false;
+        }
+        users.put(user.getUserID(), user);
+        return true;
+    }
+
+    /**
+     * Looks up a user in the index, creating it from the newest snapshot holding it if it has not been created yet.
+     * @param userId User Identification String
+     * @return The user, null if there is no such user
+     */
+    private User lookup(String userId) {
+        var user = users.get(userId);
+        if (user != null) {
+            return user;
+        }
+        for (int layer = 0; layer < snapshots.length; layer++) {
+            int index = snapshots[layer].findUser(userId);
+            if (index >= 0) {
+                return materialize(layer, index);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Creates the user of a snapshot record and adds it to the index.
+     * @param layer Position of the snapshot, newest first
+     * @param index Index of the record
+     * @return The user with the record's ID in the index
+     */
+    private User materialize(int layer, int index) {
+        var user = snapshots[layer].readUser(index);
+        snapshotUsers[layer][index] = user;
+        var existing = users.putIfAbsent(user.getUserID(), user);
+        return existing != null ? existing : user;
+    }
+
+    /**
+     * Records a newly registered user in the journal.
+     * @param user User which was added
+     */
+    private static void recordAdd(User user) {
+        Journal.record("user.add", user.getClass().getTypeName(), user.getName(), user.getUserID(), user.getPassword(),
+                user.getFaculty(), String.valueOf(user.firstLogin));
+    }
 
     /**
      * Serialize Method
@@ -23,55 +133,115 @@ public class UserController {
      * @param userController Specify which store to retrieve from
      */
     public static void saveTo(String filePath, UserController userController) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
-            userController.users.stream().map(User::representation).forEach(repr -> {
-                try {
-                    writer.write(repr);
-                    writer.newLine();
-                } catch (IOException e) {
-                    System.out.println(e.getMessage());
-                }
-            });
+        try {
+            writeTo(filePath, userController);
         } catch (IOException e) {
             System.out.println(e.getMessage());
         }
     }
 
     /**
-     * Deserialize Method
-     * @param filePath Specify which location to load from
-     * @return Returns {@code Optional.of(UserController)} if load was successful, otherwise returns {@code Optional.empty()}
+     * Serialize Method which reports failures to the caller.
+     * @param filePath Specify which location to save to
+     * @param userController Specify which store to retrieve from
+     * @throws IOException if the file cannot be written
      */
-    public static Optional<UserController> loadFrom(String filePath) {
+    public static void writeTo(String filePath, UserController userController) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
+            for (var user: userController.getAllUsers()) {
+                writer.write(user.representation());
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Deserialize Method for binary snapshots. Only the mappings are kept, users are created as they are looked up.
+     * Users of a delta snapshot count as changed, since they differ from the base snapshot.
+     * @param chain Snapshots to load from, newest first, as returned by {@link Snapshot#chain(String)}
+     * @return Controller serving the users of the snapshots
+     */
+    public static UserController loadFrom(List<Snapshot> chain) {
         var userController = new UserController();
-        try (BufferedReader bufferedReader = new BufferedReader(new FileReader(filePath))) {
-            var lines = bufferedReader.lines();
-            lines.forEach(line -> {
-                var values = line.split(",");
-                if (values.length != 6) {
-                    throw new RuntimeException("Malformed input!");
+        userController.snapshots = chain.toArray(new Snapshot[0]);
+        userController.snapshotUsers = new User[chain.size()][];
+        for (int i = 0; i < chain.size(); i++) {
+            userController.snapshotUsers[i] = new User[chain.get(i).userCount()];
+            if (chain.get(i).isDelta()) {
+                for (int j = 0; j < chain.get(i).userCount(); j++) {
+                    userController.changedUserIDs.add(chain.get(i).userID(j));
                 }
-                switch (values[0]) {
-                    case "user.Student", "user.StudentCommittee" -> {
-                        var student = new Student(values[1].trim(), values[2].trim(), values[3].trim(), values[4].trim());
-                        if (Boolean.parseBoolean(values[5].trim())) {
-                            student.enableFirstLogin();
-                        }
-                        userController.users.add(student);
-                    }
+            }
+        }
+        return userController;
+    }
 
-                    case "user.Staff" -> {
-                        var staff = new Staff(values[1].trim(), values[2].trim(), values[3].trim(), values[4].trim());
-                        if (Boolean.parseBoolean(values[5].trim())) {
-                            staff.enableFirstLogin();
-                        }
+    /**
+     * Access the user of a snapshot record, used while loading camps from the same snapshots.
+     * @param snapshot Snapshot holding the record
+     * @param index Index of the record
+     * @return The user with the record's ID, as held by the newest snapshot
+     */
+    public synchronized User getSnapshotUser(Snapshot snapshot, int index) {
+        int layer = Arrays.asList(snapshots).indexOf(snapshot);
+        var user = snapshotUsers[layer][index];
+        if (user != null) {
+            return users.get(user.getUserID());
+        }
+        return layer == 0 ? materialize(layer, index) : lookup(snapshot.userID(index));
+    }
 
-                        userController.users.add(staff);
-                    }
+    /**
+     * Access every user, creating any not yet created from the snapshots.
+     * @return All users
+     */
+    public synchronized Collection<User> getAllUsers() {
+        for (int layer = 0; layer < snapshots.length; layer++) {
+            for (int i = 0; i < snapshotUsers[layer].length; i++) {
+                if (snapshotUsers[layer][i] == null) {
+                    materialize(layer, i);
+                }
+            }
+        }
+        return List.copyOf(users.values());
+    }
+
+    /**
+     * Access the users changed since the base snapshot, creating only those. Users held only by the base snapshot are not.
+     * @return Changed users
+     */
+    public synchronized List<User> getChangedUsers() {
+        var changed = new ArrayList<User>(changedUserIDs.size());
+        for (var userID: changedUserIDs) {
+            changed.add(lookup(userID));
+        }
+        return changed;
+    }
 
-                    default -> throw new RuntimeException("Malformed type!");
+    /**
+     * Number of users changed since the base snapshot, without creating them.
+     * @return Number of changed users
+     */
+    public synchronized int getChangedUserCount() {
+        return changedUserIDs.size();
+    }
+
+    /**
+     * Deserialize Method. Records are read quote-aware, as a value such as a password may hold a line break.
+     * @param filePath Specify which location to load from
+     * @return Returns {@code Optional.of(UserController)} if load was successful, otherwise returns {@code Optional.empty()}
+     */
+    public static Optional<UserController> loadFrom(String filePath) {
+        var userController = new UserController();
+        try (var reader = new Csv.RecordReader(new BufferedReader(new FileReader(filePath)))) {
+            String line;
+            while ((line = reader.next()) != null) {
+                var values = Csv.split(line);
+                if (values.size() != 6) {
+                    throw new RuntimeException("Malformed input!");
                 }
-            });
+                userController.addUser(parseUser(values, 0));
+            }
             return Optional.of(userController);
         } catch (IOException e) {
             System.out.println(e.getMessage());
@@ -80,25 +250,75 @@ public class UserController {
     }
 
     /**
-     * Loads students from student.csv
-     * @param filePath File path of student.csv
+     * Creates a user from its representation. Committee members are loaded as students,
+     * they are converted back when their camp is loaded.
+     * @param values Values of the representation
+     * @param offset Index of the type in values
+     * @return User which was represented
      */
-    public void addStudents(String filePath) {
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            reader.readLine(); // First line is header.
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] values = line.split(",");
-                if (values.length != 3) {
-                    throw new RuntimeException("Text malformed, Length: " + values.length);
+    private static User parseUser(List<String> values, int offset) {
+        var name = values.get(offset + 1).trim();
+        var userID = values.get(offset + 2).trim();
+        var password = values.get(offset + 3).trim();
+        var faculty = values.get(offset + 4).trim();
+        User user = switch (values.get(offset)) {
+            case "user.Student", "user.StudentCommittee" -> new Student(name, userID, password, faculty);
+            case "user.Staff" -> new Staff(name, userID, password, faculty);
+            default -> throw new RuntimeException("Malformed type!");
+        };
+        if (Boolean.parseBoolean(values.get(offset + 5).trim())) {
+            user.enableFirstLogin();
+        }
+        return user;
+    }
+
+    /**
+     * Applies a journal record to this controller. Records only set values, so applying one twice has no further effect.
+     * The user of the record is marked as changed. A conversion into a camp since deleted is skipped.
+     * @param values Values of the record, starting with its type
+     * @param campController Controller for Camp, used to find the camp of a committee member
+     */
+    public synchronized void replay(List<String> values, CampController campController) {
+        if (values.get(0).equals("user.add")) {
+            var user = parseUser(values, 1);
+            if (addUser(user)) {
+                changedUserIDs.add(user.getUserID());
+            }
+            return;
+        }
+        var user = getUser(values.get(1));
+        switch (values.get(0)) {
+            case "user.password" -> user.password = values.get(2);
+            case "user.firstLogin" -> user.firstLogin = Boolean.parseBoolean(values.get(2));
+            case "user.points" -> {
+                if (user instanceof StudentCommittee studentCommittee) {
+                    studentCommittee.setPoints(Integer.parseInt(values.get(2)));
+                    campController.markChanged(studentCommittee.getCamp());
                 }
-                var student = new Student(values[0], values[1].split("@")[0].trim(), "password", values[2].trim());
-                student.enableFirstLogin();
-                users.add(student);
             }
-        } catch (IOException e) {
-            System.out.println("Error: " + e);
+            case "user.convert" -> {
+                if (user instanceof Student student && !(user instanceof StudentCommittee)) {
+                    Camp camp;
+                    try {
+                        camp = campController.getCamp(Integer.parseInt(values.get(2)));
+                    } catch (NoSuchElementException e) {
+                        // The camp is deleted later in the journal, and already in the snapshot replayed onto.
+                        return;
+                    }
+                    user = convertTo(student, camp);
+                }
+            }
+            default -> throw new RuntimeException("Malformed journal record: " + values.get(0));
         }
+        changedUserIDs.add(user.getUserID());
+    }
+
+    /**
+     * Loads students from student.csv
+     * @param filePath File path of student.csv
+     */
+    public void addStudents(String filePath) {
+        addRoster(filePath, (name, userID, faculty) -> new Student(name, userID, "password", faculty));
     }
 
     /**
@@ -106,20 +326,50 @@ public class UserController {
      * @param filePath File path of staff.csv
      */
     public void addStaff(String filePath) {
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            reader.readLine(); // First line is header.
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] values = line.split(",");
+        addRoster(filePath, (name, userID, faculty) -> new Staff(name, userID, "password", faculty));
+    }
+
+    /**
+     * Creates a user from a row of a roster.
+     */
+    private interface RosterEntry {
+        /**
+         * Create the user
+         * @param name Name column
+         * @param userID User Identification String, taken from the email column
+         * @param faculty Faculty column
+         * @return The user
+         */
+        User create(String name, String userID, String faculty);
+    }
+
+    /**
+     * Loads a roster with Name, Email and Faculty columns. Rows are parsed in parallel and added in file order,
+     * the first row with a given ID is kept.
+     * @param filePath File path of the roster
+     * @param entry Creates the user of a row
+     */
+    private void addRoster(String filePath, RosterEntry entry) {
+        List<User> roster;
+        try {
+            roster = RosterImporter.read(filePath, values -> {
                 if (values.length != 3) {
                     throw new RuntimeException("Text malformed, Length: " + values.length);
                 }
-                var staff = new Staff(values[0], values[1].split("@")[0].trim(),"password", values[2].trim());
-                staff.enableFirstLogin();
-                users.add(staff);
-            }
+                var user = entry.create(values[0], values[1].split("@")[0].trim(), values[2].trim());
+                user.enableFirstLogin();
+                return user;
+            });
         } catch (IOException e) {
             System.out.println("Error: " + e);
+            return;
+        }
+        synchronized (this) {
+            for (var user: roster) {
+                if (addUser(user)) {
+                    recordAdd(user);
+                }
+            }
         }
     }
 
@@ -131,7 +381,24 @@ public class UserController {
      * @throws NoSuchElementException if all users does not match the credentials
      */
     public User verifyLogin(String userId, String password) throws NoSuchElementException {
-        return users.stream().filter(user -> user.verify(userId, password)).findFirst().orElseThrow();
+        var event = new LoginEvent();
+        event.begin();
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            synchronized (this) {
+                var user = lookup(userId);
+                if (user == null || !user.verify(userId, password)) {
+                    failedLogins.increment();
+                    throw new NoSuchElementException("No value present");
+                }
+                success = true;
+                return user;
+            }
+        } finally {
+            logins.recordSince(start);
+            event.commit(userId, success);
+        }
     }
 
     /**
@@ -141,7 +408,18 @@ public class UserController {
      * @throws NoSuchElementException if all users does not match the credentials
      */
     public User getUser(String userId) throws NoSuchElementException {
-        return users.stream().filter(user -> user.getUserID().equals(userId)).findFirst().orElseThrow();
+        long start = System.nanoTime();
+        try {
+            synchronized (this) {
+                var user = lookup(userId);
+                if (user == null) {
+                    throw new NoSuchElementException("No user with ID " + userId);
+                }
+                return user;
+            }
+        } finally {
+            lookups.recordSince(start);
+        }
     }
 
     /**
@@ -150,23 +428,49 @@ public class UserController {
      * @return All matching users
      * @throws NoSuchElementException if all users does not match all the credentials
      */
-    public List<User> getUsers(List<String> userIds) throws NoSuchElementException {
-        return userIds.stream().map(this::getUser).toList();
+    public List<User> getUsers(Collection<String> userIds) throws NoSuchElementException {
+        long start = System.nanoTime();
+        try {
+            synchronized (this) {
+                var result = new ArrayList<User>(userIds.size());
+                for (var userId: userIds) {
+                    var user = lookup(userId);
+                    if (user == null) {
+                        throw new NoSuchElementException("No user with ID " + userId);
+                    }
+                    result.add(user);
+                }
+                return result;
+            }
+        } finally {
+            batchLookups.recordSince(start);
+        }
     }
 
     /**
      * Logic to convert student who is not in a committee to a student which is in a committee.
+     * Holds the registration lock of the student, so that the camps it attends are copied while none are joined,
+     * and the waitlists it is on are pointed at the new object before any of them promotes it.
      * @param committeeStudent To be student committee.
      * @param joinCamp Camp which would be joined.
      * @return The new student committee class.
      */
     public StudentCommittee convertTo(Student committeeStudent, Camp joinCamp) {
-        if (!users.removeIf(student -> student == committeeStudent)) {
-            throw new RuntimeException("Student is not in the controller. Only use this function if the user is obtained from the controller.");
+        synchronized (committeeStudent.getRegistrationLock()) {
+            StudentCommittee newUser;
+            synchronized (this) {
+                if (users.get(committeeStudent.getUserID()) != committeeStudent) {
+                    throw new RuntimeException("Student is not in the controller. Only use this function if the user is obtained from the controller.");
+                }
+                newUser = new StudentCommittee(committeeStudent, joinCamp);
+                users.put(newUser.getUserID(), newUser);
+            }
+            for (var camp: newUser.getWaitlistedCamps()) {
+                camp.relinkWaitlist(newUser);
+            }
+            Journal.record("user.convert", newUser.getUserID(), String.valueOf(joinCamp.getID()));
+            return newUser;
         }
-        var newUser = new StudentCommittee(committeeStudent, joinCamp);
-        users.add(newUser);
-        return newUser;
     }
 
     /**
@@ -176,6 +480,9 @@ public class UserController {
      * @param delimiter Delimiter for data values
      */
     public void generatePerformance(String filePath, List<StudentCommittee> committees, String delimiter) {
+        var event = new ReportEvent();
+        event.begin();
+        long start = System.nanoTime();
         try (var bufferedWriter = new BufferedWriter(new FileWriter(filePath))) {
             for (var committee: committees) {
                 bufferedWriter.write(String.join(delimiter, committee.getUserID(), String.valueOf(committee.getPoints())));
@@ -183,6 +490,9 @@ public class UserController {
             }
         } catch (IOException e) {
             System.out.println(e.getMessage());
+        } finally {
+            performanceReports.recordSince(start);
+            event.commit("performance", -1, filePath);
         }
     }
 }
@@ -0,0 +1,81 @@
+package user;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Gives every user ID a dense int, so that memberships can be kept in primitive sets instead of lists of strings.
+ * Numbers are handed out in the order IDs are first seen and are never reused, they only live in memory and
+ * are not written to the journal or snapshots.
+ */
+public final class UserDictionary {
+    /**
+     * Number of each user ID.
+     */
+    private static final ConcurrentHashMap<String, Integer> numbers = new ConcurrentHashMap<>();
+
+    /**
+     * User ID of each number. Written before the number is published in {@link #numbers}.
+     */
+    private static volatile String[] userIDs = new String[1024];
+
+    /**
+     * Number of user IDs encoded.
+     */
+    private static int count = 0;
+
+    /**
+     * Not meant to be instantiated.
+     */
+    private UserDictionary() {
+    }
+
+    /**
+     * Number of a user ID, given one if it has none yet.
+     * @param userID User ID
+     * @return Number of the user ID
+     */
+    public static int encode(String userID) {
+        var number = numbers.get(userID);
+        return number != null ? number : add(userID);
+    }
+
+    /**
+     * Number of a user ID, without giving it one.
+     * @param userID User ID
+     * @return Number of the user ID, -1 if it has none
+     */
+    public static int find(String userID) {
+        var number = numbers.get(userID);
+        return number != null ? number : -1;
+    }
+
+    /**
+     * User ID of a number.
+     * @param number Number given by {@link #encode(String)}
+     * @return User ID
+     */
+    public static String decode(int number) {
+        return userIDs[number];
+    }
+
+    /**
+     * Give a user ID the next number.
+     * @param userID User ID
+     * @return Number of the user ID
+     */
+    private static synchronized int add(String userID) {
+        var number = numbers.get(userID);
+        if (number != null) {
+            return number; // Added by another thread in the meantime.
+        }
+        var ids = userIDs;
+        if (count == ids.length) {
+            ids = Arrays.copyOf(ids, count * 2);
+        }
+        ids[count] = userID;
+        userIDs = ids;
+        numbers.put(userID, count);
+        return count++;
+    }
+}
@@ -0,0 +1,166 @@
+package utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Helpers for reading and writing comma separated lines with RFC-4180 style quoting.
+ * A quoted value may contain line breaks, so a record is read with a {@link RecordReader} rather than line by line.
+ */
+public final class Csv {
+    /**
+     * Not meant to be instantiated.
+     */
+    private Csv() {
+    }
+
+    /**
+     * Joins values into a single line, quoting values which contain a comma, a quote or a line break.
+     * @param values Values to be joined
+     * @return Line which represents the values
+     */
+    public static String join(String... values) {
+        var builder = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            var value = values[i];
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                builder.append(value);
+            } else {
+                builder.append('"').append(value.replace("\"", "\"\"")).append('"');
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Splits a line into its values, removing any quoting.
+     * @param line Line to be split
+     * @return Values in the line
+     * @throws IllegalArgumentException if a quoted value is not closed
+     */
+    public static List<String> split(String line) {
+        var values = new ArrayList<String>();
+        int length = line.length();
+        int i = 0;
+        while (true) {
+            if (i < length && line.charAt(i) == '"') {
+                var builder = new StringBuilder();
+                i++;
+                while (true) {
+                    if (i >= length) {
+                        throw new IllegalArgumentException("Unterminated quote in: " + line);
+                    }
+                    char c = line.charAt(i++);
+                    if (c == '"') {
+                        if (i < length && line.charAt(i) == '"') {
+                            builder.append('"');
+                            i++;
+                        } else {
+                            break;
+                        }
+                    } else {
+                        builder.append(c);
+                    }
+                }
+                values.add(builder.toString());
+                if (i < length && line.charAt(i) != ',') {
+                    throw new IllegalArgumentException("Unexpected character after quote in: " + line);
+                }
+            } else {
+                int next = line.indexOf(',', i);
+                if (next < 0) {
+                    next = length;
+                }
+                values.add(line.substring(i, next));
+                i = next;
+            }
+            if (i >= length) {
+                return values;
+            }
+            i++; // Skip the comma.
+            if (i == length) {
+                values.add("");
+                return values;
+            }
+        }
+    }
+
+    /**
+     * Reads records, each ended by a line break outside of quotes, so that quoted values keep their line breaks.
+     */
+    public static final class RecordReader implements Closeable {
+        /**
+         * Source of the records.
+         */
+        private final Reader reader;
+        /**
+         * Characters read from the source and not yet returned.
+         */
+        private final char[] buffer = new char[8192];
+        /**
+         * Index of the next character in the buffer.
+         */
+        private int position;
+        /**
+         * Number of characters in the buffer.
+         */
+        private int limit;
+
+        /**
+         * Constructor
+         * @param reader Source of the records, closed with this reader
+         */
+        public RecordReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        /**
+         * Read the next record, without the {@code \n} or {@code \r\n} which ends it.
+         * A record whose quote is never closed runs to the end of the input, where {@link #split(String)} rejects it.
+         * @return Text of the record, null at the end of the input
+         * @throws IOException if the source cannot be read
+         */
+        public String next() throws IOException {
+            var record = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (position == limit) {
+                    limit = reader.read(buffer, 0, buffer.length);
+                    position = 0;
+                    if (limit < 0) {
+                        limit = 0;
+                        return record.isEmpty() ? null : record.toString();
+                    }
+                }
+                int start = position;
+                while (position < limit) {
+                    char c = buffer[position];
+                    if (c == '"') {
+                        quoted = !quoted;
+                    } else if (c == '\n' && !quoted) {
+                        record.append(buffer, start, position - start);
+                        position++;
+                        int length = record.length();
+                        if (length > 0 && record.charAt(length - 1) == '\r') {
+                            record.setLength(length - 1);
+                        }
+                        return record.toString();
+                    }
+                    position++;
+                }
+                record.append(buffer, start, position - start);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
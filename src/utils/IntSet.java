@@ -0,0 +1,233 @@
+package utils;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Set of non-negative ints which remembers the order they were added in, without boxing.
+ * Values are kept in an array in insertion order, and an open addressing table with linear probing
+ * maps each value to its slot in the array. Removed values leave a hole in the array which is closed
+ * once holes make up half of it.
+ */
+public final class IntSet {
+    /**
+     * Marks a removed slot in the values array.
+     */
+    private static final int REMOVED = -1;
+
+    /**
+     * Values in insertion order, with removed slots set to {@link #REMOVED}.
+     */
+    private int[] values;
+
+    /**
+     * Number of slots of values in use, including removed ones.
+     */
+    private int end = 0;
+
+    /**
+     * Number of values in the set.
+     */
+    private int size = 0;
+
+    /**
+     * Hash table of slot indexes plus one, 0 for an empty bucket. Its length is a power of two.
+     */
+    private int[] table;
+
+    /**
+     * Constructor for an empty set.
+     */
+    public IntSet() {
+        values = new int[4];
+        table = new int[8];
+    }
+
+    /**
+     * Add a value.
+     * @param value Value to be added, must not be negative
+     * @return True if the value was not in the set
+     */
+    public boolean add(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative value " + value);
+        }
+        int bucket = find(value);
+        if (table[bucket] != 0) {
+            return false;
+        }
+        if (end == values.length) {
+            if (size < end / 2) {
+                compact();
+                bucket = find(value);
+            } else {
+                values = Arrays.copyOf(values, end * 2);
+            }
+        }
+        values[end] = value;
+        table[bucket] = ++end;
+        size++;
+        if (size * 2 > table.length) {
+            rehash(table.length * 2);
+        }
+        return true;
+    }
+
+    /**
+     * Remove a value.
+     * @param value Value to be removed
+     * @return True if the value was in the set
+     */
+    public boolean remove(int value) {
+        if (value < 0) {
+            return false;
+        }
+        int bucket = find(value);
+        if (table[bucket] == 0) {
+            return false;
+        }
+        values[table[bucket] - 1] = REMOVED;
+        size--;
+        deleteBucket(bucket);
+        return true;
+    }
+
+    /**
+     * Check if a value is in the set.
+     * @param value Value to check
+     * @return True if the value is in the set
+     */
+    public boolean contains(int value) {
+        return value >= 0 && table[find(value)] != 0;
+    }
+
+    /**
+     * Number of values in the set.
+     * @return Number of values
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Check if the set is empty.
+     * @return True if there are no values
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Run an action on each value, in insertion order.
+     * @param action Action to run
+     */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < end; i++) {
+            if (values[i] != REMOVED) {
+                action.accept(values[i]);
+            }
+        }
+    }
+
+    /**
+     * Stream of the values, in insertion order.
+     * @return Stream of values
+     */
+    public IntStream stream() {
+        return Arrays.stream(values, 0, end).filter(value -> value != REMOVED);
+    }
+
+    /**
+     * Copy of the values, in insertion order.
+     * @return Array of values
+     */
+    public int[] toArray() {
+        return stream().toArray();
+    }
+
+    /**
+     * Find the bucket holding a value, or the empty bucket where it would go.
+     * @param value Value to look for
+     * @return Index of the bucket
+     */
+    private int find(int value) {
+        int mask = table.length - 1;
+        int bucket = mix(value) & mask;
+        while (table[bucket] != 0 && values[table[bucket] - 1] != value) {
+            bucket = (bucket + 1) & mask;
+        }
+        return bucket;
+    }
+
+    /**
+     * Empty a bucket, shifting later buckets of the same run back so that lookups still find them.
+     * @param bucket Bucket to empty
+     */
+    private void deleteBucket(int bucket) {
+        int mask = table.length - 1;
+        int hole = bucket;
+        int next = (hole + 1) & mask;
+        while (table[next] != 0) {
+            int home = mix(valueAt(next)) & mask;
+            // Move the entry back if its home does not lie cyclically in (hole, next].
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                table[hole] = table[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        table[hole] = 0;
+    }
+
+    /**
+     * Value referred to by a bucket, including one whose slot was just removed.
+     * @param bucket Bucket in use
+     * @return The value
+     */
+    private int valueAt(int bucket) {
+        return values[table[bucket] - 1];
+    }
+
+    /**
+     * Close the holes left by removed values.
+     */
+    private void compact() {
+        int kept = 0;
+        for (int i = 0; i < end; i++) {
+            if (values[i] != REMOVED) {
+                values[kept++] = values[i];
+            }
+        }
+        end = kept;
+        rehash(table.length);
+    }
+
+    /**
+     * Rebuild the hash table.
+     * @param length New length of the table, a power of two
+     */
+    private void rehash(int length) {
+        table = new int[length];
+        int mask = length - 1;
+        for (int i = 0; i < end; i++) {
+            if (values[i] != REMOVED) {
+                int bucket = mix(values[i]) & mask;
+                while (table[bucket] != 0) {
+                    bucket = (bucket + 1) & mask;
+                }
+                table[bucket] = i + 1;
+            }
+        }
+    }
+
+    /**
+     * Spread the bits of a value, so that dense values do not fill runs of buckets.
+     * @param value Value to hash
+     * @return Hash of the value
+     */
+    private static int mix(int value) {
+        int h = value * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,266 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Index of values by the region in time they cover, answering overlap queries in logarithmic time
+ * and window queries in time proportional to the values starting inside the window.
+ * Regions are kept in a treap ordered by start date, where every node also knows the latest end date below it,
+ * so whole subtrees which end before a query starts are skipped.
+ * Each value is indexed under the region it had when added, a changed region must be added again.
+ * @param <T> Type of value
+ */
+public final class IntervalIndex<T> {
+    /**
+     * Node of the treap.
+     * @param <T> Type of value
+     */
+    private static final class Node<T> {
+        /**
+         * Start of the region, in epoch days.
+         */
+        final long start;
+        /**
+         * End of the region, in epoch days.
+         */
+        final long end;
+        /**
+         * Order in which the value was added, breaks ties between equal start dates.
+         */
+        final long sequence;
+        /**
+         * Heap priority, random so that the tree stays balanced.
+         */
+        final int priority;
+        /**
+         * Value indexed.
+         */
+        final T value;
+        /**
+         * Latest end date of this node and every node below it.
+         */
+        long maxEnd;
+        /**
+         * Nodes which start earlier.
+         */
+        Node<T> left;
+        /**
+         * Nodes which start later.
+         */
+        Node<T> right;
+
+        /**
+         * Constructor
+         * @param start Start of the region, in epoch days
+         * @param end End of the region, in epoch days
+         * @param sequence Order in which the value was added
+         * @param value Value indexed
+         */
+        Node(long start, long end, long sequence, T value) {
+            this.start = start;
+            this.end = end;
+            this.sequence = sequence;
+            this.priority = ThreadLocalRandom.current().nextInt();
+            this.value = value;
+            this.maxEnd = end;
+        }
+
+        /**
+         * Recompute the latest end date from the children.
+         * @return This node
+         */
+        Node<T> update() {
+            maxEnd = end;
+            if (left != null && left.maxEnd > maxEnd) {
+                maxEnd = left.maxEnd;
+            }
+            if (right != null && right.maxEnd > maxEnd) {
+                maxEnd = right.maxEnd;
+            }
+            return this;
+        }
+
+        /**
+         * Check if this node comes before a position.
+         * @param start Start of the position, in epoch days
+         * @param sequence Sequence of the position
+         * @return True if this node is ordered before it
+         */
+        boolean isBefore(long start, long sequence) {
+            return this.start < start || (this.start == start && this.sequence < sequence);
+        }
+    }
+
+    /**
+     * Node of each value.
+     */
+    private final Map<T, Node<T>> nodes = new HashMap<>();
+
+    /**
+     * Root of the treap.
+     */
+    private Node<T> root;
+
+    /**
+     * Sequence given to the next value added.
+     */
+    private long nextSequence = 0;
+
+    /**
+     * Index a value under a region, replacing the region it was indexed under before.
+     * @param value Value to be indexed
+     * @param region Region covered by the value
+     */
+    public void add(T value, TimeRegion region) {
+        remove(value);
+        var node = new Node<>(region.getStartTime().toEpochDay(), region.getEndTime().toEpochDay(), nextSequence++, value);
+        nodes.put(value, node);
+        var parts = split(root, node.start, node.sequence);
+        root = merge(merge(parts[0], node), parts[1]);
+    }
+
+    /**
+     * Remove a value from the index.
+     * @param value Value to be removed
+     * @return True if the value was indexed
+     */
+    public boolean remove(T value) {
+        var node = nodes.remove(value);
+        if (node == null) {
+            return false;
+        }
+        var before = split(root, node.start, node.sequence);
+        var after = split(before[1], node.start, node.sequence + 1);
+        root = merge(before[0], after[1]);
+        return true;
+    }
+
+    /**
+     * Check if any indexed region overlaps a region, with the same rule as {@link TimeRegion#conflictsWith(TimeRegion)}.
+     * @param region Region to compare against
+     * @return True if some indexed region overlaps it
+     */
+    public boolean overlaps(TimeRegion region) {
+        long start = region.getStartTime().toEpochDay();
+        long end = region.getEndTime().toEpochDay();
+        var node = root;
+        while (node != null) {
+            if (node.start <= end && node.end >= start) {
+                return true;
+            }
+            node = node.left != null && node.left.maxEnd >= start ? node.left : node.right;
+        }
+        return false;
+    }
+
+    /**
+     * Find the values whose region lies inside a region, with the same rule as {@link TimeRegion#fullyCover(TimeRegion)}.
+     * Only the part of the treap starting inside the region is visited.
+     * @param region Region to look inside
+     * @return Values inside the region, by start date
+     */
+    public List<T> within(TimeRegion region) {
+        var result = new ArrayList<T>();
+        collectWithin(root, region.getStartTime().toEpochDay(), region.getEndTime().toEpochDay(), result);
+        return result;
+    }
+
+    /**
+     * Add the values of a subtree whose region lies inside a window, in order.
+     * @param node Root of the subtree
+     * @param start Start of the window, in epoch days
+     * @param end End of the window, in epoch days
+     * @param result List to add the values to
+     */
+    private static <T> void collectWithin(Node<T> node, long start, long end, List<T> result) {
+        while (node != null) {
+            if (node.start >= start) {
+                collectWithin(node.left, start, end, result);
+                if (node.start > end) {
+                    return;
+                }
+                if (node.end <= end) {
+                    result.add(node.value);
+                }
+            }
+            node = node.right;
+        }
+    }
+
+    /**
+     * Check if a value is indexed.
+     * @param value Value to check
+     * @return True if the value is indexed
+     */
+    public boolean contains(T value) {
+        return nodes.containsKey(value);
+    }
+
+    /**
+     * Number of values indexed.
+     * @return Number of values
+     */
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Remove every value.
+     */
+    public void clear() {
+        nodes.clear();
+        root = null;
+    }
+
+    /**
+     * Split a treap into the nodes before a position and the rest.
+     * @param node Root of the treap
+     * @param start Start of the position, in epoch days
+     * @param sequence Sequence of the position
+     * @return Roots of the nodes before the position and of the rest
+     */
+    private static <T> Node<T>[] split(Node<T> node, long start, long sequence) {
+        @SuppressWarnings("unchecked")
+        Node<T>[] parts = (Node<T>[]) new Node<?>[2];
+        if (node == null) {
+            return parts;
+        }
+        if (node.isBefore(start, sequence)) {
+            var rest = split(node.right, start, sequence);
+            node.right = rest[0];
+            parts[0] = node.update();
+            parts[1] = rest[1];
+        } else {
+            var rest = split(node.left, start, sequence);
+            node.left = rest[1];
+            parts[0] = rest[0];
+            parts[1] = node.update();
+        }
+        return parts;
+    }
+
+    /**
+     * Join two treaps, where every node of the first comes before every node of the second.
+     * @param first Root of the first treap
+     * @param second Root of the second treap
+     * @return Root of the joined treap
+     */
+    private static <T> Node<T> merge(Node<T> first, Node<T> second) {
+        if (first == null) {
+            return second;
+        }
+        if (second == null) {
+            return first;
+        }
+        if (first.priority > second.priority) {
+            first.right = merge(first.right, second);
+            return first.update();
+        }
+        second.left = merge(first, second.left);
+        return second.update();
+    }
+}
@@ -0,0 +1,575 @@
+package utils;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Compressed set of non-negative ints, in the style of a roaring bitmap.
+ * Values are grouped by their upper 16 bits, and the lower 16 bits of each group are kept in a container:
+ * a sorted array while the group has at most {@value #ARRAY_LIMIT} values, a plain 65536 bit bitmap beyond that.
+ * Small groups cost two bytes per value and large groups at most one bit per possible value,
+ * and set operations work a container at a time, on whole words where both are bitmaps.
+ */
+public final class RoaringBitmap {
+    /**
+     * Largest number of values kept in an array container, where an array takes as much space as a bitmap.
+     */
+    private static final int ARRAY_LIMIT = 4096;
+
+    /**
+     * Number of words in a bitmap container.
+     */
+    private static final int WORDS = 1024;
+
+    /**
+     * Lower 16 bits of the values sharing the same upper 16 bits.
+     * Exactly one of array and bits is set.
+     */
+    private static final class Container {
+        /**
+         * Sorted values, the first cardinality of which are used. Null for a bitmap container.
+         */
+        char[] array;
+        /**
+         * Bit of each value. Null for an array container.
+         */
+        long[] bits;
+        /**
+         * Number of values.
+         */
+        int cardinality;
+
+        /**
+         * Constructor for an empty array container.
+         * @param capacity Initial capacity of the array
+         */
+        Container(int capacity) {
+            array = new char[capacity];
+        }
+
+        /**
+         * Constructor for a bitmap container.
+         * @param bits Bit of each value
+         * @param cardinality Number of bits set
+         */
+        Container(long[] bits, int cardinality) {
+            this.bits = bits;
+            this.cardinality = cardinality;
+        }
+
+        /**
+         * Constructor for an array container.
+         * @param array Sorted values
+         * @param cardinality Number of values used
+         */
+        Container(char[] array, int cardinality) {
+            this.array = array;
+            this.cardinality = cardinality;
+        }
+
+        /**
+         * Copy of this container.
+         * @return Copy
+         */
+        Container copy() {
+            return bits != null ? new Container(bits.clone(), cardinality) : new Container(Arrays.copyOf(array, cardinality), cardinality);
+        }
+
+        /**
+         * Check for a value.
+         * @param low Lower 16 bits of the value
+         * @return True if the value is present
+         */
+        boolean contains(char low) {
+            if (bits != null) {
+                return (bits[low >>> 6] & (1L << low)) != 0;
+            }
+            return Arrays.binarySearch(array, 0, cardinality, low) >= 0;
+        }
+
+        /**
+         * Add a value.
+         * @param low Lower 16 bits of the value
+         * @return True if the value was not present
+         */
+        boolean add(char low) {
+            if (bits != null) {
+                long before = bits[low >>> 6];
+                bits[low >>> 6] = before | (1L << low);
+                if (before == bits[low >>> 6]) {
+                    return false;
+                }
+                cardinality++;
+                return true;
+            }
+            int position = Arrays.binarySearch(array, 0, cardinality, low);
+            if (position >= 0) {
+                return false;
+            }
+            position = -position - 1;
+            if (cardinality == ARRAY_LIMIT) {
+                toBitmap();
+                return add(low);
+            }
+            if (cardinality == array.length) {
+                array = Arrays.copyOf(array, Math.min(ARRAY_LIMIT, Math.max(4, cardinality * 2)));
+            }
+            System.arraycopy(array, position, array, position + 1, cardinality - position);
+            array[position] = low;
+            cardinality++;
+            return true;
+        }
+
+        /**
+         * Remove a value.
+         * @param low Lower 16 bits of the value
+         * @return True if the value was present
+         */
+        boolean remove(char low) {
+            if (bits != null) {
+                long before = bits[low >>> 6];
+                bits[low >>> 6] = before & ~(1L << low);
+                if (before == bits[low >>> 6]) {
+                    return false;
+                }
+                if (--cardinality <= ARRAY_LIMIT) {
+                    toArray();
+                }
+                return true;
+            }
+            int position = Arrays.binarySearch(array, 0, cardinality, low);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(array, position + 1, array, position, cardinality - position - 1);
+            cardinality--;
+            return true;
+        }
+
+        /**
+         * Turn into a bitmap container.
+         */
+        void toBitmap() {
+            bits = new long[WORDS];
+            for (int i = 0; i < cardinality; i++) {
+                bits[array[i] >>> 6] |= 1L << array[i];
+            }
+            array = null;
+        }
+
+        /**
+         * Turn into an array container.
+         */
+        void toArray() {
+            array = new char[cardinality];
+            int count = 0;
+            for (int word = 0; word < WORDS; word++) {
+                long w = bits[word];
+                while (w != 0) {
+                    array[count++] = (char) ((word << 6) + Long.numberOfTrailingZeros(w));
+                    w &= w - 1;
+                }
+            }
+            bits = null;
+        }
+
+        /**
+         * Add the values of another container.
+         * @param other Other container
+         */
+        void or(Container other) {
+            if (other.bits != null) {
+                if (bits == null) {
+                    var merged = other.bits.clone();
+                    for (int i = 0; i < cardinality; i++) {
+                        merged[array[i] >>> 6] |= 1L << array[i];
+                    }
+                    bits = merged;
+                    array = null;
+                } else {
+                    for (int word = 0; word < WORDS; word++) {
+                        bits[word] |= other.bits[word];
+                    }
+                }
+                cardinality = count(bits);
+            } else if (bits != null) {
+                for (int i = 0; i < other.cardinality; i++) {
+                    add(other.array[i]);
+                }
+            } else {
+                var merged = new char[cardinality + other.cardinality];
+                int i = 0, j = 0, count = 0;
+                while (i < cardinality && j < other.cardinality) {
+                    char a = array[i], b = other.array[j];
+                    merged[count++] = a <= b ? a : b;
+                    if (a <= b) {
+                        i++;
+                    }
+                    if (b <= a) {
+                        j++;
+                    }
+                }
+                while (i < cardinality) {
+                    merged[count++] = array[i++];
+                }
+                while (j < other.cardinality) {
+                    merged[count++] = other.array[j++];
+                }
+                array = merged;
+                cardinality = count;
+                if (cardinality > ARRAY_LIMIT) {
+                    toBitmap();
+                }
+            }
+        }
+
+        /**
+         * Keep only the values also in another container.
+         * @param other Other container
+         */
+        void and(Container other) {
+            if (bits != null && other.bits != null) {
+                for (int word = 0; word < WORDS; word++) {
+                    bits[word] &= other.bits[word];
+                }
+                cardinality = count(bits);
+                if (cardinality <= ARRAY_LIMIT) {
+                    toArray();
+                }
+                return;
+            }
+            var kept = new char[Math.min(cardinality, other.cardinality)];
+            int count = 0;
+            if (bits == null && other.bits == null) {
+                int i = 0, j = 0;
+                while (i < cardinality && j < other.cardinality) {
+                    if (array[i] < other.array[j]) {
+                        i++;
+                    } else if (array[i] > other.array[j]) {
+                        j++;
+                    } else {
+                        kept[count++] = array[i++];
+                        j++;
+                    }
+                }
+            } else {
+                var values = bits != null ? other : this;
+                var filter = values == this ? other : this;
+                for (int i = 0; i < values.cardinality; i++) {
+                    if (filter.contains(values.array[i])) {
+                        kept[count++] = values.array[i];
+                    }
+                }
+            }
+            array = kept;
+            bits = null;
+            cardinality = count;
+        }
+
+        /**
+         * Count the values also in another container.
+         * @param other Other container
+         * @return Number of values in both
+         */
+        int andCardinality(Container other) {
+            if (bits != null && other.bits != null) {
+                int count = 0;
+                for (int word = 0; word < WORDS; word++) {
+                    count += Long.bitCount(bits[word] & other.bits[word]);
+                }
+                return count;
+            }
+            int count = 0;
+            if (bits == null && other.bits == null) {
+                int i = 0, j = 0;
+                while (i < cardinality && j < other.cardinality) {
+                    if (array[i] < other.array[j]) {
+                        i++;
+                    } else if (array[i] > other.array[j]) {
+                        j++;
+                    } else {
+                        count++;
+                        i++;
+                        j++;
+                    }
+                }
+                return count;
+            }
+            var values = bits != null ? other : this;
+            var filter = values == this ? other : this;
+            for (int i = 0; i < values.cardinality; i++) {
+                if (filter.contains(values.array[i])) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        /**
+         * Run an action on each value.
+         * @param high Upper 16 bits of the values, already shifted
+         * @param action Action to run
+         */
+        void forEach(int high, IntConsumer action) {
+            if (bits == null) {
+                for (int i = 0; i < cardinality; i++) {
+                    action.accept(high | array[i]);
+                }
+                return;
+            }
+            for (int word = 0; word < WORDS; word++) {
+                long w = bits[word];
+                while (w != 0) {
+                    action.accept(high | (word << 6) + Long.numberOfTrailingZeros(w));
+                    w &= w - 1;
+                }
+            }
+        }
+
+        /**
+         * Count the bits set in a bitmap.
+         * @param bits Bitmap
+         * @return Number of bits set
+         */
+        private static int count(long[] bits) {
+            int count = 0;
+            for (long word: bits) {
+                count += Long.bitCount(word);
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Upper 16 bits of each group, sorted. The first size are used.
+     */
+    private char[] keys;
+
+    /**
+     * Container of each group.
+     */
+    private Container[] containers;
+
+    /**
+     * Number of groups.
+     */
+    private int size;
+
+    /**
+     * Constructor for an empty bitmap.
+     */
+    public RoaringBitmap() {
+        keys = new char[1];
+        containers = new Container[1];
+    }
+
+    /**
+     * Copy of this bitmap.
+     * @return Copy
+     */
+    public RoaringBitmap copy() {
+        var copy = new RoaringBitmap();
+        copy.keys = Arrays.copyOf(keys, Math.max(1, size));
+        copy.containers = new Container[copy.keys.length];
+        for (int i = 0; i < size; i++) {
+            copy.containers[i] = containers[i].copy();
+        }
+        copy.size = size;
+        return copy;
+    }
+
+    /**
+     * Add a value.
+     * @param value Value to be added, must not be negative
+     * @return True if the value was not in the bitmap
+     */
+    public boolean add(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative value " + value);
+        }
+        char key = (char) (value >>> 16);
+        int position = Arrays.binarySearch(keys, 0, size, key);
+        if (position < 0) {
+            position = -position - 1;
+            insert(position, key, new Container(1));
+        }
+        return containers[position].add((char) value);
+    }
+
+    /**
+     * Remove a value.
+     * @param value Value to be removed
+     * @return True if the value was in the bitmap
+     */
+    public boolean remove(int value) {
+        if (value < 0) {
+            return false;
+        }
+        int position = Arrays.binarySearch(keys, 0, size, (char) (value >>> 16));
+        if (position < 0 || !containers[position].remove((char) value)) {
+            return false;
+        }
+        if (containers[position].cardinality == 0) {
+            delete(position);
+        }
+        return true;
+    }
+
+    /**
+     * Check if a value is in the bitmap.
+     * @param value Value to check
+     * @return True if the value is in the bitmap
+     */
+    public boolean contains(int value) {
+        if (value < 0) {
+            return false;
+        }
+        int position = Arrays.binarySearch(keys, 0, size, (char) (value >>> 16));
+        return position >= 0 && containers[position].contains((char) value);
+    }
+
+    /**
+     * Number of values in the bitmap.
+     * @return Number of values
+     */
+    public int cardinality() {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            count += containers[i].cardinality;
+        }
+        return count;
+    }
+
+    /**
+     * Check if the bitmap is empty.
+     * @return True if there are no values
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Add every value of another bitmap to this one.
+     * @param other Other bitmap
+     */
+    public void or(RoaringBitmap other) {
+        int i = 0;
+        for (int j = 0; j < other.size; j++) {
+            char key = other.keys[j];
+            while (i < size && keys[i] < key) {
+                i++;
+            }
+            if (i < size && keys[i] == key) {
+                containers[i].or(other.containers[j]);
+            } else {
+                insert(i, key, other.containers[j].copy());
+            }
+            i++;
+        }
+    }
+
+    /**
+     * Keep only the values of this bitmap which are also in another one.
+     * @param other Other bitmap
+     */
+    public void and(RoaringBitmap other) {
+        int kept = 0;
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            while (j < other.size && other.keys[j] < keys[i]) {
+                j++;
+            }
+            if (j < other.size && other.keys[j] == keys[i]) {
+                containers[i].and(other.containers[j]);
+                if (containers[i].cardinality > 0) {
+                    keys[kept] = keys[i];
+                    containers[kept++] = containers[i];
+                }
+            }
+        }
+        Arrays.fill(containers, kept, size, null);
+        size = kept;
+    }
+
+    /**
+     * Bitmap of the values in both of two bitmaps.
+     * @param first First bitmap
+     * @param second Second bitmap
+     * @return New bitmap of the values in both
+     */
+    public static RoaringBitmap and(RoaringBitmap first, RoaringBitmap second) {
+        var result = first.copy();
+        result.and(second);
+        return result;
+    }
+
+    /**
+     * Count the values in both of two bitmaps, without building their intersection.
+     * @param first First bitmap
+     * @param second Second bitmap
+     * @return Number of values in both
+     */
+    public static int andCardinality(RoaringBitmap first, RoaringBitmap second) {
+        int count = 0;
+        int i = 0, j = 0;
+        while (i < first.size && j < second.size) {
+            if (first.keys[i] < second.keys[j]) {
+                i++;
+            } else if (first.keys[i] > second.keys[j]) {
+                j++;
+            } else {
+                count += first.containers[i++].andCardinality(second.containers[j++]);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Run an action on each value, in increasing order.
+     * @param action Action to run
+     */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < size; i++) {
+            containers[i].forEach(keys[i] << 16, action);
+        }
+    }
+
+    /**
+     * Values of the bitmap.
+     * @return Array of values, in increasing order
+     */
+    public int[] toArray() {
+        var values = new int[cardinality()];
+        var count = new int[1];
+        forEach(value -> values[count[0]++] = value);
+        return values;
+    }
+
+    /**
+     * Insert a group.
+     * @param position Position of the group among the groups
+     * @param key Upper 16 bits of the group
+     * @param container Container of the group
+     */
+    private void insert(int position, char key, Container container) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        System.arraycopy(keys, position, keys, position + 1, size - position);
+        System.arraycopy(containers, position, containers, position + 1, size - position);
+        keys[position] = key;
+        containers[position] = container;
+        size++;
+    }
+
+    /**
+     * Delete a group.
+     * @param position Position of the group among the groups
+     */
+    private void delete(int position) {
+        System.arraycopy(keys, position + 1, keys, position, size - position - 1);
+        System.arraycopy(containers, position + 1, containers, position, size - position - 1);
+        containers[--size] = null;
+    }
+}
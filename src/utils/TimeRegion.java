@@ -34,6 +34,14 @@ public class TimeRegion implements Serializable {
     	return start;
     }
 
+    /**
+     * End time
+     * @return Local end time
+     */
+    public LocalDate getEndTime() {
+        return end;
+    }
+
     /**
      * Adjust Start of Region
      * @param start New start of the region.
@@ -65,7 +73,7 @@ public class TimeRegion implements Serializable {
      * @return True if there is full coverage, false otherwise
      */
     public boolean fullyCover(TimeRegion region) {
-        return (start.isEqual(start) || start.isBefore(region.start)) && (end.isEqual(end) || end.isAfter(region.end));
+        return (start.isEqual(region.start) || start.isBefore(region.start)) && (end.isEqual(region.end) || end.isAfter(region.end));
     }
 
     @Override
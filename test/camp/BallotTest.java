@@ -0,0 +1,55 @@
+package camp;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import user.Staff;
+import user.Student;
+import user.UserController;
+import utils.TimeRegion;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BallotTest {
+    private static final LocalDate FIRST_DAY = LocalDate.now().plusDays(30);
+
+    @Test
+    void refusedRegistrationFallsThroughToTheNextChoice(@TempDir Path directory) throws IOException, CampControllerException {
+        var students = directory.resolve("student_list.csv");
+        Files.writeString(students, "Name,Email,Faculty\nXavier,XAVIER@e.ntu.edu.sg,SCSE\nYvonne,YVONNE@e.ntu.edu.sg,SCSE\n");
+        for (long seed = 0; seed < 8; seed++) {
+            var userController = new UserController();
+            userController.addStudents(students.toString());
+            var campController = new CampController();
+            var staff = new Staff("Staff", "STAFFBALLOT", "password", "SCSE");
+            var first = campController.createCamp(staff, "First", new TimeRegion(FIRST_DAY, FIRST_DAY.plusDays(2)),
+                    FIRST_DAY.minusDays(1), "NTU", "Hall", 1, 0, "Test camp");
+            var second = campController.createCamp(staff, "Second", new TimeRegion(FIRST_DAY.plusDays(7), FIRST_DAY.plusDays(9)),
+                    FIRST_DAY.minusDays(1), "NTU", "Hall", 1, 0, "Test camp");
+            var ballot = campController.openBallot(staff, List.of(first, second), 1);
+            var xavier = (Student) userController.getUser("XAVIER");
+            var yvonne = (Student) userController.getUser("YVONNE");
+            ballot.submit(xavier, List.of(new Ballot.Choice(first, Registration.Role.ATTENDEE), new Ballot.Choice(second, Registration.Role.ATTENDEE)));
+            ballot.submit(yvonne, List.of(new Ballot.Choice(first, Registration.Role.ATTENDEE)));
+            ballot.close();
+
+            // Xavier is refused the first camp when registering, as if they had joined a camp at the same time meanwhile.
+            ballot.draw(seed, userController, pass -> {
+                for (var registration: pass) {
+                    if (registration.getStudent() == xavier && registration.getCamp() == first) {
+                        registration.fail("Student cannot join this camp due to conflicts in time.");
+                    }
+                }
+                campController.registerAll(pass.stream().filter(registration -> registration.getFailure() == null).toList(), userController);
+            });
+
+            assertEquals(List.of("YVONNE"), first.getStudentNames(), "seed " + seed);
+            assertEquals(List.of("XAVIER"), second.getStudentNames(), "seed " + seed);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package camp;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import user.Staff;
+import user.Student;
+import user.UserController;
+import utils.TimeRegion;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CampControllerTest {
+    private static final LocalDate FIRST_DAY = LocalDate.now().plusDays(30);
+
+    private static TimeRegion randomRegion(Random random, int maxDays) {
+        var start = FIRST_DAY.plusDays(random.nextInt(730));
+        return new TimeRegion(start, start.plusDays(random.nextInt(maxDays)));
+    }
+
+    @Test
+    void dateFilterMatchesLinearScan() throws CampControllerException {
+        var random = new Random(3);
+        var campController = new CampController();
+        var userController = new UserController();
+        var staff = new Staff("Staff", "STAFFDATE", "password", "SCSE");
+        var student = new Student("Student", "STUDENTDATE", "password", "SCSE");
+        var camps = new ArrayList<Camp>();
+        for (int i = 0; i < 20_000; i++) {
+            switch (random.nextInt(6)) {
+                case 0, 1 -> camps.add(campController.createCamp(staff, "Camp " + random.nextInt(1000), randomRegion(random, 7),
+                        FIRST_DAY.minusDays(1), random.nextBoolean() ? "NTU" : "EEE", "Hall", 10, 2, "Test camp"));
+                case 2 -> {
+                    if (!camps.isEmpty()) {
+                        campController.deleteCamp(staff, camps.remove(random.nextInt(camps.size())), userController);
+                    }
+                }
+                case 3 -> {
+                    if (!camps.isEmpty()) {
+                        camps.get(random.nextInt(camps.size())).setRegion(randomRegion(random, 7));
+                    }
+                }
+                default -> {
+                    var window = randomRegion(random, 90);
+                    var listed = campController.getVisibleCamps(student, List.of(CampController.DateFilter(window)));
+                    var expected = campController.getVisibleCamps(student, List.of()).stream()
+                            .filter(camp -> window.fullyCover(camp.getRegion()))
+                            .toList();
+                    assertEquals(expected, listed);
+                }
+            }
+        }
+    }
+
+    @Test
+    void analyticsMatchBruteForce() throws CampControllerException {
+        var random = new Random(17);
+        var campController = new CampController();
+        var staff = new Staff("Staff", "STAFFSETS", "password", "SCSE");
+        var camps = new ArrayList<Camp>();
+        for (int i = 0; i < 8; i++) {
+            var start = FIRST_DAY.plusDays(7L * i);
+            camps.add(campController.createCamp(staff, "Camp " + i, new TimeRegion(start, start.plusDays(2)),
+                    FIRST_DAY.minusDays(1), "NTU", "Hall", 400, 10, "Test camp"));
+        }
+        var students = new ArrayList<Student>();
+        for (int i = 0; i < 300; i++) {
+            students.add(new Student("Student " + i, "SETS" + i, "password", "SCSE"));
+        }
+        for (var student: students) {
+            if (random.nextInt(10) == 0) {
+                try {
+                    camps.get(random.nextInt(camps.size())).addStudentCommittee(student);
+                } catch (CampControllerException e) {
+                    // Committee full, the student stays an attendee only.
+                }
+            }
+            for (var camp: camps) {
+                if (random.nextInt(3) == 0 && !student.isAttending(camp)) {
+                    camp.addStudent(student);
+                }
+            }
+        }
+
+        for (var membership: CampController.Membership.values()) {
+            var members = new HashMap<Camp, Set<String>>();
+            for (var camp: camps) {
+                members.put(camp, new HashSet<>(membership == CampController.Membership.STUDENTS ? camp.getStudentNames() : camp.getCommittees()));
+            }
+            for (int round = 0; round < 50; round++) {
+                var chosen = new ArrayList<Camp>();
+                for (var camp: camps) {
+                    if (random.nextBoolean()) {
+                        chosen.add(camp);
+                    }
+                }
+                var union = new HashSet<String>();
+                chosen.forEach(camp -> union.addAll(members.get(camp)));
+                assertEquals(union, new HashSet<>(CampController.getUserIDs(CampController.union(chosen, membership))));
+
+                var intersection = chosen.isEmpty() ? new HashSet<String>() : new HashSet<>(members.get(chosen.get(0)));
+                chosen.forEach(camp -> intersection.retainAll(members.get(camp)));
+                assertEquals(intersection, new HashSet<>(CampController.getUserIDs(CampController.intersection(chosen, membership))));
+
+                int count = 1 + random.nextInt(3);
+                assertEquals(inAtLeast(chosen, count, members),
+                        new HashSet<>(CampController.getUserIDs(CampController.inAtLeast(chosen, count, membership))));
+
+                var first = camps.get(random.nextInt(camps.size()));
+                var second = camps.get(random.nextInt(camps.size()));
+                var overlap = new HashSet<>(members.get(first));
+                overlap.retainAll(members.get(second));
+                assertEquals(overlap.size(), CampController.countOverlap(first, second, membership));
+            }
+        }
+    }
+
+    private static Set<String> inAtLeast(List<Camp> camps, int count, Map<Camp, Set<String>> members) {
+        var seen = new HashMap<String, Integer>();
+        camps.forEach(camp -> members.get(camp).forEach(userID -> seen.merge(userID, 1, Integer::sum)));
+        var result = new HashSet<String>();
+        seen.forEach((userID, times) -> {
+            if (times >= count) {
+                result.add(userID);
+            }
+        });
+        return result;
+    }
+
+    @Test
+    void savedFilesKeepLineBreaks(@TempDir Path directory) throws IOException, CampControllerException {
+        var students = directory.resolve("student_list.csv");
+        Files.writeString(students, "Name,Email,Faculty\nAlice,ALICE@e.ntu.edu.sg,SCSE\nBob,BOB@e.ntu.edu.sg,SCSE\n");
+        var staffList = directory.resolve("staff_list.csv");
+        Files.writeString(staffList, "Name,Email,Faculty\nStaff,STAFF@ntu.edu.sg,SCSE\n");
+        var userController = new UserController();
+        userController.addStudents(students.toString());
+        userController.addStaff(staffList.toString());
+        var campController = new CampController();
+        var camp = campController.createCamp((Staff) userController.getUser("STAFF"), "Camp", new TimeRegion(FIRST_DAY, FIRST_DAY.plusDays(2)),
+                FIRST_DAY.minusDays(1), "NTU", "Hall", 10, 2, "First line\nsecond line");
+        var alice = (Student) userController.getUser("ALICE");
+        camp.addStudent(alice);
+        var enquiry = new Enquiry("Two\nlines, \"quoted\"", "ALICE");
+        camp.addEnquiries(alice, enquiry);
+        enquiry.reply("Answer\r\nover two lines");
+        var bob = (Student) userController.getUser("BOB");
+        camp.addStudentCommittee(bob);
+        camp.addSuggestion(userController.convertTo(bob, camp), new Suggestion("Suggestion\n\nwith a blank line", "BOB"));
+        alice.changePassword("pass\nword");
+
+        var usersFile = directory.resolve("users.csv").toString();
+        var campsFile = directory.resolve("camps.csv").toString();
+        UserController.saveTo(usersFile, userController);
+        CampController.saveTo(campsFile, campController, userController);
+        var loadedUsers = UserController.loadFrom(usersFile).orElseThrow();
+        var loadedCamps = CampController.loadFrom(campsFile, loadedUsers).orElseThrow();
+
+        var loaded = loadedCamps.getCamp(camp.getID());
+        var loadedEnquiry = loaded.getAllEnquiries().get(0);
+        assertEquals(enquiry.getMessage(), loadedEnquiry.getMessage());
+        assertEquals(enquiry.getAnswer(), loadedEnquiry.getAnswer());
+        assertEquals("Suggestion\n\nwith a blank line", loaded.getAllSuggestions().get(0).getText());
+        assertEquals("pass\nword", loadedUsers.getUser("ALICE").getPassword());
+        assertEquals(camp.getStudentNames(), loaded.getStudentNames());
+    }
+}
@@ -0,0 +1,156 @@
+package camp;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import user.Staff;
+import user.Student;
+import user.UserController;
+import utils.TimeRegion;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CampTest {
+    private static final LocalDate FIRST_DAY = LocalDate.now().plusDays(30);
+    private static final int STUDENTS = 300;
+    private static final int BUSY_STUDENTS = 20;
+    private static final int CAMPS = 8;
+    private static final int TOTAL_SLOTS = 24;
+    private static final int COMMITTEE_SLOTS = 4;
+
+    /**
+     * Students STRESS0 to STRESS299.
+     */
+    private static UserController users(Path directory) throws IOException {
+        var roster = new StringBuilder("Name,Email,Faculty\n");
+        for (int i = 0; i < STUDENTS; i++) {
+            roster.append("Student ").append(i).append(",STRESS").append(i).append("@e.ntu.edu.sg,SCSE\n");
+        }
+        var students = directory.resolve("student_list.csv");
+        Files.writeString(students, roster);
+        var userController = new UserController();
+        userController.addStudents(students.toString());
+        return userController;
+    }
+
+    @Test
+    void concurrentRegistrationKeepsSlotsConsistent(@TempDir Path directory) throws IOException, InterruptedException {
+        var userController = users(directory);
+        var campController = new CampController();
+        var staff = new Staff("Staff", "STAFFSTRESS", "password", "SCSE");
+        var camps = new ArrayList<Camp>();
+        for (int i = 0; i < CAMPS; i++) {
+            var firstDay = FIRST_DAY.plusDays(7L * i);
+            camps.add(campController.createCamp(staff, "Camp " + i, new TimeRegion(firstDay, firstDay.plusDays(2)),
+                    FIRST_DAY.minusDays(1), "NTU", "Hall", TOTAL_SLOTS, COMMITTEE_SLOTS, "Test camp"));
+        }
+
+        // Objects taken before any conversion, as held by a session or API token that logged in earlier.
+        var held = new Student[STUDENTS];
+        for (int i = 0; i < STUDENTS; i++) {
+            held[i] = (Student) userController.getUser("STRESS" + i);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        for (int i = 0; i < 20_000; i++) {
+            pool.execute(() -> {
+                var random = ThreadLocalRandom.current();
+                var camp = camps.get(random.nextInt(camps.size()));
+                // Committee registrations and half of the others fall on a few students,
+                // so that the replaced objects of converted students keep registering.
+                int action = random.nextInt(10);
+                int number = random.nextInt(action == 0 || random.nextBoolean() ? BUSY_STUDENTS : STUDENTS);
+                var student = random.nextBoolean() ? held[number] : (Student) userController.getUser("STRESS" + number);
+                try {
+                    if (action == 0) {
+                        camp.addStudentCommittee(student);
+                        userController.convertTo(student, camp);
+                    } else if (action == 1) {
+                        camp.removeStudent(student);
+                    } else {
+                        camp.addStudent(student);
+                    }
+                } catch (CampControllerException e) {
+                    // Refused, as many of these are.
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+
+        var committeeCamps = new int[STUDENTS];
+        for (var camp: camps) {
+            var members = camp.getStudentNames();
+            assertEquals(members.size(), new HashSet<>(members).size(), "member registered twice");
+            assertTrue(members.size() <= TOTAL_SLOTS, "camp overbooked");
+            assertTrue(camp.getCommittees().size() <= COMMITTEE_SLOTS, "committee overbooked");
+            assertEquals(members.size(), TOTAL_SLOTS - camp.getRemainding());
+            assertEquals(members.size(), camp.countMembers(CampController.Membership.STUDENTS));
+            assertEquals(camp.getCommittees().size(), camp.countMembers(CampController.Membership.COMMITTEES));
+            for (int i = 0; i < STUDENTS; i++) {
+                var student = (Student) userController.getUser("STRESS" + i);
+                assertEquals(members.contains(student.getUserID()), student.isAttending(camp), student.getUserID());
+                assertEquals(student.isAttending(camp), held[i].isAttending(camp), "replaced object of " + student.getUserID());
+            }
+            for (var id: camp.getCommittees()) {
+                committeeCamps[Integer.parseInt(id.substring("STRESS".length()))]++;
+            }
+        }
+        for (int count: committeeCamps) {
+            assertTrue(count <= 1, "committee member of two camps");
+        }
+    }
+
+    @Test
+    void deletedCampTakesNoRegistrations(@TempDir Path directory) throws IOException, InterruptedException, CampControllerException {
+        var userController = users(directory);
+        var campController = new CampController();
+        var staff = new Staff("Staff", "STAFFDELETE", "password", "SCSE");
+        var camp = campController.createCamp(staff, "Camp", new TimeRegion(FIRST_DAY, FIRST_DAY.plusDays(2)),
+                FIRST_DAY.minusDays(1), "NTU", "Hall", STUDENTS, COMMITTEE_SLOTS, "Test camp");
+
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        for (int i = 0; i < STUDENTS; i++) {
+            var student = (Student) userController.getUser("STRESS" + i);
+            pool.execute(() -> {
+                try {
+                    camp.addStudent(student);
+                } catch (CampControllerException e) {
+                    // Refused once the camp is deleted.
+                }
+            });
+            if (i == STUDENTS / 2) {
+                pool.execute(() -> {
+                    try {
+                        campController.deleteCamp(staff, camp, userController);
+                    } catch (CampControllerException e) {
+                        throw new RuntimeException(e);
+                    }
+                });
+            }
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+
+        for (int i = 0; i < STUDENTS; i++) {
+            var student = (Student) userController.getUser("STRESS" + i);
+            assertFalse(student.isAttending(camp), student.getUserID());
+        }
+        var late = (Student) userController.getUser("STRESS0");
+        var refusal = assertThrows(CampControllerException.class, () -> camp.joinWaitlist(late));
+        assertEquals("This camp has been deleted.", refusal.getMessage());
+    }
+}
@@ -0,0 +1,116 @@
+package storage;
+
+import camp.CampController;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import user.UserController;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompactorTest {
+    @TempDir
+    Path directory;
+
+    private Journal journal;
+
+    @AfterEach
+    void closeJournal() {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    /**
+     * Controllers holding a hundred students, ALICE, BOB, CAROL and others, written as the first full snapshot.
+     * The roster is large enough for a few changes to be written as a delta.
+     */
+    private UserController writeBase() throws IOException {
+        var roster = new StringBuilder("Name,Email,Faculty\nAlice,ALICE@e.ntu.edu.sg,SCSE\nBob,BOB@e.ntu.edu.sg,EEE\nCarol,CAROL@e.ntu.edu.sg,NBS\n");
+        for (int i = 0; i < 97; i++) {
+            roster.append("Student ").append(i).append(",S").append(i).append("@e.ntu.edu.sg,SCSE\n");
+        }
+        var rosterFile = directory.resolve("student_list.csv");
+        Files.writeString(rosterFile, roster);
+        var userController = new UserController();
+        userController.addStudents(rosterFile.toString());
+        Snapshot.write(snapshots(), userController, new CampController());
+        return userController;
+    }
+
+    private String snapshots() {
+        return directory.resolve("snapshot").toString();
+    }
+
+    private UserController reload() throws IOException {
+        var chain = Snapshot.chain(snapshots());
+        var userController = UserController.loadFrom(chain);
+        var campController = CampController.loadFrom(chain, userController);
+        Journal.replay(directory.resolve("journal").toString(), userController, campController);
+        return userController;
+    }
+
+    @Test
+    void changesInAnEarlierDeltaSurviveLaterCheckpoints() throws IOException {
+        var userController = writeBase();
+        journal = Journal.open(directory.resolve("journal").toString());
+        var compactor = new Compactor(journal, snapshots(), 3600);
+
+        userController.getUser("ALICE").changePassword("changed");
+        compactor.compact();
+        userController.getUser("BOB").changePassword("other");
+        compactor.compact();
+        assertTrue(Snapshot.chain(snapshots()).get(0).isDelta());
+        compactor.compact();
+        compactor.close();
+        journal = null;
+
+        var reloaded = reload();
+        assertEquals("changed", reloaded.getUser("ALICE").getPassword());
+        assertEquals("other", reloaded.getUser("BOB").getPassword());
+        assertEquals("password", reloaded.getUser("CAROL").getPassword());
+    }
+
+    @Test
+    void deltaHoldsOnlyTheUsersChangedSinceTheBase() throws IOException {
+        var userController = writeBase();
+        journal = Journal.open(directory.resolve("journal").toString());
+        var compactor = new Compactor(journal, snapshots(), 3600);
+
+        userController.getUser("ALICE").changePassword("changed");
+        compactor.compact();
+        userController.getUser("BOB").changePassword("other");
+        userController.getUser("ALICE").changePassword("again");
+        compactor.compact();
+        compactor.close();
+        journal = null;
+
+        var newest = Snapshot.chain(snapshots()).get(0);
+        assertTrue(newest.isDelta());
+        assertEquals(2, newest.userCount());
+        assertEquals(0, newest.campCount());
+        assertEquals("again", reload().getUser("ALICE").getPassword());
+    }
+
+    @Test
+    void checkpointWithoutRecordsKeepsTheSnapshot() throws IOException {
+        var userController = writeBase();
+        journal = Journal.open(directory.resolve("journal").toString());
+        var compactor = new Compactor(journal, snapshots(), 3600);
+
+        userController.getUser("ALICE").changePassword("changed");
+        compactor.compact();
+        var newest = Snapshot.chain(snapshots()).get(0).getGeneration();
+        compactor.compact();
+        compactor.close();
+        journal = null;
+
+        assertEquals(newest, Snapshot.chain(snapshots()).get(0).getGeneration());
+        assertEquals("changed", reload().getUser("ALICE").getPassword());
+    }
+}
@@ -0,0 +1,115 @@
+package storage;
+
+import camp.Ballot;
+import camp.Camp;
+import camp.CampController;
+import camp.CampControllerException;
+import camp.Enquiry;
+import camp.Registration;
+import user.Staff;
+import user.Student;
+import user.UserController;
+import utils.TimeRegion;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Controllers and changes shared by the storage tests.
+ */
+final class Fixtures {
+    private static final LocalDate FIRST_DAY = LocalDate.now().plusDays(30);
+
+    private Fixtures() {
+    }
+
+    /**
+     * Users ALICE, BOB, CAROL and DAVE, with a staff STAFF.
+     */
+    static UserController users(Path directory) throws IOException {
+        var students = directory.resolve("student_list.csv");
+        Files.writeString(students, "Name,Email,Faculty\nAlice,ALICE@e.ntu.edu.sg,SCSE\nBob,BOB@e.ntu.edu.sg,SCSE\n"
+                + "Carol,CAROL@e.ntu.edu.sg,SCSE\nDave,DAVE@e.ntu.edu.sg,SCSE\n");
+        var staff = directory.resolve("staff_list.csv");
+        Files.writeString(staff, "Name,Email,Faculty\nStaff,STAFF@ntu.edu.sg,SCSE\n");
+        var userController = new UserController();
+        userController.addStudents(students.toString());
+        userController.addStaff(staff.toString());
+        return userController;
+    }
+
+    /**
+     * Camps 0 and 1 in charge of STAFF, a week apart.
+     */
+    static CampController camps(UserController userController) {
+        var campController = new CampController();
+        for (int i = 0; i < 2; i++) {
+            var start = FIRST_DAY.plusDays(7L * i);
+            campController.createCamp(staff(userController), "Camp " + i, new TimeRegion(start, start.plusDays(2)),
+                    FIRST_DAY.minusDays(1), "NTU", "Hall", 10, 3, "Test camp");
+        }
+        return campController;
+    }
+
+    static Staff staff(UserController userController) {
+        return (Staff) userController.getUser("STAFF");
+    }
+
+    /**
+     * Makes one change of each kind, journaled as it would be from the screens: an attendee, a committee member,
+     * a password, an enquiry and its reply, a camp deleted with a committee member, and a ballot with a choice.
+     */
+    static void mutate(UserController userController, CampController campController) throws CampControllerException {
+        var camp = campController.getCamp(0);
+        var other = campController.getCamp(1);
+        camp.addStudent((Student) userController.getUser("ALICE"));
+        camp.addStudentCommittee((Student) userController.getUser("BOB"));
+        userController.convertTo((Student) userController.getUser("BOB"), camp);
+        userController.getUser("CAROL").changePassword("changed");
+        var enquiry = new Enquiry("When does it start?", "ALICE");
+        camp.addEnquiries((Student) userController.getUser("ALICE"), enquiry);
+        enquiry.reply("At nine.");
+        other.addStudentCommittee((Student) userController.getUser("DAVE"));
+        userController.convertTo((Student) userController.getUser("DAVE"), other);
+        campController.deleteCamp(staff(userController), other, userController);
+        var ballot = campController.openBallot(staff(userController), List.of(camp), 1);
+        ballot.submit((Student) userController.getUser("CAROL"), List.of(new Ballot.Choice(camp, Registration.Role.ATTENDEE)));
+    }
+
+    /**
+     * Camps and users of controllers as text, to compare states.
+     */
+    static String describe(UserController userController, CampController campController) {
+        var description = new StringBuilder();
+        var camps = campController.getInChargeCamps(staff(userController));
+        camps.sort(Comparator.comparingInt(Camp::getID));
+        for (var camp: camps) {
+            description.append(camp.getID()).append(' ').append(camp.getName())
+                    .append(' ').append(camp.getStudentNames().stream().sorted().toList())
+                    .append(' ').append(camp.getCommittees().stream().sorted().toList());
+            for (var enquiry: camp.getAllEnquiries()) {
+                description.append(' ').append(enquiry.getUserID()).append(": ").append(enquiry);
+            }
+            description.append('\n');
+        }
+        var users = new TreeMap<String, String>();
+        for (var user: userController.getAllUsers()) {
+            users.put(user.getUserID(), user.getPassword() + " " + user.isFirstLogin());
+        }
+        for (var ballot: campController.getBallots()) {
+            description.append(ballot);
+            for (var userID: users.keySet()) {
+                if (userController.getUser(userID) instanceof Student student && !ballot.getChoices(student).isEmpty()) {
+                    description.append(' ').append(userID).append(": ").append(ballot.getChoices(student));
+                }
+            }
+            description.append('\n');
+        }
+        return description.append(users).toString();
+    }
+}
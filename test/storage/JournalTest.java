@@ -0,0 +1,162 @@
+package storage;
+
+import camp.CampController;
+import camp.CampControllerException;
+import camp.Enquiry;
+import camp.Suggestion;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import user.Student;
+import user.StudentCommittee;
+import user.UserController;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JournalTest {
+    @TempDir
+    Path directory;
+
+    private UserController userController;
+
+    private CampController campController;
+
+    private Journal journal;
+
+    /**
+     * Writes a base snapshot holding a roster and two camps, then opens the journal over it.
+     */
+    @BeforeEach
+    void writeBase() throws IOException {
+        userController = Fixtures.users(directory);
+        campController = Fixtures.camps(userController);
+        Snapshot.write(snapshots(), userController, campController);
+        journal = Journal.open(journals());
+    }
+
+    @AfterEach
+    void closeJournal() {
+        journal.close();
+    }
+
+    private String snapshots() {
+        return directory.resolve("snapshot").toString();
+    }
+
+    private String journals() {
+        return directory.resolve("journal").toString();
+    }
+
+    private void mutate() throws CampControllerException {
+        Fixtures.mutate(userController, campController);
+        journal.close();
+    }
+
+    private static String describe(UserController userController, CampController campController) {
+        return Fixtures.describe(userController, campController);
+    }
+
+    private List<Snapshot> chain() throws IOException {
+        return Snapshot.chain(snapshots());
+    }
+
+    @Test
+    void replayRestoresEveryChange() throws IOException, CampControllerException {
+        mutate();
+        var chain = chain();
+        var reloadedUsers = UserController.loadFrom(chain);
+        var reloadedCamps = CampController.loadFrom(chain, reloadedUsers);
+        Journal.replay(journals(), reloadedUsers, reloadedCamps);
+
+        assertEquals(describe(userController, campController), describe(reloadedUsers, reloadedCamps));
+        assertInstanceOf(StudentCommittee.class, reloadedUsers.getUser("BOB"));
+        // The balloted camp stays closed to first come first served registration.
+        var dave = (Student) reloadedUsers.getUser("DAVE");
+        var refusal = assertThrows(CampControllerException.class, () -> reloadedCamps.getCamp(0).addStudent(dave));
+        assertTrue(refusal.getMessage().contains("by ballot"), refusal.getMessage());
+    }
+
+    @Test
+    void replayClosesAllocatedBallots() throws IOException, CampControllerException {
+        Fixtures.mutate(userController, campController);
+        var ballot = campController.getBallots().get(0);
+        campController.allocate(Fixtures.staff(userController), ballot, 1, userController);
+        journal.close();
+
+        var chain = chain();
+        var reloadedUsers = UserController.loadFrom(chain);
+        var reloadedCamps = CampController.loadFrom(chain, reloadedUsers);
+        Journal.replay(journals(), reloadedUsers, reloadedCamps);
+
+        assertTrue(reloadedCamps.getBallots().isEmpty());
+        assertTrue(reloadedCamps.getCamp(0).getStudentNames().contains("CAROL"));
+        assertEquals(describe(userController, campController), describe(reloadedUsers, reloadedCamps));
+    }
+
+    @Test
+    void replayingTwiceChangesNothing() throws IOException, CampControllerException {
+        mutate();
+        var chain = chain();
+        var reloadedUsers = UserController.loadFrom(chain);
+        var reloadedCamps = CampController.loadFrom(chain, reloadedUsers);
+        Journal.replay(journals(), reloadedUsers, reloadedCamps);
+        var once = describe(reloadedUsers, reloadedCamps);
+        Journal.replay(journals(), reloadedUsers, reloadedCamps);
+
+        assertEquals(once, describe(reloadedUsers, reloadedCamps));
+    }
+
+    @Test
+    void replayOverNewerSnapshotSkipsDeletedCamps() throws IOException, CampControllerException {
+        mutate();
+        var chain = chain();
+        var reloadedUsers = UserController.loadFrom(chain);
+        var reloadedCamps = CampController.loadFrom(chain, reloadedUsers);
+        Journal.replay(journals(), reloadedUsers, reloadedCamps);
+        // Written as a checkpoint would be, before the folded segments are deleted.
+        Snapshot.write(snapshots(), reloadedUsers, reloadedCamps);
+
+        var newer = chain();
+        var restartedUsers = UserController.loadFrom(newer);
+        var restartedCamps = CampController.loadFrom(newer, restartedUsers);
+        Journal.replay(journals(), restartedUsers, restartedCamps);
+
+        assertEquals(describe(userController, campController), describe(restartedUsers, restartedCamps));
+    }
+
+    @Test
+    void replayKeepsLineBreaksInPosts() throws IOException, CampControllerException {
+        var camp = campController.getCamp(0);
+        var alice = (Student) userController.getUser("ALICE");
+        camp.addStudent(alice);
+        var enquiry = new Enquiry("First line\nsecond, \"quoted\" line", "ALICE");
+        camp.addEnquiries(alice, enquiry);
+        enquiry.reply("Answer\r\n\r\nwith a blank line");
+        var bob = (Student) userController.getUser("BOB");
+        camp.addStudentCommittee(bob);
+        var committee = userController.convertTo(bob, camp);
+        camp.addSuggestion(committee, new Suggestion("Ends with a line break\n", "BOB"));
+        userController.getUser("CAROL").changePassword("after the posts");
+        journal.close();
+
+        var chain = chain();
+        var reloadedUsers = UserController.loadFrom(chain);
+        var reloadedCamps = CampController.loadFrom(chain, reloadedUsers);
+        Journal.replay(journals(), reloadedUsers, reloadedCamps);
+
+        var reloaded = reloadedCamps.getCamp(0);
+        var reloadedEnquiry = reloaded.getAllEnquiries().get(0);
+        assertEquals(enquiry.getMessage(), reloadedEnquiry.getMessage());
+        assertEquals(enquiry.getAnswer(), reloadedEnquiry.getAnswer());
+        assertEquals("Ends with a line break\n", reloaded.getAllSuggestions().get(0).getText());
+        assertEquals(describe(userController, campController), describe(reloadedUsers, reloadedCamps));
+    }
+}
@@ -0,0 +1,67 @@
+package storage;
+
+import camp.CampController;
+import camp.CampControllerException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import user.StudentCommittee;
+import user.UserController;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnapshotTest {
+    @TempDir
+    Path directory;
+
+    private String snapshots() {
+        return directory.resolve("snapshot").toString();
+    }
+
+    @Test
+    void fullSnapshotRoundTrip() throws IOException, CampControllerException {
+        var userController = Fixtures.users(directory);
+        var campController = Fixtures.camps(userController);
+        Fixtures.mutate(userController, campController);
+        Snapshot.write(snapshots(), userController, campController);
+
+        var chain = Snapshot.chain(snapshots());
+        var reloadedUsers = UserController.loadFrom(chain);
+        var reloadedCamps = CampController.loadFrom(chain, reloadedUsers);
+        assertEquals(Fixtures.describe(userController, campController), Fixtures.describe(reloadedUsers, reloadedCamps));
+        assertInstanceOf(StudentCommittee.class, reloadedUsers.getUser("BOB"));
+    }
+
+    @Test
+    void deltaSnapshotRoundTrip() throws IOException, CampControllerException {
+        var userController = Fixtures.users(directory);
+        var campController = Fixtures.camps(userController);
+        Snapshot.write(snapshots(), userController, campController);
+        var journals = directory.resolve("journal").toString();
+        var journal = Journal.open(journals);
+        try {
+            Fixtures.mutate(userController, campController);
+        } finally {
+            journal.close();
+        }
+
+        // Replayed as a checkpoint does, which marks what changed since the base.
+        var chain = Snapshot.chain(snapshots());
+        var replayedUsers = UserController.loadFrom(chain);
+        var replayedCamps = CampController.loadFrom(chain, replayedUsers);
+        Journal.replay(journals, replayedUsers, replayedCamps);
+        Snapshot.writeDelta(snapshots(), chain.get(0), replayedUsers, replayedCamps);
+
+        var delta = Snapshot.chain(snapshots());
+        assertTrue(delta.get(0).isDelta());
+        assertEquals(2, delta.size());
+        var reloadedUsers = UserController.loadFrom(delta);
+        var reloadedCamps = CampController.loadFrom(delta, reloadedUsers);
+        assertEquals(Fixtures.describe(userController, campController), Fixtures.describe(reloadedUsers, reloadedCamps));
+        assertInstanceOf(StudentCommittee.class, reloadedUsers.getUser("BOB"));
+    }
+}
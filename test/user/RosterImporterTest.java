@@ -0,0 +1,43 @@
+package user;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RosterImporterTest {
+    @Test
+    void trailingEmptyFieldsAreDropped() {
+        var rows = RosterImporter.parse("Alice,ALICE@e.ntu.edu.sg,SCSE,\r\nBob,BOB@e.ntu.edu.sg,EEE,,\n,,\nCarol,,NBS\n");
+        assertEquals(4, rows.size());
+        assertArrayEquals(new String[] {"Alice", "ALICE@e.ntu.edu.sg", "SCSE"}, rows.get(0));
+        assertArrayEquals(new String[] {"Bob", "BOB@e.ntu.edu.sg", "EEE"}, rows.get(1));
+        assertArrayEquals(new String[0], rows.get(2));
+        assertArrayEquals(new String[] {"Carol", "", "NBS"}, rows.get(3));
+    }
+
+    @Test
+    void quotedFieldsKeepCommasAndLineBreaks() {
+        var rows = RosterImporter.parse("\"Lee, Dana\",DANA@e.ntu.edu.sg,\"S\"\"CSE\nNorth\"\n");
+        assertEquals(1, rows.size());
+        assertArrayEquals(new String[] {"Lee, Dana", "DANA@e.ntu.edu.sg", "S\"CSE\nNorth"}, rows.get(0));
+    }
+
+    @Test
+    void rosterWithTrailingCommasLoads(@TempDir Path directory) throws IOException {
+        var roster = directory.resolve("student_list.csv");
+        Files.writeString(roster, "Name,Email,Faculty,\nAlice,ALICE@e.ntu.edu.sg,SCSE,\nBob,BOB@e.ntu.edu.sg,EEE\n");
+        assertEquals(List.of(3, 3), RosterImporter.read(roster.toString(), fields -> fields.length));
+
+        var userController = new UserController();
+        userController.addStudents(roster.toString());
+        assertEquals("SCSE", userController.getUser("ALICE").getFaculty());
+        assertEquals("EEE", userController.getUser("BOB").getFaculty());
+    }
+}
@@ -0,0 +1,79 @@
+package user;
+
+import camp.Camp;
+import org.junit.jupiter.api.Test;
+import utils.TimeRegion;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StudentTest {
+    private static final LocalDate FIRST_DAY = LocalDate.now().plusDays(30);
+
+    private static final Staff STAFF = new Staff("Staff", "STAFFTEST", "password", "SCSE");
+
+    private static Camp camp(int id, int startDay, int days) {
+        var start = FIRST_DAY.plusDays(startDay);
+        return new Camp(id, "Camp " + id, new TimeRegion(start, start.plusDays(days)), FIRST_DAY.minusDays(1),
+                "NTU", "Hall", 10, 2, "Test camp", STAFF, true);
+    }
+
+    private static boolean linearCheck(Student student, Camp joinCamp) {
+        for (var camp: student.getAttendingCamps()) {
+            if (camp.getRegion().conflictsWith(joinCamp.getRegion())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Test
+    void conflictCheckFollowsChangedCampDates() {
+        var student = new Student("Student", "STUDENTTEST1", "password", "SCSE");
+        var joined = camp(1, 0, 2);
+        var other = camp(2, 10, 2);
+        student.joinCamp(joined);
+        assertTrue(student.checkTimeConflicts(other));
+
+        joined.setRegion(new TimeRegion(FIRST_DAY.plusDays(11), FIRST_DAY.plusDays(12)));
+        assertFalse(student.checkTimeConflicts(other));
+
+        joined.setRegion(new TimeRegion(FIRST_DAY, FIRST_DAY.plusDays(1)));
+        assertTrue(student.checkTimeConflicts(other));
+    }
+
+    @Test
+    void matchesLinearScanUnderRandomJoinsAndDateChanges() {
+        var random = new Random(11);
+        var camps = new ArrayList<Camp>();
+        for (int i = 0; i < 60; i++) {
+            camps.add(camp(100 + i, random.nextInt(120), random.nextInt(5)));
+        }
+        var student = new Student("Student", "STUDENTTEST2", "password", "SCSE");
+        for (int i = 0; i < 20_000; i++) {
+            var camp = camps.get(random.nextInt(camps.size()));
+            switch (random.nextInt(4)) {
+                case 0 -> {
+                    if (!student.getAttendingCamps().contains(camp)) {
+                        student.joinCamp(camp);
+                    }
+                }
+                case 1 -> student.removeCamp(camp);
+                case 2 -> {
+                    var start = FIRST_DAY.plusDays(random.nextInt(120));
+                    camp.setRegion(new TimeRegion(start, start.plusDays(random.nextInt(5))));
+                }
+                default -> {
+                    if (!student.getAttendingCamps().contains(camp)) {
+                        assertEquals(linearCheck(student, camp), student.checkTimeConflicts(camp));
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvTest {
+    private static List<String> records(String text) throws IOException {
+        var records = new ArrayList<String>();
+        try (var reader = new Csv.RecordReader(new StringReader(text))) {
+            String record;
+            while ((record = reader.next()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    @Test
+    void recordsKeepQuotedLineBreaks() throws IOException {
+        var long1 = "x".repeat(10_000) + "\n" + "y".repeat(10_000);
+        var rows = List.of(
+                new String[] {"camp.enquiry", "0", "0", "ALICE", "line1\nline2"},
+                new String[] {"reply", "a\r\nb", "\"quoted\", and\n"},
+                new String[] {"long", long1, ""},
+                new String[] {"last"});
+        var text = new StringBuilder();
+        for (var row: rows) {
+            text.append(Csv.join(row)).append("\r\n");
+        }
+
+        var records = records(text.toString());
+        assertEquals(rows.size(), records.size());
+        for (int i = 0; i < rows.size(); i++) {
+            assertEquals(List.of(rows.get(i)), Csv.split(records.get(i)));
+        }
+    }
+
+    @Test
+    void unterminatedQuoteRunsToTheEnd() throws IOException {
+        var records = records("a,b\nc,\"cut\nshort");
+        assertEquals(List.of("a,b", "c,\"cut\nshort"), records);
+        assertThrows(IllegalArgumentException.class, () -> Csv.split(records.get(1)));
+    }
+}
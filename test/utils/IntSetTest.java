@@ -0,0 +1,33 @@
+package utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IntSetTest {
+    @Test
+    void matchesInsertionOrderedReferenceSet() {
+        var random = new Random(13);
+        var set = new IntSet();
+        var reference = new LinkedHashSet<Integer>();
+        for (int i = 0; i < 100_000; i++) {
+            int value = random.nextInt(2000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(reference.remove(value), set.remove(value));
+            } else {
+                assertEquals(reference.add(value), set.add(value));
+            }
+            assertEquals(reference.contains(value), set.contains(value));
+            assertEquals(reference.size(), set.size());
+            if (i % 5000 == 0) {
+                assertArrayEquals(reference.stream().mapToInt(Integer::intValue).toArray(), set.toArray());
+            }
+        }
+        assertArrayEquals(reference.stream().mapToInt(Integer::intValue).toArray(), set.toArray());
+        assertArrayEquals(set.toArray(), set.stream().toArray());
+    }
+}
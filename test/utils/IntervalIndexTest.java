@@ -0,0 +1,74 @@
+package utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class IntervalIndexTest {
+    private static final LocalDate EPOCH = LocalDate.of(2024, 1, 1);
+
+    private static TimeRegion randomRegion(Random random) {
+        var start = EPOCH.plusDays(random.nextInt(365));
+        return new TimeRegion(start, start.plusDays(random.nextInt(8)));
+    }
+
+    @Test
+    void matchesLinearScanUnderRandomOperations() {
+        var random = new Random(7);
+        var index = new IntervalIndex<Integer>();
+        // Reference kept in the order values were last added, which breaks ties between equal start dates.
+        var reference = new LinkedHashMap<Integer, TimeRegion>();
+        for (int i = 0; i < 50_000; i++) {
+            int value = random.nextInt(500);
+            switch (random.nextInt(4)) {
+                case 0, 1 -> {
+                    var region = randomRegion(random);
+                    index.add(value, region);
+                    reference.remove(value);
+                    reference.put(value, region);
+                }
+                case 2 -> assertEquals(reference.remove(value) != null, index.remove(value));
+                default -> {
+                    var query = randomRegion(random);
+                    assertEquals(reference.values().stream().anyMatch(region -> region.conflictsWith(query)), index.overlaps(query));
+                    assertEquals(linearWithin(reference, query), index.within(query));
+                }
+            }
+            assertEquals(reference.size(), index.size());
+            assertEquals(reference.containsKey(value), index.contains(value));
+        }
+    }
+
+    @Test
+    void emptyIndexHasNoOverlap() {
+        var index = new IntervalIndex<String>();
+        var region = new TimeRegion(EPOCH, EPOCH.plusDays(3));
+        assertFalse(index.overlaps(region));
+        assertEquals(List.of(), index.within(region));
+        index.add("camp", region);
+        index.clear();
+        assertEquals(0, index.size());
+        assertFalse(index.overlaps(region));
+    }
+
+    private static List<Integer> linearWithin(Map<Integer, TimeRegion> reference, TimeRegion query) {
+        var result = new ArrayList<Integer>();
+        for (var entry: reference.entrySet()) {
+            if (query.fullyCover(entry.getValue())) {
+                result.add(entry.getKey());
+            }
+        }
+        // Stable, so values starting on the same day stay in the order they were added.
+        result.sort(Comparator.comparing(value -> reference.get(value).getStartTime()));
+        return result;
+    }
+}
@@ -0,0 +1,95 @@
+package utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoaringBitmapTest {
+    /**
+     * Values over a few 65536-wide groups, dense enough in the first group to turn its container into a bitmap.
+     */
+    private static int randomValue(Random random) {
+        return switch (random.nextInt(3)) {
+            case 0 -> random.nextInt(12_000);
+            case 1 -> (1 << 16) + random.nextInt(3000);
+            default -> random.nextInt(1 << 20);
+        };
+    }
+
+    private static int[] toArray(Set<Integer> values) {
+        return new TreeSet<>(values).stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static RoaringBitmap bitmapOf(Set<Integer> values) {
+        var bitmap = new RoaringBitmap();
+        values.forEach(bitmap::add);
+        return bitmap;
+    }
+
+    @Test
+    void matchesReferenceSetUnderRandomAddsAndRemoves() {
+        var random = new Random(5);
+        var bitmap = new RoaringBitmap();
+        var reference = new HashSet<Integer>();
+        for (int i = 0; i < 200_000; i++) {
+            int value = randomValue(random);
+            if (random.nextInt(3) == 0) {
+                assertEquals(reference.remove(value), bitmap.remove(value));
+            } else {
+                assertEquals(reference.add(value), bitmap.add(value));
+            }
+            assertEquals(reference.contains(value), bitmap.contains(value));
+            if (i % 10_000 == 0) {
+                assertEquals(reference.size(), bitmap.cardinality());
+                assertArrayEquals(toArray(reference), bitmap.toArray());
+            }
+        }
+        assertEquals(reference.size(), bitmap.cardinality());
+        assertArrayEquals(toArray(reference), bitmap.toArray());
+        for (int value: toArray(reference)) {
+            bitmap.remove(value);
+        }
+        assertEquals(0, bitmap.cardinality());
+        assertTrue(bitmap.isEmpty());
+    }
+
+    @Test
+    void setOperationsMatchReferenceSets() {
+        var random = new Random(9);
+        for (int round = 0; round < 50; round++) {
+            var first = new HashSet<Integer>();
+            var second = new HashSet<Integer>();
+            int size = random.nextInt(20_000);
+            for (int i = 0; i < size; i++) {
+                first.add(randomValue(random));
+                second.add(randomValue(random));
+            }
+            var union = new HashSet<>(first);
+            union.addAll(second);
+            var intersection = new HashSet<>(first);
+            intersection.retainAll(second);
+
+            var or = bitmapOf(first);
+            or.or(bitmapOf(second));
+            assertArrayEquals(toArray(union), or.toArray());
+
+            var and = bitmapOf(first);
+            and.and(bitmapOf(second));
+            assertArrayEquals(toArray(intersection), and.toArray());
+
+            var firstBitmap = bitmapOf(first);
+            var copy = firstBitmap.copy();
+            assertArrayEquals(toArray(intersection), RoaringBitmap.and(firstBitmap, bitmapOf(second)).toArray());
+            assertEquals(intersection.size(), RoaringBitmap.andCardinality(firstBitmap, bitmapOf(second)));
+            copy.add(1 << 21);
+            assertEquals(first.size(), firstBitmap.cardinality());
+        }
+    }
+}